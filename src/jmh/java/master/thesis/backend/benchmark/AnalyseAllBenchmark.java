@@ -0,0 +1,46 @@
+package master.thesis.backend.benchmark;
+
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link Analyser#analyseAll(java.util.Iterator, int)} for a batch of 400 small codes,
+ * from one worker up to eight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyseAllBenchmark {
+
+    private static final int BATCH_SIZE = 400;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private Analyser analyser;
+    private List<String> codes;
+
+    @Setup
+    public void setUp() {
+        analyser = new Analyser();
+        codes = new ArrayList<>();
+        String code = GeneratedCode.generate(GeneratedCode.Check.ALL, GeneratedCode.Size.SMALL);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            codes.add(code);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BugReport> analyseAll() {
+        return analyser.analyseAll(codes.iterator(), workers);
+    }
+}
@@ -0,0 +1,36 @@
+package master.thesis.backend.benchmark;
+
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Analyser#analyse(String)} from parsing to the finished report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyserBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public GeneratedCode.Size size;
+
+    private Analyser analyser;
+    private String code;
+
+    @Setup
+    public void setUp() {
+        analyser = new Analyser();
+        code = GeneratedCode.generate(GeneratedCode.Check.ALL, size);
+    }
+
+    @Benchmark
+    public BugReport analyse() {
+        return analyser.analyse(code);
+    }
+}
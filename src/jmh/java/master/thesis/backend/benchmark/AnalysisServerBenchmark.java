@@ -0,0 +1,66 @@
+package master.thesis.backend.benchmark;
+
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.serialization.ReportJson;
+import master.thesis.backend.server.AnalysisServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load test of {@link AnalysisServer} on this machine: four clients sending requests on kept-alive connections,
+ * one code per request or {@link #BATCH_SIZE} codes per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AnalysisServerBenchmark {
+
+    private static final int BATCH_SIZE = 10;
+
+    private AnalysisServer server;
+    private HttpClient client;
+    private HttpRequest single;
+    private HttpRequest batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = AnalysisServer.start(new Analyser(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String code = GeneratedCode.generate(GeneratedCode.Check.ALL, GeneratedCode.Size.SMALL);
+        String base = "http://localhost:" + server.getAddress().getPort();
+        single = HttpRequest.newBuilder(URI.create(base + AnalysisServer.ANALYSE_PATH)).POST(HttpRequest.BodyPublishers.ofString(code)).build();
+        ByteArrayOutputStream codes = new ByteArrayOutputStream();
+        ReportJson.writeSources(Collections.nCopies(BATCH_SIZE, code), codes);
+        batch = HttpRequest.newBuilder(URI.create(base + AnalysisServer.BATCH_PATH)).POST(HttpRequest.BodyPublishers.ofByteArray(codes.toByteArray())).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public int analyse() throws IOException, InterruptedException {
+        return client.send(single, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int analyseBatch() throws IOException, InterruptedException {
+        return client.send(batch, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+}
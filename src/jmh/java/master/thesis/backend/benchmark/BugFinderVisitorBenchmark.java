@@ -0,0 +1,69 @@
+package master.thesis.backend.benchmark;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import master.thesis.backend.adapter.AnnotationsAdapter;
+import master.thesis.backend.detector.Detector;
+import master.thesis.backend.detector.DetectorRegistry;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.visitor.BugFinderVisitor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BugFinderVisitor} on code that is already parsed, once for every check. Only the detector of the
+ * check is enabled, or all of them for {@link GeneratedCode.Check#ALL}.
+ *
+ * The symbol solver caches resolved types in the nodes, so the code is parsed again before every invocation.
+ * Parsing is not part of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BugFinderVisitorBenchmark {
+
+    @Param({"EQUALS_OPERATOR", "INTEGER_DIVISION", "BITWISE_OPERATOR", "IF_WITHOUT_BRACKETS", "SEMICOLON_AFTER_IF", "MISSING_EQUALS_METHOD", "ALL"})
+    public GeneratedCode.Check check;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public GeneratedCode.Size size;
+
+    private JavaParser parser;
+    private String code;
+    private CompilationUnit compilationUnit;
+    private AnnotationsAdapter configuration;
+    private List<Detector> detectors;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        ParserConfiguration parserConfiguration = new ParserConfiguration();
+        parserConfiguration.setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+        parser = new JavaParser(parserConfiguration);
+        code = GeneratedCode.generate(check, size);
+        EnumSet<ErrorKind> enabledKinds = check == GeneratedCode.Check.ALL ? EnumSet.allOf(ErrorKind.class) : EnumSet.of(ErrorKind.valueOf(check.name()));
+        detectors = DetectorRegistry.withDefaultDetectors().getDetectors(enabledKinds);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        compilationUnit = parser.parse(code).getResult().get();
+        configuration = new AnnotationsAdapter(compilationUnit);
+    }
+
+    @Benchmark
+    public BugReport visit() {
+        BugFinderVisitor visitor = new BugFinderVisitor(configuration, detectors);
+        visitor.visit(compilationUnit, null);
+        return visitor.getReport();
+    }
+}
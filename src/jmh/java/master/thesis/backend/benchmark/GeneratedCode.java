@@ -0,0 +1,96 @@
+package master.thesis.backend.benchmark;
+
+/**
+ * Generates code to analyse in the benchmarks.
+ *
+ * Every {@link Check} generates code where only that check finds errors, so the cost of one check can be
+ * measured without the others.
+ */
+public final class GeneratedCode {
+
+    private GeneratedCode() {}
+
+    public enum Size {
+        SMALL(10), MEDIUM(100), LARGE(1000);
+
+        private final int members;
+
+        Size(int members) {
+            this.members = members;
+        }
+    }
+
+    public enum Check {
+        EQUALS_OPERATOR,
+        INTEGER_DIVISION,
+        BITWISE_OPERATOR,
+        IF_WITHOUT_BRACKETS,
+        SEMICOLON_AFTER_IF,
+        MISSING_EQUALS_METHOD,
+        ALL
+    }
+
+    /**
+     *
+     * @param check the check that should find errors in the code
+     * @param size the number of members in the generated class
+     * @return a class with one error for the given check in every member
+     */
+    public static String generate(Check check, Size size) {
+        StringBuilder code = new StringBuilder();
+        if (check != Check.MISSING_EQUALS_METHOD) {
+            code.append("@NoEqualsMethod\n");
+        }
+        code.append("public class Generated {\n");
+        for (int i = 0; i < size.members; i++) {
+            Check checkForMember = check;
+            if (check == Check.ALL) {
+                checkForMember = Check.values()[i % (Check.values().length - 1)];
+            }
+            appendMember(code, checkForMember, i);
+        }
+        code.append("}\n");
+        return code.toString();
+    }
+
+    private static void appendMember(StringBuilder code, Check check, int i) {
+        switch (check) {
+            case EQUALS_OPERATOR:
+                code.append("    public boolean m").append(i).append("(Object a, Object b) {\n")
+                        .append("        return a == b;\n")
+                        .append("    }\n");
+                break;
+            case INTEGER_DIVISION:
+                code.append("    public double m").append(i).append("(int a, int b) {\n")
+                        .append("        return a / b;\n")
+                        .append("    }\n");
+                break;
+            case BITWISE_OPERATOR:
+                code.append("    public boolean m").append(i).append("(boolean a, boolean b) {\n")
+                        .append("        return a & b;\n")
+                        .append("    }\n");
+                break;
+            case IF_WITHOUT_BRACKETS:
+                code.append("    public void m").append(i).append("(boolean b) {\n")
+                        .append("        if (b)\n")
+                        .append("            System.out.println(\"first\");\n")
+                        .append("            System.out.println(\"second\");\n")
+                        .append("    }\n");
+                break;
+            case SEMICOLON_AFTER_IF:
+                code.append("    public void m").append(i).append("(boolean b) {\n")
+                        .append("        if (b); {\n")
+                        .append("            System.out.println(\"always\");\n")
+                        .append("        }\n")
+                        .append("    }\n");
+                break;
+            case MISSING_EQUALS_METHOD:
+                code.append("    static class C").append(i).append(" {\n")
+                        .append("        int value;\n")
+                        .append("    }\n");
+                break;
+            default:
+                throw new IllegalArgumentException("No code for " + check);
+        }
+    }
+}
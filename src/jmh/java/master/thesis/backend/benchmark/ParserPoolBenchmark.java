@@ -0,0 +1,72 @@
+package master.thesis.backend.benchmark;
+
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.analyser.ParserPool;
+import master.thesis.backend.errors.BugReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the strategies of {@link ParserPool} for {@link Analyser#analyse(String)} from 1 to 64 threads. The pool
+ * has a parser for each available processor, created when first leased or up front with
+ * {@link ParserPool#prestart()}. The threads of JMH live for the whole trial, so {@link ParserPool.Strategy#PER_THREAD}
+ * keeps one parser for every thread. The statistics of the pool are printed after every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserPoolBenchmark {
+
+    @Param({"PER_CALL", "PER_THREAD", "POOLED"})
+    public ParserPool.Strategy strategy;
+
+    @Param({"false", "true"})
+    public boolean prestarted;
+
+    private Analyser analyser;
+    private String code;
+
+    @Setup
+    public void setUp() {
+        analyser = new Analyser();
+        analyser.setParserPool(strategy, Runtime.getRuntime().availableProcessors());
+        if (prestarted) {
+            analyser.getParserPool().prestart();
+        }
+        analyser.initialize();
+        code = GeneratedCode.generate(GeneratedCode.Check.ALL, GeneratedCode.Size.SMALL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(strategy + (prestarted ? " prestarted: " : ": ") + analyser.getParserPool().getStatistics());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public BugReport threads01() {
+        return analyser.analyse(code);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BugReport threads04() {
+        return analyser.analyse(code);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public BugReport threads16() {
+        return analyser.analyse(code);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public BugReport threads64() {
+        return analyser.analyse(code);
+    }
+}
@@ -0,0 +1,85 @@
+package master.thesis.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.serialization.ReportCodec;
+import master.thesis.backend.serialization.ReportJson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ReportJson} and {@link ReportCodec} with Jackson, which finds the fields of a report by
+ * reflection. Jackson can not make the errors again from JSON, so its reading is measured as reading a tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportSerializationBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public GeneratedCode.Size size;
+
+    private BugReport report;
+    private ObjectMapper mapper;
+    private ByteArrayOutputStream out;
+    private byte[] json;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        report = new Analyser().analyse(GeneratedCode.generate(GeneratedCode.Check.ALL, size));
+        mapper = new ObjectMapper().registerModule(new Jdk8Module()).disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        out = new ByteArrayOutputStream();
+        ReportJson.write(report, out);
+        json = out.toByteArray();
+        bytes = ReportCodec.encode(report);
+        mapper.writeValueAsBytes(report);
+    }
+
+    @Benchmark
+    public int writeJson() throws IOException {
+        out.reset();
+        ReportJson.write(report, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeJsonWithJackson() throws IOException {
+        out.reset();
+        mapper.writeValue(out, report);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeBinary() throws IOException {
+        out.reset();
+        ReportCodec.write(report, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public BugReport readJson() throws IOException {
+        return ReportJson.read(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public JsonNode readJsonWithJackson() throws IOException {
+        return mapper.readTree(json);
+    }
+
+    @Benchmark
+    public BugReport readBinary() throws IOException {
+        return ReportCodec.read(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,60 @@
+package master.thesis.backend.benchmark;
+
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to the first report in a new JVM, with and without {@link Analyser#initialize()}. Every fork
+ * is a new JVM, and every benchmark is measured once per fork.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    private static final String CODE = GeneratedCode.generate(GeneratedCode.Check.ALL, GeneratedCode.Size.SMALL);
+
+    @State(Scope.Benchmark)
+    public static class Initialized {
+
+        private Analyser analyser;
+
+        @Setup
+        public void setUp() {
+            analyser = new Analyser();
+            analyser.initialize();
+        }
+    }
+
+    /**
+     * A new analyser, and its first report.
+     */
+    @Benchmark
+    public BugReport firstReport() {
+        return new Analyser().analyse(CODE);
+    }
+
+    /**
+     * A new analyser, initialized before its first report.
+     */
+    @Benchmark
+    public BugReport initializeAndFirstReport() {
+        Analyser analyser = new Analyser();
+        analyser.initialize();
+        return analyser.analyse(CODE);
+    }
+
+    /**
+     * The first report of an analyser that was initialized before the measurement, like a service that reports
+     * ready when it is initialized.
+     */
+    @Benchmark
+    public BugReport firstReportWhenInitialized(Initialized initialized) {
+        return initialized.analyser.analyse(CODE);
+    }
+}
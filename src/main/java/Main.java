@@ -1,6 +1,59 @@
-public class Main {
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.analyser.ProjectReport;
+import master.thesis.backend.daemon.AnalysisClient;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.server.AnalysisServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 
-    public static void main(String[] args) {
+/**
+ * Analyses all the java files in a directory, and prints the errors of every file and the totals.
+ * With --serve, serves analyses over HTTP on the port until the JVM is stopped, see {@link AnalysisServer}.
+ * With --daemon, analyses the files in a daemon listening on the socket, and starts the daemon if it is not running,
+ * see {@link AnalysisClient}. The daemon shuts down after ten idle minutes.
+ *
+ * Usage: java Main &lt;directory&gt; | java Main --serve &lt;port&gt; | java Main --daemon &lt;socket&gt; &lt;file&gt;...
+ */
+public class Main {
 
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("--serve")) {
+            AnalysisServer server = AnalysisServer.start(new Analyser(), new InetSocketAddress(Integer.parseInt(args[1])));
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            System.out.println("Serving analyses on port " + server.getAddress().getPort());
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--daemon")) {
+            try (AnalysisClient client = AnalysisClient.connectOrSpawn(Paths.get(args[1]), Duration.ofMinutes(10))) {
+                for (int i = 2; i < args.length; i++) {
+                    BugReport report = client.analyse(new String(Files.readAllBytes(Paths.get(args[i])), StandardCharsets.UTF_8));
+                    String file = args[i];
+                    report.getException().ifPresent(exception -> System.out.println(file + ": not analysed"));
+                    for (BaseError error : report.getBugs()) {
+                        System.out.println(args[i] + ":" + error.getLineNumber() + ": " + error.getName());
+                    }
+                }
+            }
+            return;
+        }
+        if (args.length != 1) {
+            System.err.println("Usage: java Main <directory> | java Main --serve <port> | java Main --daemon <socket> <file>...");
+            System.exit(2);
+        }
+        Analyser analyser = new Analyser();
+        ProjectReport project = analyser.analyseProject(Paths.get(args[0]), Runtime.getRuntime().availableProcessors(), new AnalysisOptions(), (file, report) -> {
+            report.getException().ifPresent(exception -> System.out.println(file + ": " + exception.getClass().getSimpleName()));
+            for (BaseError error : report.getBugs()) {
+                System.out.println(file + ":" + error.getLineNumber() + ": " + error.getName());
+            }
+        });
+        System.out.println(project);
     }
 }
@@ -2,35 +2,64 @@ package master.thesis.backend.adapter;
 
 import com.github.javaparser.ast.CompilationUnit;
 import master.thesis.backend.analyser.AnalyserConfiguration;
-import master.thesis.backend.errors.*;
+import master.thesis.backend.errors.ErrorKind;
 import master.thesis.backend.visitor.AnnotationVisitor;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 
+/**
+ * Ignores errors for a class when the class has one of the annotations from
+ * https://github.com/JennStro/master-thesis-disable-warnings-annotations.
+ *
+ * The annotations are read once, when the adapter is created.
+ */
 public class AnnotationsAdapter implements AnalyserConfiguration {
 
-    private HashMap<String, String> fromAnnotationToName = new HashMap<>();
-    private AnnotationVisitor visitor;
+    private static final HashMap<String, ErrorKind> fromAnnotationToKind = new HashMap<>();
+
+    static {
+        fromAnnotationToKind.put("@BitwiseOperationAllowed", ErrorKind.BITWISE_OPERATOR);
+        fromAnnotationToKind.put("@EqualsOperatorOnObjectAllowed", ErrorKind.EQUALS_OPERATOR);
+        fromAnnotationToKind.put("@IfWithoutBracketsAllowed", ErrorKind.IF_WITHOUT_BRACKETS);
+        fromAnnotationToKind.put("@IntegerDivisionAllowed", ErrorKind.INTEGER_DIVISION);
+        fromAnnotationToKind.put("@NoEqualsMethod", ErrorKind.MISSING_EQUALS_METHOD);
+        fromAnnotationToKind.put("@IfStatementWithSemicolonAllowed", ErrorKind.SEMICOLON_AFTER_IF);
+    }
+
+    private final HashMap<String, EnumSet<ErrorKind>> kindsToIgnorePerClass = new HashMap<>();
 
     public AnnotationsAdapter(CompilationUnit compilationUnit) {
-        fromAnnotationToName.put("@BitwiseOperationAllowed", new BitwiseOperatorError().getName());
-        fromAnnotationToName.put("@EqualsOperatorOnObjectAllowed", new EqualsOperatorError().getName());
-        fromAnnotationToName.put("@IfWithoutBracketsAllowed", new IfWithoutBracketsError().getName());
-        fromAnnotationToName.put("@IntegerDivisionAllowed", new IntegerDivisionError().getName());
-        fromAnnotationToName.put("@NoEqualsMethod", new MissingEqualsMethodError().getName());
-        fromAnnotationToName.put("@IfStatementWithSemicolonAllowed", new SemiColonAfterIfError().getName());
-        this.visitor = new AnnotationVisitor();
+        AnnotationVisitor visitor = new AnnotationVisitor();
         visitor.visit(compilationUnit, null);
+        for (String className : visitor.getAnnotatedClasses()) {
+            EnumSet<ErrorKind> kindsToIgnore = EnumSet.noneOf(ErrorKind.class);
+            for (String annotation : visitor.getAnnotationsForClass(className)) {
+                ErrorKind kind = fromAnnotationToKind.get(annotation);
+                if (kind != null) {
+                    kindsToIgnore.add(kind);
+                }
+            }
+            kindsToIgnorePerClass.put(className, kindsToIgnore);
+        }
     }
 
     @Override
     public ArrayList<String> getErrorsToIgnoreForClass(String className) {
         ArrayList<String> errorsToIgnore = new ArrayList<>();
-        ArrayList<String> annotations = visitor.getAnnotationsForClass(className);
-        for (String annotation : annotations) {
-            errorsToIgnore.add(fromAnnotationToName.get(annotation));
+        for (ErrorKind kind : getKindsToIgnoreForClass(className)) {
+            errorsToIgnore.add(kind.getName());
         }
         return errorsToIgnore;
     }
+
+    @Override
+    public EnumSet<ErrorKind> getKindsToIgnoreForClass(String className) {
+        EnumSet<ErrorKind> kindsToIgnore = kindsToIgnorePerClass.get(className);
+        if (kindsToIgnore == null) {
+            return EnumSet.noneOf(ErrorKind.class);
+        }
+        return EnumSet.copyOf(kindsToIgnore);
+    }
 }
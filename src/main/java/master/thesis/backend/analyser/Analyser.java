@@ -1,58 +1,1106 @@
 package master.thesis.backend.analyser;
 
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import master.thesis.backend.adapter.AnnotationsAdapter;
+import master.thesis.backend.analyser.AnalysisMetrics.Phase;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.cache.SourceHash;
+import master.thesis.backend.detector.Detector;
+import master.thesis.backend.detector.DetectorRegistry;
+import master.thesis.backend.errors.BaseError;
 import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.solver.AnalysisTypeSolver;
+import master.thesis.backend.solver.JdkTypeSolver;
+import master.thesis.backend.solver.TypeOverlay;
+import master.thesis.backend.store.ReportStore;
 import master.thesis.backend.visitor.BugFinderVisitor;
+import master.thesis.backend.visitor.IncrementalBugFinderVisitor;
+import master.thesis.backend.visitor.MemberBody;
+import master.thesis.backend.visitor.SourceText;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The analyser. One instance can be shared by many threads.
+ *
+ * The type solver is created once and reused by every analysis, while every parse leases a {@link JavaParser} with
+ * its own {@link ParserConfiguration} from a {@link ParserPool}. The global configuration of
+ * {@link com.github.javaparser.StaticJavaParser} is never touched. The types of the JDK are kept in a
+ * {@link JdkTypeSolver} shared by all analysers, and the types declared in the analysed code in a
+ * {@link TypeOverlay} for that analysis only.
+ */
 public class Analyser {
 
-    private AnalyserConfiguration configuration;
+    private final AnalysisTypeSolver typeSolver;
+    private volatile AnalyserConfiguration configuration;
+    private volatile Executor executor;
+    private volatile DetectorRegistry detectorRegistry = DetectorRegistry.withDefaultDetectors();
+    private volatile ReportCache reportCache;
+    private volatile ReportStore reportStore;
+    private volatile String configurationKey = "annotations";
+    private volatile String detectorsKey = "default";
+    private volatile ParserPool parserPool = new ParserPool(ParserPool.Strategy.POOLED, Runtime.getRuntime().availableProcessors(), this::newParser);
+
+    private final Object initializationLock = new Object();
+    private volatile boolean initialized = false;
+    private CompletableFuture<Void> initialization;
+
+    /**
+     * The longest time {@link #warmUp()} warms up for.
+     */
+    public static final Duration DEFAULT_WARM_UP_TIME = Duration.ofSeconds(30);
+    static final int WARM_UP_WINDOW = 10;
+    static final int STABLE_WARM_UP_WINDOWS = 3;
+
+    private static final AtomicLong settingNumber = new AtomicLong();
+    private static final Path NO_MORE_FILES = Paths.get("");
+
+    /**
+     * Code with every kind of error, and types that are only found by the symbol solver, for {@link #initialize()}.
+     */
+    private static final String WARM_UP_CODE =
+            "import java.util.ArrayList;\n" +
+            "import java.util.List;\n" +
+            "class WarmUp {\n" +
+            "    private final List<String> names = new ArrayList<>();\n" +
+            "    private Integer count = 0;\n" +
+            "    double half(int a) { return a / 2; }\n" +
+            "    boolean same(WarmUp other) { return other == this || names.get(0) == other.names.get(0); }\n" +
+            "    boolean both(boolean a, boolean b) { return a & b | count.intValue() > 1; }\n" +
+            "    void print(String[] words, int[] numbers) {\n" +
+            "        if (words.length > 0);\n" +
+            "        if (numbers == null)\n" +
+            "            System.out.println(words[0]); System.out.println(-numbers[0] / 2);\n" +
+            "        for (String word : words) { names.add(word.trim() + count); }\n" +
+            "        names.forEach(name -> System.out.println(name.length() / 3));\n" +
+            "    }\n" +
+            "}\n";
+
+    /**
+     * Creates an analyser that finds the types of the JDK with {@link JdkTypeSolver#getShared()}.
+     */
+    public Analyser() {
+        this(JdkTypeSolver.getShared());
+    }
+
+    /**
+     *
+     * @param jdkTypeSolver to find the types of the JDK with, can be shared with other analysers
+     */
+    public Analyser(JdkTypeSolver jdkTypeSolver) {
+        this.typeSolver = new AnalysisTypeSolver(jdkTypeSolver);
+    }
+
+    /**
+     * Does the work that otherwise makes the first analysis slow: loads the classes of the parser, the detectors and
+     * the errors, initializes the metamodel of JavaParser and fills the type solver with the common types of java.lang
+     * and java.util. Call it before the analyser is used, for example before reporting that a service is ready.
+     *
+     * Only the first call does the work, and calls from other threads wait for it. The configuration, cache and
+     * store of this analyser are not used.
+     */
+    public void initialize() {
+        synchronized (initializationLock) {
+            if (initialized) {
+                return;
+            }
+            analyseToWarmUp(WARM_UP_CODE, detectorRegistry.getDetectors(EnumSet.allOf(ErrorKind.class)));
+            SourceHash.of(WARM_UP_CODE, "");
+            initialized = true;
+        }
+    }
+
+    /**
+     * Warms up with a maximum of {@link #DEFAULT_WARM_UP_TIME}, see {@link #warmUp(Duration)}.
+     *
+     * @return how the warm-up went
+     */
+    public WarmUpResult warmUp() {
+        return warmUp(DEFAULT_WARM_UP_TIME);
+    }
+
+    /**
+     * Initializes the analyser, see {@link #initialize()}, and then analyses a bundled corpus of codes over and over,
+     * until the JIT compiler has compiled the paths of every check and the time of an analysis of the whole corpus
+     * stops changing.
+     *
+     * The iterations are measured in windows of 10. The time is seen as stable when the median
+     * of a window has not been 5% faster than the fastest window before it for 3
+     * windows, and the JIT compiler did not compile anything during the last window, when the JVM can tell.
+     *
+     * The configuration, cache and store of this analyser are not used. Call it before the analyser is used, or
+     * while it is not busy, because it keeps a processor busy while it runs.
+     *
+     * @param maxTime to warm up for, if the time of an iteration does not get stable before. The corpus is analysed at
+     *                least once.
+     * @return how the warm-up went
+     */
+    public WarmUpResult warmUp(Duration maxTime) {
+        long start = System.nanoTime();
+        initialize();
+        List<String> corpus = WarmUpCorpus.get();
+        List<Detector> detectors = detectorRegistry.getDetectors(EnumSet.allOf(ErrorKind.class));
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean compilationTimeIsKnown = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long deadline = start + maxTime.toNanos();
+        long[] window = new long[WARM_UP_WINDOW];
+        long fastestWindow = Long.MAX_VALUE;
+        int windowsWithoutProgress = 0;
+        long compilationTime = compilationTimeIsKnown ? compiler.getTotalCompilationTime() : 0;
+        long firstIteration = 0;
+        long lastIteration = 0;
+        int iterations = 0;
+        boolean stable = false;
+        while (!stable && (iterations == 0 || System.nanoTime() - deadline < 0)) {
+            long iterationStart = System.nanoTime();
+            for (String code : corpus) {
+                analyseToWarmUp(code, detectors);
+            }
+            lastIteration = System.nanoTime() - iterationStart;
+            if (iterations == 0) {
+                firstIteration = lastIteration;
+            }
+            window[iterations % WARM_UP_WINDOW] = lastIteration;
+            iterations++;
+            if (iterations % WARM_UP_WINDOW != 0) {
+                continue;
+            }
+            long median = median(window);
+            if (median * 20 < fastestWindow * 19) {
+                windowsWithoutProgress = 0;
+            } else {
+                windowsWithoutProgress++;
+            }
+            fastestWindow = Math.min(fastestWindow, median);
+            boolean compiled = false;
+            if (compilationTimeIsKnown) {
+                long previousCompilationTime = compilationTime;
+                compilationTime = compiler.getTotalCompilationTime();
+                compiled = compilationTime > previousCompilationTime;
+            }
+            stable = windowsWithoutProgress >= STABLE_WARM_UP_WINDOWS && !compiled;
+        }
+        return new WarmUpResult(iterations, Duration.ofNanos(System.nanoTime() - start), Duration.ofNanos(firstIteration), Duration.ofNanos(lastIteration), stable);
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Analyses like {@link #analyse(String)}, but with the annotations of the code as configuration, and renders the
+     * errors. Nothing is kept.
+     */
+    private void analyseToWarmUp(String code, List<Detector> detectors) {
+        try {
+            CompilationUnit compilationUnit = parse(code, true);
+            BugFinderVisitor visitor = new BugFinderVisitor(new AnnotationsAdapter(compilationUnit), detectors);
+            AnalysisTypeSolver.Scope scope = useTypesOf(compilationUnit);
+            try {
+                visitor.visit(compilationUnit, null);
+            } finally {
+                scope.close();
+            }
+            for (BaseError error : visitor.getReport().getBugs()) {
+                error.render();
+            }
+        } catch (RuntimeException e) {
+            // Code that can not be analysed warms up the paths of failures
+        }
+    }
+
+    /**
+     * Starts {@link #initialize()} on a new daemon thread, so the analyser can be used at once, and is fast when
+     * the initialization is done.
+     *
+     * @return completes when the analyser is initialized. The same future is returned by every call.
+     */
+    public CompletableFuture<Void> initializeAsync() {
+        synchronized (this) {
+            if (initialization == null) {
+                initialization = CompletableFuture.runAsync(this::initialize, runnable -> {
+                    Thread thread = new Thread(runnable, "analyser-initializer");
+                    thread.setDaemon(true);
+                    thread.start();
+                });
+            }
+            return initialization;
+        }
+    }
+
+    /**
+     *
+     * @return true when {@link #initialize()} is done
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
 
     /**
      * Analyses the given code as string using {@link BugFinderVisitor}.
      *
-     * If no {@link AnalyserConfiguration} is given, {@link AnnotationsAdapter} will be used to ignore errors.
+     * If no {@link AnalyserConfiguration} is given, a new {@link AnnotationsAdapter} will be used to ignore errors.
      * Only the types within the code to analyse will be resolved.
      * If a type is not resolved, an exception will be added to {@link BugReport}.
      * If the code has a parseerror, an exception will be added to {@link BugReport}.
      *
+     * The text of operands and suggestions is made from the parsed code when it is first asked for. Until then
+     * the errors hold on to the parsed code, so render them with {@link BaseError#render()}, or take a
+     * {@link BugReport#snapshot()}, to keep a report for long. The reports of the batch, asynchronous and project
+     * analyses, and the published errors, are rendered before they are handed over.
+     *
      * @param code to analyse as string
      * @return the report of this analysis.
      */
     public BugReport analyse(String code) {
-        CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver();
-        combinedTypeSolver.add(new ReflectionTypeSolver());
-        StaticJavaParser.getConfiguration().setSymbolResolver(new JavaSymbolSolver(combinedTypeSolver));
+        return analyse(code, new AnalysisOptions());
+    }
+
+    /**
+     * Analyses the given code as string, see {@link #analyse(String)}, using only the detectors enabled by the
+     * options.
+     *
+     * @param code to analyse as string
+     * @param options for this analysis
+     * @return the report of this analysis.
+     */
+    public BugReport analyse(String code, AnalysisOptions options) {
+        EnumSet<ErrorKind> enabledKinds = options.getEnabledKinds();
+        DetectorRegistry registry = detectorRegistry;
+        return analyseWithCache(code, options, () -> analyse(code, registry.requiresSymbolResolution(enabledKinds), registry.getDetectors(enabledKinds), AnalysisLimits.startingNow(options),
+                options.isMetricsEnabled()));
+    }
+
+    /**
+     * Analyses the given code as string, see {@link #analyse(String, AnalysisOptions)}, and gives every error to the
+     * listener as soon as it is found. The errors are not kept, and the cache and store of this analyser are not
+     * used. When the analysis is done, the listener is told if it completed, was truncated by a limit, or an
+     * exception occurred.
+     *
+     * If the listener throws an exception, the analysis stops, and the exception is given to
+     * {@link ErrorListener#onException(Throwable)}.
+     *
+     * @param code to analyse as string
+     * @param options for this analysis
+     * @param listener to give the errors to
+     */
+    public void analyse(String code, AnalysisOptions options, ErrorListener listener) {
+        EnumSet<ErrorKind> enabledKinds = options.getEnabledKinds();
+        DetectorRegistry registry = detectorRegistry;
+        BugReport report = analyse(new StringReader(code), registry.requiresSymbolResolution(enabledKinds), registry.getDetectors(enabledKinds),
+                AnalysisLimits.startingNow(options), listener, false);
+        Optional<Throwable> exception = report.getException();
+        if (exception.isPresent()) {
+            listener.onException(exception.get());
+        } else {
+            if (report.isTruncated()) {
+                listener.onTruncated();
+            }
+            listener.onComplete();
+        }
+    }
 
+    /**
+     * Publishes the errors of the given code as they are found, buffering at most
+     * {@link Flow#defaultBufferSize()} errors of every subscriber, see {@link #publish(String, AnalysisOptions, int)}.
+     *
+     * @param code to analyse as string
+     * @param options for the analyses
+     * @return the publisher of the errors
+     */
+    public Flow.Publisher<BaseError> publish(String code, AnalysisOptions options) {
+        return publish(code, options, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Publishes the errors of the given code as they are found, see
+     * {@link #analyse(String, AnalysisOptions, ErrorListener)}. Every subscriber gets its own analysis on the
+     * executor of this analyser, see {@link #setExecutor(Executor)}. The analysis does not wait for the subscriber,
+     * the errors it has not requested yet are buffered. If more errors are found than the buffer can hold, the
+     * analysis stops and the subscriber is given an {@link IllegalStateException} instead of the buffered errors.
+     *
+     * A parseerror or an exception during the analysis is given to {@link Flow.Subscriber#onError(Throwable)} after
+     * the errors found before it. An analysis that stopped at a limit of the options ends with an
+     * {@link AnalysisTruncatedException} instead of {@link Flow.Subscriber#onComplete()}.
+     *
+     * @param code to analyse as string
+     * @param options for the analyses
+     * @param maxBufferedErrors of every subscriber, at least 1
+     * @return the publisher of the errors
+     */
+    public Flow.Publisher<BaseError> publish(String code, AnalysisOptions options, int maxBufferedErrors) {
+        Executor executorForThisAnalysis = executor;
+        if (executorForThisAnalysis == null) {
+            executorForThisAnalysis = AnalysisExecutors.defaultExecutor();
+        }
+        AnalysisOptions optionsForThisAnalysis = options.copy();
+        return new ErrorPublisher(listener -> analyse(code, optionsForThisAnalysis, listener), executorForThisAnalysis, maxBufferedErrors);
+    }
+
+    /**
+     * Analyses the given code on the executor of this analyser, see {@link #analyse(String)} and
+     * {@link #setExecutor(Executor)}. The calling thread does not wait for the analysis.
+     *
+     * @param code to analyse as string
+     * @return the report of this analysis, when it is done.
+     */
+    public CompletableFuture<BugReport> analyseAsync(String code) {
+        return analyseAsync(code, new AnalysisOptions());
+    }
+
+    /**
+     * Analyses the given code on the executor of this analyser, see {@link #analyse(String, AnalysisOptions)} and
+     * {@link #setExecutor(Executor)}.
+     *
+     * @param code to analyse as string
+     * @param options for this analysis
+     * @return the report of this analysis, when it is done.
+     */
+    public CompletableFuture<BugReport> analyseAsync(String code, AnalysisOptions options) {
+        Executor executorForThisAnalysis = executor;
+        if (executorForThisAnalysis == null) {
+            executorForThisAnalysis = AnalysisExecutors.defaultExecutor();
+        }
+        return analyseAsync(code, options, executorForThisAnalysis);
+    }
+
+    /**
+     * Analyses the given code on the given executor, see {@link #analyse(String)}.
+     *
+     * @param code to analyse as string
+     * @param executor to run the analysis on
+     * @return the report of this analysis, when it is done.
+     */
+    public CompletableFuture<BugReport> analyseAsync(String code, Executor executor) {
+        return analyseAsync(code, new AnalysisOptions(), executor);
+    }
+
+    /**
+     * Analyses the given code on the given executor, see {@link #analyse(String, AnalysisOptions)}.
+     *
+     * @param code to analyse as string
+     * @param options for this analysis
+     * @param executor to run the analysis on
+     * @return the report of this analysis, when it is done.
+     */
+    public CompletableFuture<BugReport> analyseAsync(String code, AnalysisOptions options, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> rendered(analyse(code, options)), executor);
+    }
+
+    /**
+     * Analyses all the given codes, see {@link #analyse(String)}.
+     * One worker is used for each available processor.
+     *
+     * @param codes to analyse as strings
+     * @return the reports of the analyses, in the same order as the codes
+     */
+    public List<BugReport> analyseAll(Collection<String> codes) {
+        return analyseAll(codes.iterator(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Analyses all the given codes in parallel, see {@link #analyse(String)}.
+     *
+     * Every worker takes the next code from the iterator when it is done with the previous one, and leases a
+     * {@link JavaParser} from the pool of this analyser for every parse, see {@link #setParserPool}. The iterator is
+     * only used by one worker at a time.
+     *
+     * @param codes to analyse as strings
+     * @param numberOfWorkers the number of threads to analyse with
+     * @return the reports of the analyses, in the same order as the codes
+     * @throws CancellationException if the calling thread is interrupted while waiting for the workers
+     */
+    public List<BugReport> analyseAll(Iterator<String> codes, int numberOfWorkers) {
+        return analyseAll(codes, numberOfWorkers, new AnalysisOptions());
+    }
+
+    /**
+     * Analyses all the given codes in parallel, see {@link #analyseAll(Iterator, int)}, using only the detectors
+     * enabled by the options.
+     *
+     * @param codes to analyse as strings
+     * @param numberOfWorkers the number of threads to analyse with
+     * @param options for every analysis
+     * @return the reports of the analyses, in the same order as the codes
+     * @throws CancellationException if the calling thread is interrupted while waiting for the workers
+     */
+    public List<BugReport> analyseAll(Iterator<String> codes, int numberOfWorkers, AnalysisOptions options) {
+        WorkerPool.requireWorkers(numberOfWorkers);
+        EnumSet<ErrorKind> enabledKinds = options.getEnabledKinds();
+        DetectorRegistry registry = detectorRegistry;
+        boolean requiresSymbolResolution = registry.requiresSymbolResolution(enabledKinds);
+        List<Detector> detectors = registry.getDetectors(enabledKinds);
+        ArrayList<BugReport> reports = new ArrayList<>();
+        try (WorkerPool workers = new WorkerPool(numberOfWorkers)) {
+            workers.runOnEveryThread(() -> {
+                while (true) {
+                    String code;
+                    int index;
+                    synchronized (codes) {
+                        if (!codes.hasNext()) {
+                            return null;
+                        }
+                        code = codes.next();
+                        synchronized (reports) {
+                            index = reports.size();
+                            reports.add(null);
+                        }
+                    }
+                    BugReport report = rendered(analyseWithCache(code, options, () -> analyse(code, requiresSymbolResolution, detectors, AnalysisLimits.startingNow(options), options.isMetricsEnabled())));
+                    synchronized (reports) {
+                        reports.set(index, report);
+                    }
+                }
+            }, "A worker failed to take the next code to analyse");
+        }
+        synchronized (reports) {
+            return new ArrayList<>(reports);
+        }
+    }
+
+    /**
+     * Analyses the files of a program together, see {@link #analyseFiles(Map, int, AnalysisOptions)}.
+     * One worker is used for each available processor.
+     *
+     * @param sources the code of every file, by the name of the file
+     * @return the report of every file, by the name of the file, in the same order as the sources
+     */
+    public Map<String, BugReport> analyseFiles(Map<String, String> sources) {
+        return analyseFiles(sources, Runtime.getRuntime().availableProcessors(), new AnalysisOptions());
+    }
+
+    /**
+     * Analyses the files of a program together, so the types declared in one file are found when they are used in
+     * another. All the files are parsed first, and the types they declare are put in one {@link TypeOverlay}, which
+     * is used for every file. Then every file is analysed like {@link #analyse(String, AnalysisOptions)}.
+     *
+     * The files are parsed and analysed in parallel, and the parsers are leased from the pool. A file
+     * with a parseerror gets a report with the exception attached, and its types are not found by the other files.
+     * The limits of the options are for every file. The cache and store of this analyser are not used, since the
+     * report of a file depends on the other files.
+     *
+     * @param sources the code of every file, by the name of the file
+     * @param numberOfWorkers the number of threads to analyse with
+     * @param options for every file
+     * @return the report of every file, by the name of the file, in the same order as the sources
+     * @throws CancellationException if the calling thread is interrupted while waiting for the workers
+     */
+    public Map<String, BugReport> analyseFiles(Map<String, String> sources, int numberOfWorkers, AnalysisOptions options) {
+        WorkerPool.requireWorkers(numberOfWorkers);
+        EnumSet<ErrorKind> enabledKinds = options.getEnabledKinds();
+        DetectorRegistry registry = detectorRegistry;
+        boolean requiresSymbolResolution = registry.requiresSymbolResolution(enabledKinds);
+        List<Detector> detectors = registry.getDetectors(enabledKinds);
+        List<String> names = new ArrayList<>(sources.keySet());
+        CompilationUnit[] compilationUnits = new CompilationUnit[names.size()];
+        BugReport[] reports = new BugReport[names.size()];
+        MetricsRecorder[] recorders = new MetricsRecorder[names.size()];
+        boolean metrics = options.isMetricsEnabled();
+        TypeOverlay overlay = new TypeOverlay();
+        AtomicInteger nextFile = new AtomicInteger();
+        try (WorkerPool workers = new WorkerPool(numberOfWorkers)) {
+            workers.runOnEveryThread(() -> {
+                for (int i = nextFile.getAndIncrement(); i < names.size(); i = nextFile.getAndIncrement()) {
+                    MetricsRecorder recorder = metrics ? new MetricsRecorder() : null;
+                    try {
+                        compilationUnits[i] = parse(sources.get(names.get(i)), requiresSymbolResolution);
+                    } catch (Throwable e) {
+                        reports[i] = withMetrics(reportWith(e), recorder, Phase.PARSE, null);
+                        continue;
+                    }
+                    if (recorder != null) {
+                        recorder.endPhase(Phase.PARSE);
+                    }
+                    overlay.addTypes(compilationUnits[i]);
+                    if (recorder != null) {
+                        recorder.endPhase(Phase.SYMBOL_RESOLUTION);
+                        recorder.pause();
+                        recorders[i] = recorder;
+                    }
+                }
+                return null;
+            }, "A worker failed to parse the files");
+            nextFile.set(0);
+            workers.runOnEveryThread(() -> {
+                AnalysisTypeSolver.Scope scope = typeSolver.use(overlay);
+                try {
+                    for (int i = nextFile.getAndIncrement(); i < names.size(); i = nextFile.getAndIncrement()) {
+                        if (compilationUnits[i] != null) {
+                            if (recorders[i] != null) {
+                                recorders[i].resume();
+                            }
+                            reports[i] = rendered(analyse(compilationUnits[i], detectors, AnalysisLimits.startingNow(options), null, recorders[i]));
+                        }
+                    }
+                } finally {
+                    scope.close();
+                }
+                return null;
+            }, "A worker failed to analyse the files");
+        }
+        Map<String, BugReport> reportsPerFile = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            reportsPerFile.put(names.get(i), reports[i]);
+        }
+        return reportsPerFile;
+    }
+
+    /**
+     * Analyses all the java files in the directory and its subdirectories in parallel, see
+     * {@link #analyseProject(Path, int, AnalysisOptions, BiConsumer)}. The reports of all the files are kept in the
+     * project report.
+     *
+     * @param root the directory to analyse
+     * @return the reports of all the files, and the totals
+     * @throws NotDirectoryException if root is not a directory
+     */
+    public ProjectReport analyseProject(Path root) throws IOException {
+        return analyseProject(root, Runtime.getRuntime().availableProcessors(), new AnalysisOptions(), null);
+    }
+
+    /**
+     * Analyses all the java files in the directory and its subdirectories in parallel. The files are read as UTF-8.
+     *
+     * The directory is walked while the files are analysed, and at most a few files per worker are waiting to
+     * be analysed. Every worker reads its files into its own buffers, see {@link SourceFile}, and leases
+     * parsers from the pool of this analyser. When the reports are given to a consumer, memory use does not grow with the number of
+     * files. The errors of kept reports are rendered, see {@link BaseError#render()}, so the parsed files are not
+     * kept.
+     *
+     * A file or directory that can not be read gets a report with the exception attached.
+     *
+     * @param root the directory to analyse
+     * @param numberOfWorkers the number of threads to analyse with
+     * @param options for every analysis
+     * @param onReport called with the path of the file relative to root and its report, for one file at a time and in
+     *                 no particular order. If null, the reports are kept in the project report.
+     * @return the totals of all the files, and the reports if no consumer was given
+     * @throws NotDirectoryException if root is not a directory
+     * @throws CancellationException if the calling thread is interrupted while waiting for the workers
+     */
+    public ProjectReport analyseProject(Path root, int numberOfWorkers, AnalysisOptions options, BiConsumer<Path, BugReport> onReport) throws IOException {
+        WorkerPool.requireWorkers(numberOfWorkers);
+        if (!Files.isDirectory(root)) {
+            throw new NotDirectoryException(root.toString());
+        }
+        EnumSet<ErrorKind> enabledKinds = options.getEnabledKinds();
+        DetectorRegistry registry = detectorRegistry;
+        boolean requiresSymbolResolution = registry.requiresSymbolResolution(enabledKinds);
+        List<Detector> detectors = registry.getDetectors(enabledKinds);
+        ProjectReport project = new ProjectReport(root, onReport == null);
+        BiConsumer<Path, BugReport> collect = (file, report) -> {
+            synchronized (project) {
+                project.add(root.relativize(file), report);
+                if (onReport != null) {
+                    onReport.accept(root.relativize(file), report);
+                }
+            }
+        };
+        BlockingQueue<Path> files = new ArrayBlockingQueue<>(numberOfWorkers * 4);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            findJavaFiles(root, files, collect);
+            for (int i = 0; i < numberOfWorkers; i++) {
+                files.put(NO_MORE_FILES);
+            }
+            return null;
+        });
+        for (int i = 0; i < numberOfWorkers; i++) {
+            tasks.add(() -> {
+                SourceFile source = new SourceFile();
+                while (true) {
+                    Path file = files.take();
+                    if (file == NO_MORE_FILES) {
+                        return null;
+                    }
+                    BugReport report = analyseFile(file, source, options, requiresSymbolResolution, detectors);
+                    if (onReport == null) {
+                        rendered(report);
+                    }
+                    collect.accept(file, report);
+                }
+            });
+        }
+        try (WorkerPool workers = new WorkerPool(numberOfWorkers + 1)) {
+            workers.run(tasks, "Failed to analyse the files in " + root);
+        }
+        return project;
+    }
+
+    /**
+     * Puts every java file in the directory and its subdirectories on the queue, and waits when the queue is full.
+     */
+    private void findJavaFiles(Path root, BlockingQueue<Path> files, BiConsumer<Path, BugReport> onFailure) throws IOException, InterruptedException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(".java")) {
+                    try {
+                        files.put(file);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                onFailure.accept(file, reportWith(exception));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException exception) {
+                if (exception != null) {
+                    onFailure.accept(directory, reportWith(exception));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Interrupted while finding the files in " + root);
+        }
+    }
+
+    private BugReport analyseFile(Path file, SourceFile source, AnalysisOptions options, boolean withSymbolResolution, List<Detector> detectors) {
+        try {
+            source.read(file);
+        } catch (IOException e) {
+            return reportWith(e);
+        }
+        return analyseWithCache(context -> SourceHash.of(source.getBytes(), context), source.getLength(), options,
+                () -> analyse(source.getReader(), withSymbolResolution, detectors, AnalysisLimits.startingNow(options), null, options.isMetricsEnabled()));
+    }
+
+    private static BugReport reportWith(Throwable exception) {
+        BugReport report = new BugReport();
+        report.attach(exception);
+        return report;
+    }
+
+    /**
+     * Renders the errors of a report that is handed to another thread or kept after the analysis, so the report
+     * does not hold on to the parsed code, see {@link BaseError#render()}.
+     *
+     * @return the same report
+     */
+    private static BugReport rendered(BugReport report) {
+        report.getBugs().forEach(BaseError::render);
+        return report;
+    }
+
+    /**
+     * Analyses the given code as string, see {@link #analyse(String, AnalysisOptions)}, and keeps what is needed to
+     * analyse a new version of the code faster with {@link #reanalyse(AnalysisSession, String)}.
+     *
+     * @param code to analyse as string
+     * @param options for this analysis and the following ones in the session
+     * @return the session, with the report of this analysis
+     */
+    public AnalysisSession startSession(String code, AnalysisOptions options) {
+        return analyseInSession(code, options.copy(), null);
+    }
+
+    /**
+     * See {@link #startSession(String, AnalysisOptions)}.
+     *
+     * @param code to analyse as string
+     * @return the session, with the report of this analysis
+     */
+    public AnalysisSession startSession(String code) {
+        return startSession(code, new AnalysisOptions());
+    }
+
+    /**
+     * Analyses a new version of the code of a session. Only the bodies of methods, constructors and initializers
+     * that are changed since the previous session are analysed again. The errors of the other bodies are reused,
+     * with line numbers moved if the body has moved. The report is the same as a new analysis would give.
+     *
+     * When anything outside of the bodies is changed, like a declaration, a field or an annotation, the whole
+     * code is analysed again.
+     *
+     * @param previous session, with the previous version of the code
+     * @param code the new version of the code
+     * @return the new session, with the report of the new version
+     */
+    public AnalysisSession reanalyse(AnalysisSession previous, String code) {
+        return analyseInSession(code, previous.getOptions(), previous);
+    }
+
+    private AnalysisSession analyseInSession(String code, AnalysisOptions options, AnalysisSession previous) {
+        EnumSet<ErrorKind> enabledKinds = options.getEnabledKinds();
+        DetectorRegistry registry = detectorRegistry;
+        List<Detector> detectors = registry.getDetectors(enabledKinds);
+        AnalysisLimits limits = AnalysisLimits.startingNow(options);
+        MetricsRecorder recorder = options.isMetricsEnabled() ? new MetricsRecorder() : null;
+        CompilationUnit compilationUnit = null;
+        IncrementalBugFinderVisitor visitor = null;
+        try {
+            SourceText source = new SourceText(code);
+            compilationUnit = parse(code, registry.requiresSymbolResolution(enabledKinds));
+            if (recorder != null) {
+                recorder.endPhase(Phase.PARSE);
+            }
+            AnalyserConfiguration configurationForThisAnalysis = configurationFor(compilationUnit);
+            String skeleton = IncrementalBugFinderVisitor.skeletonOf(compilationUnit, source);
+            Map<String, EnumSet<ErrorKind>> kindsToIgnorePerClass = kindsToIgnorePerClass(compilationUnit, configurationForThisAnalysis);
+            List<MemberBody> bodiesToReuse = Collections.emptyList();
+            if (previous != null) {
+                bodiesToReuse = previous.getBodiesToReuse(detectors, skeleton, kindsToIgnorePerClass);
+            }
+            visitor = new IncrementalBugFinderVisitor(configurationForThisAnalysis, detectors, source, bodiesToReuse);
+            visitor.setLimits(limits);
+            if (recorder != null) {
+                recorder.endPhase(Phase.CONFIGURATION);
+                visitor.getTypes().setTimed(true);
+            }
+            AnalysisTypeSolver.Scope scope = useTypesOf(compilationUnit);
+            try {
+                if (recorder != null) {
+                    recorder.endPhase(Phase.SYMBOL_RESOLUTION);
+                }
+                visitor.visit(compilationUnit, null);
+            } finally {
+                scope.close();
+            }
+            withMetrics(visitor.getReport(), recorder, visitor, compilationUnit);
+            if (visitor.getReport().isTruncated()) {
+                return new AnalysisSession(code, visitor.getReport(), options, detectors, null, Collections.emptyMap(), Collections.emptyList(), visitor.getNumberOfReusedBodies());
+            }
+            return new AnalysisSession(code, visitor.getReport(), options, detectors, skeleton, kindsToIgnorePerClass, visitor.getBodies(), visitor.getNumberOfReusedBodies());
+        } catch (Throwable e) {
+            BugReport report = compilationUnit == null ? withMetrics(reportWith(e), recorder, Phase.PARSE, null) : withMetrics(reportWith(e), recorder, visitor, compilationUnit);
+            return new AnalysisSession(code, report, options, detectors, null, Collections.emptyMap(), Collections.emptyList(), 0);
+        }
+    }
+
+    /**
+     *
+     * @return the errors to ignore for every class declared in the code
+     */
+    private Map<String, EnumSet<ErrorKind>> kindsToIgnorePerClass(CompilationUnit compilationUnit, AnalyserConfiguration configuration) {
+        Map<String, EnumSet<ErrorKind>> kindsToIgnorePerClass = new HashMap<>();
+        kindsToIgnorePerClass.put("", configuration.getKindsToIgnoreForClass(""));
+        for (ClassOrInterfaceDeclaration declaration : compilationUnit.findAll(ClassOrInterfaceDeclaration.class)) {
+            String className = declaration.getNameAsString();
+            kindsToIgnorePerClass.put(className, configuration.getKindsToIgnoreForClass(className));
+        }
+        return kindsToIgnorePerClass;
+    }
+
+    private AnalyserConfiguration configurationFor(CompilationUnit compilationUnit) {
+        AnalyserConfiguration configurationForThisAnalysis = configuration;
+        if (configurationForThisAnalysis == null) {
+            configurationForThisAnalysis = new AnnotationsAdapter(compilationUnit);
+        }
+        return configurationForThisAnalysis;
+    }
+
+    /**
+     * Look for the report in the cache, if a cache is set, and then in the store, if a store is set. The key is
+     * the hash of the code, the configuration, the detectors and the enabled kinds. An analysis with metrics is
+     * always done, since the metrics are of that analysis, and its report is not kept.
+     */
+    private BugReport analyseWithCache(String code, AnalysisOptions options, Supplier<BugReport> analysis) {
+        return analyseWithCache(context -> SourceHash.of(code, context), code.length(), options, analysis);
+    }
+
+    /**
+     * @param hashOf gives the hash of the code with the context, see {@link SourceHash}
+     * @param length of the code, the weight in the cache
+     */
+    private BugReport analyseWithCache(Function<String, String> hashOf, int length, AnalysisOptions options, Supplier<BugReport> analysis) {
+        ReportCache cache = reportCache;
+        ReportStore store = usesDefaultSettings() ? reportStore : null;
+        if ((cache == null && store == null) || options.isMetricsEnabled()) {
+            return analysis.get();
+        }
+        String context = "configuration=" + configurationKey + " detectors=" + detectorsKey + " kinds=" + options.getEnabledKinds();
+        if (options.getMaxErrors() != Integer.MAX_VALUE) {
+            context += " maxErrors=" + options.getMaxErrors();
+        }
+        String hash = hashOf.apply(context);
+        Supplier<BugReport> analysisWithStore = store == null ? analysis : () -> analyseWithStore(store, AnalyserVersion.get() + "/" + hash, analysis);
+        if (cache == null) {
+            return analysisWithStore.get();
+        }
+        return cache.get(hash, length, analysisWithStore);
+    }
+
+    private BugReport analyseWithStore(ReportStore store, String key, Supplier<BugReport> analysis) {
+        Optional<BugReport> stored = store.get(key);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        BugReport report = analysis.get();
+        if (!report.isTruncated() && !(report.getException().orElse(null) instanceof Error)) {
+            store.put(key, report);
+        }
+        return report;
+    }
+
+    /**
+     * Only the default configuration and detectors give the same reports in another process.
+     */
+    private boolean usesDefaultSettings() {
+        return configurationKey.equals("annotations") && detectorsKey.equals("default");
+    }
+
+    private BugReport analyse(String code, boolean withSymbolResolution, List<Detector> detectors, AnalysisLimits limits, boolean metrics) {
+        return analyse(new StringReader(code), withSymbolResolution, detectors, limits, null, metrics);
+    }
+
+    /**
+     * @param listener to give the errors to instead of the report, or null
+     * @param metrics true to attach the metrics of the analysis to the report
+     */
+    private BugReport analyse(Reader code, boolean withSymbolResolution, List<Detector> detectors, AnalysisLimits limits, ErrorListener listener, boolean metrics) {
+        MetricsRecorder recorder = metrics ? new MetricsRecorder() : null;
+        CompilationUnit compilationUnit;
         try {
-            CompilationUnit compilationUnit = StaticJavaParser.parse(code);
-            if (configuration == null) {
-                configuration = new AnnotationsAdapter(compilationUnit);
+            compilationUnit = parse(code, withSymbolResolution);
+        } catch (Throwable e) {
+            return withMetrics(reportWith(e), recorder, Phase.PARSE, null);
+        }
+        if (recorder != null) {
+            recorder.endPhase(Phase.PARSE);
+        }
+        AnalysisTypeSolver.Scope scope = useTypesOf(compilationUnit);
+        try {
+            if (recorder != null) {
+                recorder.endPhase(Phase.SYMBOL_RESOLUTION);
+            }
+            return analyse(compilationUnit, detectors, limits, listener, recorder);
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Analyses parsed code, with the types of the overlay the current thread uses.
+     *
+     * @param listener to give the errors to instead of the report, or null
+     * @param recorder of the metrics of the analysis, or null if no metrics
+     */
+    private BugReport analyse(CompilationUnit compilationUnit, List<Detector> detectors, AnalysisLimits limits, ErrorListener listener, MetricsRecorder recorder) {
+        BugFinderVisitor visitor = null;
+        try {
+            AnalyserConfiguration configurationForThisAnalysis = configurationFor(compilationUnit);
+            visitor = new BugFinderVisitor(configurationForThisAnalysis, detectors);
+            visitor.setErrorListener(listener);
+            visitor.setLimits(limits);
+            if (recorder != null) {
+                recorder.endPhase(Phase.CONFIGURATION);
+                visitor.getTypes().setTimed(true);
             }
-            BugFinderVisitor visitor = new BugFinderVisitor(configuration);
             visitor.visit(compilationUnit, null);
-            return visitor.getReport();
+            return withMetrics(visitor.getReport(), recorder, visitor, compilationUnit);
         } catch (Throwable e) {
-            BugReport report = new BugReport();
-            report.attach(e);
+            return withMetrics(reportWith(e), recorder, visitor, compilationUnit);
+        }
+    }
+
+    /**
+     * Ends the detection of the visitor, or the configuration if there is no visitor yet, and attaches the metrics
+     * to the report.
+     */
+    private static BugReport withMetrics(BugReport report, MetricsRecorder recorder, BugFinderVisitor visitor, CompilationUnit compilationUnit) {
+        if (recorder != null && visitor != null) {
+            recorder.endDetection(visitor);
+            report.setMetrics(recorder.finish(compilationUnit));
             return report;
         }
+        return withMetrics(report, recorder, Phase.CONFIGURATION, compilationUnit);
+    }
+
+    /**
+     * Ends the phase, and attaches the metrics to the report.
+     */
+    private static BugReport withMetrics(BugReport report, MetricsRecorder recorder, Phase lastPhase, CompilationUnit compilationUnit) {
+        if (recorder != null) {
+            recorder.endPhase(lastPhase);
+            report.setMetrics(recorder.finish(compilationUnit));
+        }
+        return report;
+    }
+
+    /**
+     * Use the types declared in the code for the symbol resolution on this thread, until the scope is closed.
+     */
+    private AnalysisTypeSolver.Scope useTypesOf(CompilationUnit compilationUnit) {
+        TypeOverlay overlay = new TypeOverlay();
+        overlay.addTypes(compilationUnit);
+        return typeSolver.use(overlay);
+    }
+
+    /**
+     * Creates a parser with its own configuration. The symbol resolver of the parser uses the type solver of
+     * this analyser. A parser must only be used by one thread at a time.
+     *
+     * @param withSymbolResolution false if no detector resolves types, then the parser gets no symbol resolver
+     * @return the new parser
+     */
+    private JavaParser newParser(boolean withSymbolResolution) {
+        ParserConfiguration parserConfiguration = new ParserConfiguration();
+        if (withSymbolResolution) {
+            parserConfiguration.setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        }
+        return new JavaParser(parserConfiguration);
+    }
+
+    /**
+     * @param code to parse
+     * @param withSymbolResolution false if no detector resolves types
+     * @return the parsed code
+     * @throws ParseProblemException if the code has a parseerror
+     */
+    private CompilationUnit parse(String code, boolean withSymbolResolution) {
+        return parse(new StringReader(code), withSymbolResolution);
+    }
+
+    /**
+     * Parses with a parser leased from the pool of this analyser, see {@link ParserPool}.
+     */
+    private CompilationUnit parse(Reader code, boolean withSymbolResolution) {
+        ParseResult<CompilationUnit> result;
+        try (ParserPool.Lease lease = parserPool.lease(withSymbolResolution)) {
+            result = lease.getParser().parse(code);
+        }
+        if (result.isSuccessful() && result.getResult().isPresent()) {
+            return result.getResult().get();
+        }
+        throw new ParseProblemException(result.getProblems());
     }
 
     /**
      *
      * Optional configuration, needs to implement {@link AnalyserConfiguration}.
-     * If no configuration is set, {@link AnnotationsAdapter} will be used.
+     * If no configuration is set, a new {@link AnnotationsAdapter} will be used for every analysis.
      *
      * @param configuration the configuration to be set
      */
     public void setConfiguration(AnalyserConfiguration configuration) {
         this.configuration = configuration;
+        this.configurationKey = configuration == null ? "annotations" : "set-" + settingNumber.incrementAndGet();
+    }
+
+    /**
+     *
+     * Optional executor for {@link #analyseAsync(String)}.
+     * If no executor is set, {@link AnalysisExecutors#defaultExecutor()} will be used.
+     *
+     * @param executor the executor to be set
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 
+    /**
+     *
+     * Optional registry of the detectors to analyse with.
+     * If no registry is set, {@link DetectorRegistry#withDefaultDetectors()} will be used.
+     *
+     * @param detectorRegistry the registry to be set
+     */
+    public void setDetectorRegistry(DetectorRegistry detectorRegistry) {
+        this.detectorRegistry = detectorRegistry;
+        this.detectorsKey = "set-" + settingNumber.incrementAndGet();
+    }
+
+    /**
+     *
+     * Optional cache of reports. When set, code that has been analysed before with the same configuration,
+     * detectors and options is not analysed again, and the reports are snapshots that can not be changed, see
+     * {@link master.thesis.backend.errors.BugReport#snapshot()}. A cache can be shared by many analysers.
+     *
+     * A configuration set with {@link #setConfiguration(AnalyserConfiguration)} must give the same answers as long
+     * as it is set. Set the configuration and the detectors before analysing.
+     *
+     * @param reportCache the cache to be set, or null for no cache
+     */
+    public void setReportCache(ReportCache reportCache) {
+        this.reportCache = reportCache;
+    }
+
+    /**
+     *
+     * Optional store of reports, that is kept between restarts and can be shared by many processes, see
+     * {@link ReportStore}. The store is only used when no configuration and no registry of detectors is set.
+     * The reports are stored with the version of the analyser, so reports of an older version are not used.
+     *
+     * An exception attached to a report from the store is a
+     * {@link master.thesis.backend.serialization.SerializedException}. Reports with an {@link Error} attached are
+     * not stored.
+     *
+     * @param reportStore the store to be set, or null for no store
+     */
+    public void setReportStore(ReportStore reportStore) {
+        this.reportStore = reportStore;
+    }
+
+    /**
+     *
+     * Optional strategy for sharing parsers between analyses, see {@link ParserPool}.
+     * If no strategy is set, a pool with a parser for each available processor will be used.
+     *
+     * @param strategy how to share the parsers
+     * @param size the maximum number of parsers, only used by {@link ParserPool.Strategy#POOLED}
+     */
+    public void setParserPool(ParserPool.Strategy strategy, int size) {
+        this.parserPool = new ParserPool(strategy, size, this::newParser);
+    }
+
+    /**
+     *
+     * @return the parsers of this analyser, with the statistics of the leases
+     */
+    public ParserPool getParserPool() {
+        return parserPool;
+    }
 }
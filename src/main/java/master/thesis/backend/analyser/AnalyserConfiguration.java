@@ -1,8 +1,10 @@
 package master.thesis.backend.analyser;
 
 import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.ErrorKind;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 
 public interface AnalyserConfiguration {
 
@@ -13,4 +15,20 @@ public interface AnalyserConfiguration {
      */
     ArrayList<String> getErrorsToIgnoreForClass(String className);
 
+    /**
+     * Used by the analyser to skip the checks for ignored errors. It is asked at most once per class in an analysis.
+     *
+     * By default, the names from {@link #getErrorsToIgnoreForClass(String)} are converted to {@link ErrorKind}.
+     * Names that are not the name of an {@link ErrorKind} are left out.
+     *
+     * @return The kinds of errors the analyser should ignore for the chosen class.
+     */
+    default EnumSet<ErrorKind> getKindsToIgnoreForClass(String className) {
+        EnumSet<ErrorKind> kindsToIgnore = EnumSet.noneOf(ErrorKind.class);
+        for (String name : getErrorsToIgnoreForClass(className)) {
+            ErrorKind.fromName(name).ifPresent(kindsToIgnore::add);
+        }
+        return kindsToIgnore;
+    }
+
 }
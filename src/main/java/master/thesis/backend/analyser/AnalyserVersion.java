@@ -0,0 +1,38 @@
+package master.thesis.backend.analyser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * The version of the analyser, from the build. Stored reports are only used by the same version, since a new
+ * version may find other errors.
+ */
+public final class AnalyserVersion {
+
+    private static final String VERSION = readVersion();
+
+    private AnalyserVersion() {}
+
+    /**
+     *
+     * @return the version of the project, or "unknown" if not built with Maven
+     */
+    public static String get() {
+        return VERSION;
+    }
+
+    private static String readVersion() {
+        try (InputStream properties = AnalyserVersion.class.getResourceAsStream("/master/thesis/backend/analyser.properties")) {
+            if (properties == null) {
+                return "unknown";
+            }
+            Properties loaded = new Properties();
+            loaded.load(properties);
+            String version = loaded.getProperty("version", "unknown");
+            return version.startsWith("${") ? "unknown" : version;
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
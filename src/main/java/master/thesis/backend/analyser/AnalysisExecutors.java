@@ -0,0 +1,54 @@
+package master.thesis.backend.analyser;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executors for {@link Analyser#analyseAsync(String)}.
+ *
+ * The analyser is compiled for Java 11, so virtual threads are looked up at runtime.
+ */
+public final class AnalysisExecutors {
+
+    private AnalysisExecutors() {}
+
+    /**
+     *
+     * @return an executor starting a new virtual thread for every analysis. Empty if the JVM is older than Java 21.
+     */
+    public static Optional<ExecutorService> virtualThreadPerTask() {
+        return Optional.ofNullable(VirtualThreads.EXECUTOR);
+    }
+
+    /**
+     *
+     * @return virtual threads if the JVM supports them, else {@link ForkJoinPool#commonPool()}.
+     */
+    public static Executor defaultExecutor() {
+        if (VirtualThreads.EXECUTOR != null) {
+            return VirtualThreads.EXECUTOR;
+        }
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Creates the executor for virtual threads the first time it is asked for.
+     */
+    private static class VirtualThreads {
+
+        private static final ExecutorService EXECUTOR = create();
+
+        private static ExecutorService create() {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package master.thesis.backend.analyser;
+
+/**
+ * The limits of one analysis that is running, from its {@link AnalysisOptions}. Checked by
+ * {@link master.thesis.backend.visitor.BugFinderVisitor} between the nodes it checks.
+ */
+public final class AnalysisLimits {
+
+    /**
+     * No time limit, no cancellation and no limit on the number of errors.
+     */
+    public static final AnalysisLimits NONE = new AnalysisLimits(false, 0, null, Integer.MAX_VALUE);
+
+    private final boolean hasDeadline;
+    private final long deadline;
+    private final CancellationToken cancellationToken;
+    private final int maxErrors;
+
+    private AnalysisLimits(boolean hasDeadline, long deadline, CancellationToken cancellationToken, int maxErrors) {
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+        this.cancellationToken = cancellationToken;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     *
+     * @param options of the analysis
+     * @return the limits of an analysis starting now
+     */
+    static AnalysisLimits startingNow(AnalysisOptions options) {
+        if (!options.getTimeLimit().isPresent() && !options.getCancellationToken().isPresent() && options.getMaxErrors() == Integer.MAX_VALUE) {
+            return NONE;
+        }
+        long deadline = options.getTimeLimit().map(timeLimit -> System.nanoTime() + timeLimit.toNanos()).orElse(0L);
+        return new AnalysisLimits(options.getTimeLimit().isPresent(), deadline, options.getCancellationToken().orElse(null), options.getMaxErrors());
+    }
+
+    /**
+     *
+     * @return true if the time limit has passed or the analysis is cancelled
+     */
+    public boolean isExceeded() {
+        return (hasDeadline && System.nanoTime() - deadline > 0) || (cancellationToken != null && cancellationToken.isCancelled());
+    }
+
+    /**
+     *
+     * @return the number of errors to report before the analysis stops
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+}
@@ -0,0 +1,139 @@
+package master.thesis.backend.analyser;
+
+import java.time.Duration;
+import java.util.EnumMap;
+
+/**
+ * Where the time of one analysis went, see {@link AnalysisOptions#setMetricsEnabled(boolean)}. The phases do not
+ * overlap, and together they are the whole analysis. The report is filled in while the tree is gone through, so
+ * building it is part of {@link Phase#DETECTION}.
+ *
+ * The CPU time and the allocated bytes are of the threads doing the analysis, and are -1 if the JVM can not
+ * measure them.
+ */
+public class AnalysisMetrics {
+
+    /**
+     * The phases of an analysis.
+     */
+    public enum Phase {
+        /**
+         * Parsing the code.
+         */
+        PARSE,
+        /**
+         * Finding the errors to ignore, like reading the annotations with
+         * {@link master.thesis.backend.adapter.AnnotationsAdapter}.
+         */
+        CONFIGURATION,
+        /**
+         * Going through the tree with {@link master.thesis.backend.visitor.BugFinderVisitor} and checking the
+         * nodes, without the symbol resolution.
+         */
+        DETECTION,
+        /**
+         * Resolving types with the symbol solver, while the nodes are checked.
+         */
+        SYMBOL_RESOLUTION
+    }
+
+    private final EnumMap<Phase, Duration> phases;
+    private final long cpuTimeNanos;
+    private final long allocatedBytes;
+    private final int nodes;
+    private final int checkedNodes;
+    private final int symbolResolutions;
+    private final int symbolResolutionFailures;
+
+    AnalysisMetrics(EnumMap<Phase, Duration> phases, long cpuTimeNanos, long allocatedBytes, int nodes, int checkedNodes,
+                    int symbolResolutions, int symbolResolutionFailures) {
+        this.phases = phases;
+        this.cpuTimeNanos = cpuTimeNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.nodes = nodes;
+        this.checkedNodes = checkedNodes;
+        this.symbolResolutions = symbolResolutions;
+        this.symbolResolutionFailures = symbolResolutionFailures;
+    }
+
+    /**
+     *
+     * @param phase of the analysis
+     * @return the time spent in the phase, zero if the analysis stopped before it
+     */
+    public Duration getTime(Phase phase) {
+        return phases.getOrDefault(phase, Duration.ZERO);
+    }
+
+    /**
+     *
+     * @return the time of all the phases
+     */
+    public Duration getTotalTime() {
+        Duration total = Duration.ZERO;
+        for (Duration time : phases.values()) {
+            total = total.plus(time);
+        }
+        return total;
+    }
+
+    /**
+     *
+     * @return the CPU time of the analysis, in nanoseconds, or -1 if not measured
+     */
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+
+    /**
+     *
+     * @return the bytes allocated by the analysis, or -1 if not measured
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     *
+     * @return the number of nodes in the parsed tree, all of which are visited
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     *
+     * @return the number of nodes given to at least one detector
+     */
+    public int getCheckedNodes() {
+        return checkedNodes;
+    }
+
+    /**
+     *
+     * @return the number of types looked for with the symbol solver
+     */
+    public int getSymbolResolutions() {
+        return symbolResolutions;
+    }
+
+    /**
+     *
+     * @return the number of types the symbol solver could not find
+     */
+    public int getSymbolResolutionFailures() {
+        return symbolResolutionFailures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            text.append(phase.name().toLowerCase()).append('=').append(getTime(phase).toNanos() / 1000).append(" us, ");
+        }
+        return text + "cpu=" + (cpuTimeNanos < 0 ? "-" : cpuTimeNanos / 1000 + " us") + ", allocated="
+                + (allocatedBytes < 0 ? "-" : allocatedBytes + " bytes") + ", nodes=" + nodes + ", checkedNodes="
+                + checkedNodes + ", symbolResolutions=" + symbolResolutions + ", symbolResolutionFailures="
+                + symbolResolutionFailures;
+    }
+}
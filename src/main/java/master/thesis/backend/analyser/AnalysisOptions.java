@@ -0,0 +1,130 @@
+package master.thesis.backend.analyser;
+
+import master.thesis.backend.errors.ErrorKind;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Optional;
+
+/**
+ * Options for one analysis, see {@link Analyser#analyse(String, AnalysisOptions)}.
+ * By default, every kind of error is looked for, and there are no limits.
+ *
+ * When an analysis reaches a limit, it stops and gives the errors found so far, in a report marked as truncated,
+ * see {@link master.thesis.backend.errors.BugReport#isTruncated()}.
+ */
+public class AnalysisOptions {
+
+    private EnumSet<ErrorKind> enabledKinds = EnumSet.allOf(ErrorKind.class);
+    private Duration timeLimit;
+    private int maxErrors = Integer.MAX_VALUE;
+    private CancellationToken cancellationToken;
+    private boolean metricsEnabled = false;
+
+    /**
+     *
+     * @return the kinds of errors to look for
+     */
+    public EnumSet<ErrorKind> getEnabledKinds() {
+        return EnumSet.copyOf(enabledKinds);
+    }
+
+    /**
+     * Only the detectors of the enabled kinds are used. If none of them resolves types, the code is parsed
+     * without a symbol solver.
+     *
+     * @param enabledKinds the kinds of errors to look for
+     */
+    public void setEnabledKinds(EnumSet<ErrorKind> enabledKinds) {
+        this.enabledKinds = EnumSet.copyOf(enabledKinds);
+    }
+
+    /**
+     *
+     * @return the time an analysis may take, empty if no limit
+     */
+    public Optional<Duration> getTimeLimit() {
+        return Optional.ofNullable(timeLimit);
+    }
+
+    /**
+     * The time is counted from when the analysis starts, and is checked between the nodes that are checked. A
+     * single check, like resolving the type of an expression, is not stopped.
+     *
+     * @param timeLimit the time an analysis may take, or null for no limit
+     */
+    public void setTimeLimit(Duration timeLimit) {
+        if (timeLimit != null && (timeLimit.isNegative() || timeLimit.isZero())) {
+            throw new IllegalArgumentException("Time limit must be positive, was " + timeLimit);
+        }
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     *
+     * @return the number of errors an analysis reports before it stops
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     *
+     * @param maxErrors the number of errors an analysis reports before it stops. The report is only truncated if
+     *                  there are more errors.
+     */
+    public void setMaxErrors(int maxErrors) {
+        if (maxErrors < 0) {
+            throw new IllegalArgumentException("Max errors must not be negative, was " + maxErrors);
+        }
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     *
+     * @return the token that stops the analysis, empty if none
+     */
+    public Optional<CancellationToken> getCancellationToken() {
+        return Optional.ofNullable(cancellationToken);
+    }
+
+    /**
+     * The token is shared by every analysis with these options, and the analyses of a session.
+     *
+     * @param cancellationToken the token that stops the analysis, or null for none
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * When enabled, the report of the analysis gets {@link AnalysisMetrics}, see
+     * {@link master.thesis.backend.errors.BugReport#getMetrics()}. The cache and store of the analyser are not used,
+     * so the code is always analysed and the metrics are of this analysis. Analyses that give the errors to a
+     * listener have no report, and no metrics.
+     *
+     * @param metricsEnabled true to measure the phases, nodes, symbol resolutions, CPU time and allocations of
+     *                       the analysis
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     *
+     * @return new options with the same settings, so later changes to these options are not seen
+     */
+    AnalysisOptions copy() {
+        AnalysisOptions copy = new AnalysisOptions();
+        copy.setEnabledKinds(enabledKinds);
+        copy.timeLimit = timeLimit;
+        copy.maxErrors = maxErrors;
+        copy.cancellationToken = cancellationToken;
+        copy.metricsEnabled = metricsEnabled;
+        return copy;
+    }
+}
@@ -0,0 +1,90 @@
+package master.thesis.backend.analyser;
+
+import master.thesis.backend.detector.Detector;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.visitor.MemberBody;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An analysis that can be continued with a new version of the code, see
+ * {@link Analyser#reanalyse(AnalysisSession, String)}.
+ *
+ * A session is not changed by later analyses, and can be reanalysed more than once.
+ */
+public class AnalysisSession {
+
+    private final String code;
+    private final BugReport report;
+    private final AnalysisOptions options;
+    private final List<Detector> detectors;
+    private final String skeleton;
+    private final Map<String, EnumSet<ErrorKind>> kindsToIgnorePerClass;
+    private final List<MemberBody> bodies;
+    private final int numberOfReusedBodies;
+
+    AnalysisSession(String code, BugReport report, AnalysisOptions options, List<Detector> detectors, String skeleton,
+                    Map<String, EnumSet<ErrorKind>> kindsToIgnorePerClass, List<MemberBody> bodies, int numberOfReusedBodies) {
+        this.code = code;
+        this.report = report;
+        this.options = options;
+        this.detectors = detectors;
+        this.skeleton = skeleton;
+        this.kindsToIgnorePerClass = kindsToIgnorePerClass;
+        this.bodies = bodies;
+        this.numberOfReusedBodies = numberOfReusedBodies;
+    }
+
+    /**
+     *
+     * @return the code analysed in this session
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     *
+     * @return the report of this analysis. The same as {@link Analyser#analyse(String, AnalysisOptions)} gives.
+     */
+    public BugReport getReport() {
+        return report;
+    }
+
+    /**
+     *
+     * @return the options of this analysis, used for the next ones as well
+     */
+    public AnalysisOptions getOptions() {
+        return options;
+    }
+
+    /**
+     *
+     * @return how many bodies of methods, constructors and initializers were reused from the previous session
+     */
+    public int getNumberOfReusedBodies() {
+        return numberOfReusedBodies;
+    }
+
+    List<Detector> getDetectors() {
+        return detectors;
+    }
+
+    /**
+     * The bodies of the previous session can only be reused when the code outside of them, the detectors and the
+     * errors to ignore are the same.
+     *
+     * @return the bodies to reuse, or an empty list
+     */
+    List<MemberBody> getBodiesToReuse(List<Detector> detectors, String skeleton, Map<String, EnumSet<ErrorKind>> kindsToIgnorePerClass) {
+        if (skeleton == null || !skeleton.equals(this.skeleton) || !detectors.equals(this.detectors) || !kindsToIgnorePerClass.equals(this.kindsToIgnorePerClass)) {
+            return Collections.emptyList();
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,17 @@
+package master.thesis.backend.analyser;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Given to {@link java.util.concurrent.Flow.Subscriber#onError(Throwable)} after the errors of a published analysis
+ * that stopped at a limit of its {@link AnalysisOptions}, see {@link Analyser#publish(String, AnalysisOptions)}.
+ * The subscriber did not get every error of the code.
+ */
+public class AnalysisTruncatedException extends CancellationException {
+
+    private static final long serialVersionUID = 1L;
+
+    AnalysisTruncatedException() {
+        super("The analysis stopped at a limit of its options, the errors are truncated");
+    }
+}
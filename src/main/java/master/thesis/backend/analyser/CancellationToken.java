@@ -0,0 +1,21 @@
+package master.thesis.backend.analyser;
+
+/**
+ * Stops the analyses it is given to, see {@link AnalysisOptions#setCancellationToken(CancellationToken)}.
+ * A token can be cancelled from any thread, and can not be reset.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * The analyses stop before the next node they check, with the errors found so far.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,37 @@
+package master.thesis.backend.analyser;
+
+import master.thesis.backend.errors.BaseError;
+
+/**
+ * Is given every error as soon as it is found, see {@link Analyser#analyse(String, AnalysisOptions, ErrorListener)}.
+ *
+ * After the errors, either {@link #onComplete()} or {@link #onException(Throwable)} is called once, and
+ * {@link #onTruncated()} before {@link #onComplete()} if the analysis stopped at a limit.
+ */
+public interface ErrorListener {
+
+    /**
+     *
+     * @param error found by the analysis
+     */
+    void onError(BaseError error);
+
+    /**
+     * The analysis stopped at a limit of its {@link AnalysisOptions}, and the errors are truncated. Called before
+     * {@link #onComplete()}, like the {@link master.thesis.backend.errors.BugReport} would be truncated.
+     */
+    default void onTruncated() {}
+
+    /**
+     * The analysis is done, or stopped at a limit of its {@link AnalysisOptions}, and no exception was attached.
+     */
+    default void onComplete() {}
+
+    /**
+     * The analysis is done, but a parseerror or an exception during the analysis occurred. The same exception
+     * would be attached to the {@link master.thesis.backend.errors.BugReport}.
+     *
+     * @param exception of the analysis
+     */
+    default void onException(Throwable exception) {}
+}
@@ -0,0 +1,206 @@
+package master.thesis.backend.analyser;
+
+import master.thesis.backend.errors.BaseError;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the errors of an analysis, see {@link Analyser#publish(String, AnalysisOptions, int)}.
+ *
+ * Every subscriber gets its own analysis, started on the executor when it subscribes. The analysis never waits for
+ * the subscriber: errors that are not requested yet are buffered, and when the buffer is full the analysis stops and
+ * the subscriber is given an {@link IllegalStateException}. When the subscription is cancelled, the analysis stops at
+ * the next error it finds.
+ *
+ * The subscriber is called by one thread at a time, either the thread of the analysis or the thread that requests
+ * more errors.
+ */
+class ErrorPublisher implements Flow.Publisher<BaseError> {
+
+    private final Consumer<ErrorListener> analysis;
+    private final Executor executor;
+    private final int maxBufferedErrors;
+
+    /**
+     *
+     * @param analysis runs the analysis, giving the errors to the listener
+     * @param executor to run the analysis of every subscriber on
+     * @param maxBufferedErrors of every subscriber, at least 1
+     */
+    ErrorPublisher(Consumer<ErrorListener> analysis, Executor executor, int maxBufferedErrors) {
+        if (maxBufferedErrors < 1) {
+            throw new IllegalArgumentException("Maximum number of buffered errors must be at least 1, was " + maxBufferedErrors);
+        }
+        this.analysis = analysis;
+        this.executor = executor;
+        this.maxBufferedErrors = maxBufferedErrors;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BaseError> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        AnalysisSubscription subscription = new AnalysisSubscription(subscriber, maxBufferedErrors);
+        subscriber.onSubscribe(subscription);
+        try {
+            executor.execute(() -> analysis.accept(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.onException(e);
+        }
+    }
+
+    private static class AnalysisSubscription implements Flow.Subscription, ErrorListener {
+
+        private final Flow.Subscriber<? super BaseError> subscriber;
+        private final int maxBufferedErrors;
+        private final ArrayDeque<BaseError> buffer = new ArrayDeque<>();
+        private long demand = 0;
+        private boolean truncated = false;
+        private boolean ended = false;
+        private boolean cancelled = false;
+        private boolean draining = false;
+        private Throwable endedWith;
+
+        AnalysisSubscription(Flow.Subscriber<? super BaseError> subscriber, int maxBufferedErrors) {
+            this.subscriber = subscriber;
+            this.maxBufferedErrors = maxBufferedErrors;
+        }
+
+        /**
+         * A request that is not positive ends the subscription with an {@link IllegalArgumentException}, and the
+         * errors in the buffer are dropped.
+         */
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    endNow(new IllegalArgumentException("Requested " + n + " errors, must be positive"));
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            buffer.clear();
+        }
+
+        @Override
+        public void onError(BaseError error) {
+            boolean full;
+            synchronized (this) {
+                if (cancelled || ended) {
+                    throw new CancellationException("The subscription is cancelled");
+                }
+                full = buffer.size() == maxBufferedErrors;
+                if (full) {
+                    endNow(new IllegalStateException("The subscriber did not request the errors, more than "
+                            + maxBufferedErrors + " errors are buffered"));
+                } else {
+                    error.render();
+                    buffer.add(error);
+                }
+            }
+            drain();
+            if (full) {
+                throw new CancellationException("The buffer of the subscription is full");
+            }
+        }
+
+        @Override
+        public void onTruncated() {
+            synchronized (this) {
+                truncated = true;
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                end(truncated ? new AnalysisTruncatedException() : null);
+            }
+            drain();
+        }
+
+        @Override
+        public void onException(Throwable exception) {
+            synchronized (this) {
+                end(exception);
+            }
+            drain();
+        }
+
+        /**
+         * The subscriber is told after the errors in the buffer.
+         */
+        private void end(Throwable exception) {
+            if (!ended) {
+                ended = true;
+                endedWith = exception;
+            }
+        }
+
+        /**
+         * The subscriber is told before the errors in the buffer, which are dropped.
+         */
+        private void endNow(Throwable exception) {
+            if (!cancelled) {
+                ended = true;
+                endedWith = exception;
+                buffer.clear();
+            }
+        }
+
+        /**
+         * Gives the requested errors in the buffer to the subscriber, and then the end of the subscription. Only one
+         * thread drains at a time, and a thread that finds another one draining leaves its work to that thread.
+         */
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                BaseError error = null;
+                boolean complete = false;
+                Throwable exception = null;
+                synchronized (this) {
+                    if (cancelled) {
+                        draining = false;
+                        return;
+                    }
+                    if (!buffer.isEmpty() && demand > 0) {
+                        error = buffer.poll();
+                        if (demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                    } else if (ended && buffer.isEmpty()) {
+                        cancelled = true;
+                        complete = endedWith == null;
+                        exception = endedWith;
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (error != null) {
+                    subscriber.onNext(error);
+                } else if (complete) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(exception);
+                }
+            }
+        }
+    }
+}
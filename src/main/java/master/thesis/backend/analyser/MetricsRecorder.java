@@ -0,0 +1,112 @@
+package master.thesis.backend.analyser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import master.thesis.backend.analyser.AnalysisMetrics.Phase;
+import master.thesis.backend.detector.TypeCache;
+import master.thesis.backend.visitor.BugFinderVisitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.EnumMap;
+
+/**
+ * Records the {@link AnalysisMetrics} of one analysis. Every phase lasts from the end of the previous phase, see
+ * {@link #endPhase(Phase)}. An analysis can be paused on one thread and resumed on another, and the CPU time and
+ * allocated bytes of every thread are added up.
+ *
+ * Only created when the metrics are enabled, so an analysis without metrics does not pay for them.
+ */
+class MetricsRecorder {
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean allocations =
+            threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final boolean measuresCpuTime;
+    private final boolean measuresAllocations;
+    private long phaseStart;
+    private long cpuTimeStart;
+    private long allocatedBytesStart;
+    private long cpuTimeNanos = 0;
+    private long allocatedBytes = 0;
+    private int checkedNodes = 0;
+    private int symbolResolutions = 0;
+    private int symbolResolutionFailures = 0;
+
+    /**
+     * Starts recording on the current thread.
+     */
+    MetricsRecorder() {
+        measuresCpuTime = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        measuresAllocations = allocations != null && allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled();
+        resume();
+    }
+
+    /**
+     * Starts recording on the current thread, after {@link #pause()}. The time in between is not in any phase.
+     */
+    void resume() {
+        cpuTimeStart = cpuTimeOfThread();
+        allocatedBytesStart = allocatedBytesOfThread();
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Stops recording on the current thread, at the end of a phase.
+     */
+    void pause() {
+        cpuTimeNanos += cpuTimeOfThread() - cpuTimeStart;
+        allocatedBytes += allocatedBytesOfThread() - allocatedBytesStart;
+    }
+
+    /**
+     * The time since the previous phase ended is given to the phase.
+     */
+    void endPhase(Phase phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        phaseStart = now;
+    }
+
+    /**
+     * Ends {@link Phase#DETECTION}, and moves the time the visitor spent in the symbol solver to
+     * {@link Phase#SYMBOL_RESOLUTION}. The types of the visitor must be timed, see {@link TypeCache#setTimed(boolean)}.
+     */
+    void endDetection(BugFinderVisitor visitor) {
+        endPhase(Phase.DETECTION);
+        TypeCache types = visitor.getTypes();
+        long solverNanos = Math.min(types.getSolverTime().toNanos(), phaseNanos[Phase.DETECTION.ordinal()]);
+        phaseNanos[Phase.DETECTION.ordinal()] -= solverNanos;
+        phaseNanos[Phase.SYMBOL_RESOLUTION.ordinal()] += solverNanos;
+        checkedNodes += visitor.getNumberOfCheckedNodes();
+        symbolResolutions += types.getLookups(TypeCache.Tier.SOLVER);
+        symbolResolutionFailures += types.getSolverFailures();
+    }
+
+    /**
+     * Stops recording, after the last phase.
+     *
+     * @param compilationUnit the parsed code, or null if the parse failed
+     * @return the metrics of the analysis
+     */
+    AnalysisMetrics finish(CompilationUnit compilationUnit) {
+        pause();
+        EnumMap<Phase, Duration> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Duration.ofNanos(phaseNanos[phase.ordinal()]));
+        }
+        int nodes = compilationUnit == null ? 0 : (int) compilationUnit.stream().count();
+        return new AnalysisMetrics(phases, measuresCpuTime ? cpuTimeNanos : -1, measuresAllocations ? allocatedBytes : -1,
+                nodes, checkedNodes, symbolResolutions, symbolResolutionFailures);
+    }
+
+    private long cpuTimeOfThread() {
+        return measuresCpuTime ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytesOfThread() {
+        return measuresAllocations ? allocations.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+}
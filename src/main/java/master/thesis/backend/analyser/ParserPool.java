@@ -0,0 +1,299 @@
+package master.thesis.backend.analyser;
+
+import com.github.javaparser.JavaParser;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The parsers of an {@link Analyser}, see {@link Analyser#setParserPool(Strategy, int)}. A {@link JavaParser} keeps
+ * the buffers of the generated parser between parses, so a parser that is reused does not build them again. A
+ * parser must only be used by one thread at a time, and is only leased while parsing, since the parsed code does
+ * not need it.
+ *
+ * The parsers of {@link Strategy#POOLED} are kept by the pool, not by the threads that use them, so they are reused
+ * by the short-lived workers of the batch analyses and left behind in no executor. The parsers can be created up
+ * front with {@link #prestart()}, so the first analyses do not pay for them.
+ */
+public class ParserPool {
+
+    /**
+     * How the parsers are shared.
+     */
+    public enum Strategy {
+        /**
+         * A new parser for every parse.
+         */
+        PER_CALL,
+        /**
+         * A parser for every thread, kept until the thread ends. Only reuses parsers on long-lived threads, like
+         * the threads of an executor, since the workers of the batch analyses are new for every batch.
+         */
+        PER_THREAD,
+        /**
+         * A bounded pool of parsers. A thread waits when every parser is leased.
+         */
+        POOLED
+    }
+
+    private final Strategy strategy;
+    private final int size;
+    private final Function<Boolean, JavaParser> newParser;
+    private final ArrayDeque<Parsers> idleParsers = new ArrayDeque<>();
+    private final ThreadLocal<Parsers> parsersOfThread = ThreadLocal.withInitial(this::newParsers);
+    private int numberOfParsers = 0;
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     *
+     * @param size the maximum number of parsers, only used by {@link Strategy#POOLED}
+     * @param newParser creates a parser, with or without symbol resolution
+     */
+    ParserPool(Strategy strategy, int size, Function<Boolean, JavaParser> newParser) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The pool must have room for at least one parser, was " + size);
+        }
+        this.strategy = strategy;
+        this.size = size;
+        this.newParser = newParser;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     *
+     * @return the maximum number of parsers of {@link Strategy#POOLED}
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Lease a parser, and wait for one to be returned if the pool is {@link Strategy#POOLED} and every parser
+     * is leased.
+     *
+     * @param withSymbolResolution false if no detector resolves types
+     * @return the lease to close when the parse is done
+     * @throws CancellationException if the thread is interrupted while waiting
+     */
+    Lease lease(boolean withSymbolResolution) {
+        leases.increment();
+        switch (strategy) {
+            case PER_CALL:
+                return new Lease(newParsers(), withSymbolResolution, false);
+            case PER_THREAD:
+                return new Lease(parsersOfThread.get(), withSymbolResolution, false);
+            default:
+                return new Lease(take(), withSymbolResolution, true);
+        }
+    }
+
+    /**
+     * Creates the parsers with and without symbol resolution now, instead of when they are first leased. Creates
+     * every parser of {@link Strategy#POOLED}, and the parsers of the current thread for {@link Strategy#PER_THREAD}.
+     * Does nothing for {@link Strategy#PER_CALL}.
+     */
+    public void prestart() {
+        switch (strategy) {
+            case PER_CALL:
+                return;
+            case PER_THREAD:
+                parsersOfThread.get().createAll();
+                return;
+            default:
+                List<Parsers> taken = new ArrayList<>();
+                int missing;
+                synchronized (idleParsers) {
+                    taken.addAll(idleParsers);
+                    idleParsers.clear();
+                    missing = size - numberOfParsers;
+                    numberOfParsers = size;
+                }
+                for (int i = 0; i < missing; i++) {
+                    taken.add(newParsers());
+                }
+                for (Parsers parsers : taken) {
+                    parsers.createAll();
+                }
+                synchronized (idleParsers) {
+                    idleParsers.addAll(taken);
+                    idleParsers.notifyAll();
+                }
+        }
+    }
+
+    private Parsers take() {
+        synchronized (idleParsers) {
+            if (idleParsers.isEmpty() && numberOfParsers == size) {
+                waits.increment();
+                long start = System.nanoTime();
+                try {
+                    while (idleParsers.isEmpty()) {
+                        idleParsers.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for a parser");
+                } finally {
+                    waitNanos.add(System.nanoTime() - start);
+                }
+            }
+            if (!idleParsers.isEmpty()) {
+                return idleParsers.pop();
+            }
+            numberOfParsers++;
+        }
+        return newParsers();
+    }
+
+    private void giveBack(Parsers parsers) {
+        synchronized (idleParsers) {
+            idleParsers.push(parsers);
+            idleParsers.notify();
+        }
+    }
+
+    private Parsers newParsers() {
+        created.increment();
+        return new Parsers();
+    }
+
+    /**
+     *
+     * @return the statistics of this pool now
+     */
+    public Statistics getStatistics() {
+        synchronized (idleParsers) {
+            int leased = strategy == Strategy.POOLED ? numberOfParsers - idleParsers.size() : 0;
+            return new Statistics(leases.sum(), created.sum(), waits.sum(), Duration.ofNanos(waitNanos.sum()), leased);
+        }
+    }
+
+    /**
+     * The parser with and the parser without symbol resolution, each created the first time it is used.
+     */
+    private class Parsers {
+        private JavaParser withSymbolResolution;
+        private JavaParser withoutSymbolResolution;
+
+        void createAll() {
+            get(true);
+            get(false);
+        }
+
+        JavaParser get(boolean symbolResolution) {
+            if (symbolResolution) {
+                if (withSymbolResolution == null) {
+                    withSymbolResolution = newParser.apply(true);
+                }
+                return withSymbolResolution;
+            }
+            if (withoutSymbolResolution == null) {
+                withoutSymbolResolution = newParser.apply(false);
+            }
+            return withoutSymbolResolution;
+        }
+    }
+
+    /**
+     * A parser leased from the pool, see {@link #lease(boolean)}.
+     */
+    class Lease implements AutoCloseable {
+
+        private final Parsers parsers;
+        private final boolean withSymbolResolution;
+        private final boolean giveBack;
+
+        private Lease(Parsers parsers, boolean withSymbolResolution, boolean giveBack) {
+            this.parsers = parsers;
+            this.withSymbolResolution = withSymbolResolution;
+            this.giveBack = giveBack;
+        }
+
+        JavaParser getParser() {
+            return parsers.get(withSymbolResolution);
+        }
+
+        @Override
+        public void close() {
+            if (giveBack) {
+                giveBack(parsers);
+            }
+        }
+    }
+
+    /**
+     * The statistics of a {@link ParserPool} at one point in time.
+     */
+    public static class Statistics {
+
+        private final long leases;
+        private final long created;
+        private final long waits;
+        private final Duration waitTime;
+        private final int leased;
+
+        Statistics(long leases, long created, long waits, Duration waitTime, int leased) {
+            this.leases = leases;
+            this.created = created;
+            this.waits = waits;
+            this.waitTime = waitTime;
+            this.leased = leased;
+        }
+
+        /**
+         *
+         * @return the number of parses
+         */
+        public long getLeases() {
+            return leases;
+        }
+
+        /**
+         *
+         * @return the number of pairs of parsers with and without symbol resolution that have been created
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         *
+         * @return the number of leases that waited for a parser to be returned
+         */
+        public long getWaits() {
+            return waits;
+        }
+
+        /**
+         *
+         * @return the total time threads have waited for a parser
+         */
+        public Duration getWaitTime() {
+            return waitTime;
+        }
+
+        /**
+         *
+         * @return the number of parsers leased now, by {@link Strategy#POOLED}
+         */
+        public int getLeased() {
+            return leased;
+        }
+
+        @Override
+        public String toString() {
+            return "leases=" + leases + ", created=" + created + ", waits=" + waits + ", waitTime=" + waitTime.toMillis() + " ms, leased=" + leased;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package master.thesis.backend.analyser;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The result of analysing all the java files in a directory, see {@link Analyser#analyseProject(Path)}.
+ */
+public class ProjectReport {
+
+    private final Path root;
+    private final boolean keepsReports;
+    private final TreeMap<Path, BugReport> reports = new TreeMap<>();
+    private final EnumMap<ErrorKind, Integer> numberOfErrorsPerKind = new EnumMap<>(ErrorKind.class);
+    private int numberOfFiles = 0;
+    private int numberOfErrors = 0;
+    private int numberOfFilesNotAnalysed = 0;
+    private int numberOfFilesWithUnresolvedSymbols = 0;
+
+    ProjectReport(Path root, boolean keepsReports) {
+        this.root = root;
+        this.keepsReports = keepsReports;
+    }
+
+    void add(Path file, BugReport report) {
+        numberOfFiles++;
+        Throwable exception = report.getException().orElse(null);
+        if (isNotAnalysed(exception)) {
+            numberOfFilesNotAnalysed++;
+        } else if (exception instanceof UnsolvedSymbolException) {
+            numberOfFilesWithUnresolvedSymbols++;
+        }
+        for (BaseError error : report.getBugs()) {
+            numberOfErrors++;
+            error.getKind().ifPresent(kind -> numberOfErrorsPerKind.merge(kind, 1, Integer::sum));
+        }
+        if (keepsReports) {
+            reports.put(file, report);
+        }
+    }
+
+    /**
+     * A file is not analysed when it could not be read or parsed. Other exceptions, like a symbol that could not be
+     * resolved, are attached to reports that still have the errors found in the file.
+     */
+    private static boolean isNotAnalysed(Throwable exception) {
+        return exception instanceof ParseProblemException || exception instanceof IOException || exception instanceof UncheckedIOException;
+    }
+
+    /**
+     *
+     * @return the analysed directory
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     *
+     * @return the report of every file, by the path of the file relative to the root. Empty if the reports were given
+     * to a consumer instead.
+     */
+    public Map<Path, BugReport> getReports() {
+        return Collections.unmodifiableMap(reports);
+    }
+
+    public int getNumberOfFiles() {
+        return numberOfFiles;
+    }
+
+    public int getNumberOfErrors() {
+        return numberOfErrors;
+    }
+
+    /**
+     *
+     * @return the number of errors of the kind in all the files
+     */
+    public int getNumberOfErrors(ErrorKind kind) {
+        return numberOfErrorsPerKind.getOrDefault(kind, 0);
+    }
+
+    /**
+     *
+     * @return the number of files that could not be read or had a parseerror
+     */
+    public int getNumberOfFilesNotAnalysed() {
+        return numberOfFilesNotAnalysed;
+    }
+
+    /**
+     *
+     * @return the number of files that were analysed, but where a symbol could not be resolved
+     */
+    public int getNumberOfFilesWithUnresolvedSymbols() {
+        return numberOfFilesWithUnresolvedSymbols;
+    }
+
+    @Override
+    public String toString() {
+        return root + ": " + numberOfFiles + " files, " + numberOfErrors + " errors " + numberOfErrorsPerKind
+                + ", " + numberOfFilesNotAnalysed + " files not analysed, " + numberOfFilesWithUnresolvedSymbols
+                + " files with unresolved symbols";
+    }
+}
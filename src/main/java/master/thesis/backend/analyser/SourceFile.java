@@ -0,0 +1,111 @@
+package master.thesis.backend.analyser;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads source files in UTF-8 for one worker of {@link Analyser#analyseProject(Path, int, AnalysisOptions, java.util.function.BiConsumer)}.
+ *
+ * The bytes are read with a {@link FileChannel}, and big files are memory mapped. They are decoded into a buffer
+ * of chars that the parser reads from, so no string is made of the file. The buffers are used again for the next
+ * file, and only grow as big as the biggest file.
+ */
+class SourceFile {
+
+    private static final int SMALLEST_MAPPED_FILE = 64 * 1024;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer readBytes = ByteBuffer.allocate(8 * 1024);
+    private CharBuffer chars = CharBuffer.allocate(8 * 1024);
+    private ByteBuffer bytes;
+
+    /**
+     * Read the file, instead of the previous one.
+     *
+     * @param file to read
+     * @throws IOException if the file can not be read, or is bigger than 1 GB
+     */
+    void read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > (1 << 30)) {
+                throw new IOException(file + " is too big to analyse, " + size + " bytes");
+            }
+            if (size >= SMALLEST_MAPPED_FILE) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = readFully(channel, (int) size);
+            }
+        }
+        decode();
+    }
+
+    /**
+     *
+     * @return the bytes of the file
+     */
+    ByteBuffer getBytes() {
+        return bytes.duplicate();
+    }
+
+    /**
+     *
+     * @return the number of chars in the file
+     */
+    int getLength() {
+        return chars.position();
+    }
+
+    /**
+     *
+     * @return a reader of the chars in the file, without the byte order mark if there is one
+     */
+    Reader getReader() {
+        int start = chars.position() > 0 && chars.get(0) == '\uFEFF' ? 1 : 0;
+        return new CharArrayReader(chars.array(), start, chars.position() - start);
+    }
+
+    private ByteBuffer readFully(FileChannel channel, int size) throws IOException {
+        if (readBytes.capacity() < size) {
+            readBytes = ByteBuffer.allocate(Math.max(size, readBytes.capacity() * 2));
+        }
+        readBytes.clear().limit(size);
+        while (readBytes.hasRemaining() && channel.read(readBytes) >= 0) {
+            // Read until the buffer is full, or the file is shorter than when it was opened
+        }
+        readBytes.flip();
+        return readBytes;
+    }
+
+    /**
+     * UTF-8 never has more chars than bytes, so the chars fit in a buffer as big as the bytes.
+     */
+    private void decode() throws IOException {
+        if (chars.capacity() < bytes.remaining()) {
+            chars = CharBuffer.allocate(Math.max(bytes.remaining(), chars.capacity() * 2));
+        }
+        chars.clear();
+        decoder.reset();
+        ByteBuffer input = bytes.duplicate();
+        CoderResult result = decoder.decode(input, chars, true);
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+        result = decoder.flush(chars);
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package master.thesis.backend.analyser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The codes {@link Analyser#warmUp()} analyses, bundled with the analyser. Together they reach every check of
+ * {@link master.thesis.backend.visitor.BugFinderVisitor}, with and without errors, and code the checks ignore.
+ */
+final class WarmUpCorpus {
+
+    private static final String DIRECTORY = "/master/thesis/backend/analyser/warmup/";
+
+    private WarmUpCorpus() {}
+
+    /**
+     *
+     * @return the codes of the corpus, read the first time they are asked for
+     * @throws IllegalStateException if the corpus is not on the class path
+     */
+    static List<String> get() {
+        return Holder.CODES;
+    }
+
+    private static class Holder {
+
+        private static final List<String> CODES = read();
+
+        private static List<String> read() {
+            List<String> codes = new ArrayList<>();
+            for (String name : readLines("corpus.list")) {
+                if (!name.isEmpty()) {
+                    codes.add(String.join("\n", readLines(name)));
+                }
+            }
+            return Collections.unmodifiableList(codes);
+        }
+
+        private static List<String> readLines(String name) {
+            InputStream in = WarmUpCorpus.class.getResourceAsStream(DIRECTORY + name);
+            if (in == null) {
+                throw new IllegalStateException("The warm-up corpus has no " + name);
+            }
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return lines;
+        }
+    }
+}
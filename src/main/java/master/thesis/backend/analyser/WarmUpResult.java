@@ -0,0 +1,60 @@
+package master.thesis.backend.analyser;
+
+import java.time.Duration;
+
+/**
+ * How a warm-up went, see {@link Analyser#warmUp(Duration)}. An iteration is one analysis of every code in the
+ * warm-up corpus.
+ */
+public final class WarmUpResult {
+
+    private final int iterations;
+    private final Duration duration;
+    private final Duration firstIteration;
+    private final Duration lastIteration;
+    private final boolean stable;
+
+    WarmUpResult(int iterations, Duration duration, Duration firstIteration, Duration lastIteration, boolean stable) {
+        this.iterations = iterations;
+        this.duration = duration;
+        this.firstIteration = firstIteration;
+        this.lastIteration = lastIteration;
+        this.stable = stable;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     *
+     * @return how long the warm-up took, with the initialization
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getFirstIteration() {
+        return firstIteration;
+    }
+
+    public Duration getLastIteration() {
+        return lastIteration;
+    }
+
+    /**
+     *
+     * @return true if the warm-up stopped because the time of an iteration stopped changing, false if it stopped
+     * because the time was up
+     */
+    public boolean isStable() {
+        return stable;
+    }
+
+    @Override
+    public String toString() {
+        return "Warmed up in " + duration.toMillis() + " ms, " + iterations + " iterations"
+                + (stable ? "" : ", not stable")
+                + ". First iteration " + firstIteration.toNanos() / 1000 + " us, last " + lastIteration.toNanos() / 1000 + " us";
+    }
+}
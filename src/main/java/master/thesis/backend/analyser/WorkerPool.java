@@ -0,0 +1,101 @@
+package master.thesis.backend.analyser;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The worker threads of one batch, like {@link Analyser#analyseAll(java.util.Iterator, int)}. The threads are
+ * stopped when the pool is closed, and a batch waits for its tasks with {@link #run(List, String)}.
+ */
+class WorkerPool implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int numberOfThreads;
+
+    /**
+     *
+     * @param numberOfThreads in the pool, at least 1
+     */
+    WorkerPool(int numberOfThreads) {
+        requireWorkers(numberOfThreads);
+        this.executor = Executors.newFixedThreadPool(numberOfThreads, new WorkerThreadFactory());
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is not at least one worker
+     */
+    static void requireWorkers(int numberOfWorkers) {
+        if (numberOfWorkers < 1) {
+            throw new IllegalArgumentException("Number of workers must be at least 1, was " + numberOfWorkers);
+        }
+    }
+
+    /**
+     * Runs the work on every thread of the pool, see {@link #run(List, String)}.
+     */
+    void runOnEveryThread(Callable<Void> work, String failure) {
+        run(Collections.nCopies(numberOfThreads, work), failure);
+    }
+
+    /**
+     * Runs the tasks at the same time, and waits for all of them to finish. The tasks may wait for each other,
+     * since there is a thread for every task.
+     *
+     * @param tasks to run, at most one for every thread of the pool
+     * @param failure what failed, the message of the exception if a task throws
+     * @throws IllegalStateException with the exception of the first task that throws as the cause
+     * @throws CancellationException if the calling thread is interrupted while waiting for the tasks
+     */
+    void run(List<Callable<Void>> tasks, String failure) {
+        if (tasks.size() > numberOfThreads) {
+            throw new IllegalArgumentException("Can not run " + tasks.size() + " tasks at the same time on " + numberOfThreads + " threads");
+        }
+        ExecutorCompletionService<Void> results = new ExecutorCompletionService<>(executor);
+        for (Callable<Void> task : tasks) {
+            results.submit(task);
+        }
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                results.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the analyses");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(failure, e.getCause());
+        }
+    }
+
+    /**
+     * Stops the threads, and interrupts the tasks that are still running.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Names the threads of every pool. The threads are daemons, so a batch that is left behind does not keep the
+     * JVM alive.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "analyser-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
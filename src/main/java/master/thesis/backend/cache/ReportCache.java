@@ -0,0 +1,165 @@
+package master.thesis.backend.cache;
+
+import master.thesis.backend.errors.BugReport;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of reports, keyed by {@link SourceHash}. Can be shared by many threads and analysers.
+ *
+ * When there are more than the maximum number of entries, or the entries weigh more than the maximum weight, the
+ * least recently used entries are evicted. The weight of an entry is the length of the analysed code, since the
+ * errors copy operands and conditions from the code.
+ *
+ * Reports are kept as snapshots, see {@link BugReport#snapshot()}, so a report from the cache can not be changed.
+ */
+public class ReportCache {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     *
+     * @param maxEntries the maximum number of reports to keep
+     * @param maxWeight the maximum total length of the analysed codes of the reports to keep
+     */
+    public ReportCache(int maxEntries, long maxWeight) {
+        if (maxEntries < 1 || maxWeight < 1) {
+            throw new IllegalArgumentException("The cache must have room for at least one entry");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Get the report with the key, or analyse and keep the report. The analysis is not done while holding the
+     * lock of the cache, so two threads missing the same key at the same time both analyse.
+     *
+     * Reports with an {@link Error} attached, like running out of memory, and truncated reports are not kept.
+     *
+     * @param key see {@link SourceHash#of(String, String)}
+     * @param weight of the report, see {@link ReportCache}
+     * @param analysis to do if the report is not in the cache
+     * @return a snapshot of the report
+     */
+    public BugReport get(String key, long weight, Supplier<BugReport> analysis) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.report;
+            }
+            misses++;
+        }
+        BugReport report = analysis.get().snapshot();
+        if (report.isTruncated() || report.getException().map(exception -> exception instanceof Error).orElse(false) || weight > maxWeight) {
+            return report;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(report, weight));
+            if (previous != null) {
+                this.weight -= previous.weight;
+            }
+            this.weight += weight;
+            evict();
+        }
+        return report;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && leastRecentlyUsed.hasNext()) {
+            weight -= leastRecentlyUsed.next().getValue().weight;
+            leastRecentlyUsed.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove all entries. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     *
+     * @return the statistics of this cache now
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, entries.size(), weight);
+    }
+
+    private static class Entry {
+        private final BugReport report;
+        private final long weight;
+
+        Entry(BugReport report, long weight) {
+            this.report = report;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * The statistics of a {@link ReportCache} at one point in time.
+     */
+    public static class Statistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long weight;
+
+        Statistics(long hits, long misses, long evictions, int entries, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.weight = weight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        /**
+         *
+         * @return the share of lookups that were hits, 0 if there were no lookups
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", entries=" + entries + ", weight=" + weight;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package master.thesis.backend.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The SHA-256 hash of a source, to find reports of code that has been analysed before.
+ */
+public final class SourceHash {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SourceHash() {}
+
+    /**
+     * Line endings do not change the result of an analysis, so they are made the same before hashing.
+     *
+     * @param code as submitted
+     * @return the code with \n as the only line ending
+     */
+    public static String normalize(String code) {
+        if (code.indexOf('\r') < 0) {
+            return code;
+        }
+        return code.replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    /**
+     *
+     * @param code to hash, see {@link #normalize(String)}
+     * @param context everything else that decides the result, like the configuration and options
+     * @return the hash as 64 hex characters
+     */
+    public static String of(String code, String context) {
+        MessageDigest digest = newDigest(context);
+        digest.update(normalize(code).getBytes(StandardCharsets.UTF_8));
+        return hexOf(digest.digest());
+    }
+
+    /**
+     * The same hash as {@link #of(String, String)} gives for the code, when the bytes are the code in UTF-8.
+     * A carriage return is never part of another character in UTF-8, so line endings are made the same without
+     * decoding the bytes.
+     *
+     * @param utf8 the code in UTF-8, from the position to the limit. The position is not changed.
+     * @param context everything else that decides the result, like the configuration and options
+     * @return the hash as 64 hex characters
+     */
+    public static String of(ByteBuffer utf8, String context) {
+        MessageDigest digest = newDigest(context);
+        ByteBuffer bytes = utf8.duplicate();
+        boolean hasCarriageReturn = false;
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            if (bytes.get(i) == '\r') {
+                hasCarriageReturn = true;
+                break;
+            }
+        }
+        if (!hasCarriageReturn) {
+            digest.update(bytes);
+            return hexOf(digest.digest());
+        }
+        byte previous = 0;
+        while (bytes.hasRemaining()) {
+            byte next = bytes.get();
+            if (next == '\r') {
+                digest.update((byte) '\n');
+            } else if (next != '\n' || previous != '\r') {
+                digest.update(next);
+            }
+            previous = next;
+        }
+        return hexOf(digest.digest());
+    }
+
+    private static MessageDigest newDigest(String context) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+        digest.update(context.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        return digest;
+    }
+
+    private static String hexOf(byte[] hash) {
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,141 @@
+package master.thesis.backend.daemon;
+
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.serialization.ReportCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Analyses code in an {@link AnalysisDaemon}, over its Unix domain socket. Gives the same reports as
+ * {@link master.thesis.backend.analyser.Analyser#analyse(String)}, with the exception of an attached exception,
+ * which is a {@link master.thesis.backend.serialization.SerializedException}. Needs Java 16 or newer.
+ *
+ * A client is used by one thread at a time.
+ */
+public class AnalysisClient implements Closeable {
+
+    private static final Duration SPAWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private AnalysisClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    /**
+     * Connect to a daemon that is running.
+     *
+     * @param socket path of the socket file of the daemon
+     * @return the connected client
+     * @throws IOException if no daemon is listening on the socket
+     * @throws UnsupportedOperationException if the JVM is older than Java 16
+     */
+    public static AnalysisClient connect(Path socket) throws IOException {
+        if (!UnixSockets.isSupported()) {
+            throw new UnsupportedOperationException("Unix domain sockets need Java 16 or newer");
+        }
+        SocketChannel channel = UnixSockets.openClient();
+        try {
+            channel.connect(UnixSockets.address(socket));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new AnalysisClient(channel);
+    }
+
+    /**
+     * Connect to the daemon on the socket, and start one in a new JVM with the class path of this JVM if none is
+     * running. The new daemon keeps running after this JVM exits, until it has been idle for the idle timeout.
+     *
+     * @param socket path of the socket file of the daemon
+     * @param idleTimeout for a new daemon
+     * @return the connected client
+     * @throws IOException if a new daemon could not be started, or did not listen on the socket in 30 seconds
+     * @throws UnsupportedOperationException if the JVM is older than Java 16
+     */
+    public static AnalysisClient connectOrSpawn(Path socket, Duration idleTimeout) throws IOException {
+        try {
+            return connect(socket);
+        } catch (IOException e) {
+            // No daemon is running, start one
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), AnalysisDaemon.class.getName(), socket.toString(), idleTimeout.toString())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        long deadline = System.nanoTime() + SPAWN_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                return connect(socket);
+            } catch (IOException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("The daemon did not listen on " + socket + " within " + SPAWN_TIMEOUT.getSeconds() + " seconds", e);
+                }
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the daemon to start", e);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param code to analyse as string
+     * @return the report of the analysis in the daemon
+     * @throws IOException if the connection to the daemon fails, or the daemon can not send the report
+     */
+    public BugReport analyse(String code) throws IOException {
+        byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > AnalysisDaemon.MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("The daemon analyses code of up to " + AnalysisDaemon.MAX_CODE_LENGTH + " bytes, was " + bytes.length);
+        }
+        out.writeByte(AnalysisDaemon.ANALYSE);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+        if (in.readUnsignedByte() != AnalysisDaemon.OK) {
+            throw new IOException("The daemon failed: " + in.readUTF());
+        }
+        return ReportCodec.read(in);
+    }
+
+    /**
+     * Ask the daemon to shut down, and close this client.
+     *
+     * @throws IOException if the connection to the daemon fails
+     */
+    public void shutdownDaemon() throws IOException {
+        try {
+            out.writeByte(AnalysisDaemon.SHUTDOWN);
+            out.flush();
+            in.readUnsignedByte();
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
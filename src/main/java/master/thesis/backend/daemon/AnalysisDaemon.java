@@ -0,0 +1,293 @@
+package master.thesis.backend.daemon;
+
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.serialization.ReportCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyses code sent by {@link AnalysisClient} over a Unix domain socket, so the JVM, the parser and the type
+ * solver are warm for every analysis. Needs Java 16 or newer.
+ *
+ * The daemon shuts down when it has not been asked to analyse anything for the idle timeout, or when a client asks
+ * it to. The socket file is deleted when it shuts down.
+ *
+ * Protocol, in the order of {@link DataOutputStream}: a client sends {@link #ANALYSE}, the length of the code in
+ * UTF-8 and the code, and gets {@link #OK} and the report written by {@link ReportCodec}, or {@link #FAILED} and a
+ * message. Many codes can be analysed on one connection. {@link #SHUTDOWN} is answered with {@link #OK} before the
+ * daemon shuts down.
+ */
+public class AnalysisDaemon implements Closeable {
+
+    static final int ANALYSE = 1;
+    static final int SHUTDOWN = 2;
+    static final int OK = 0;
+    static final int FAILED = 1;
+    static final int MAX_CODE_LENGTH = 64 * 1024 * 1024;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private final Analyser analyser;
+    private final Path socket;
+    private final long idleTimeoutNanos;
+    private final ServerSocketChannel server;
+    private final ExecutorService connections;
+    private final ScheduledExecutorService idleCheck;
+    private final Set<SocketChannel> openChannels = new HashSet<>();
+    private long lastActivity = System.nanoTime();
+    private int activeRequests = 0;
+    private boolean closed = false;
+
+    private AnalysisDaemon(Analyser analyser, Path socket, Duration idleTimeout, ServerSocketChannel server) {
+        this.analyser = analyser;
+        this.socket = socket;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.server = server;
+        this.connections = Executors.newCachedThreadPool(runnable -> newThread(runnable, true));
+        this.idleCheck = Executors.newSingleThreadScheduledExecutor(runnable -> newThread(runnable, true));
+    }
+
+    /**
+     *
+     * @return true if the JVM has Unix domain sockets, from Java 16
+     */
+    public static boolean isSupported() {
+        return UnixSockets.isSupported();
+    }
+
+    /**
+     * Start listening on the socket, when the analyser is initialized, see {@link Analyser#initialize()}. A socket
+     * file left behind by a daemon that is no longer running is replaced.
+     *
+     * @param analyser to analyse with
+     * @param socket path of the socket file
+     * @param idleTimeout how long to wait for something to analyse before shutting down
+     * @return the started daemon
+     * @throws IOException if another daemon is listening on the socket, or the socket can not be created
+     * @throws UnsupportedOperationException if the JVM is older than Java 16
+     */
+    public static AnalysisDaemon start(Analyser analyser, Path socket, Duration idleTimeout) throws IOException {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Unix domain sockets need Java 16 or newer");
+        }
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive, was " + idleTimeout);
+        }
+        if (Files.exists(socket)) {
+            if (isListening(socket)) {
+                throw new IOException("A daemon is already listening on " + socket);
+            }
+            Files.deleteIfExists(socket);
+        }
+        analyser.initialize();
+        ServerSocketChannel server = UnixSockets.openServer();
+        try {
+            server.bind(UnixSockets.address(socket));
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        AnalysisDaemon daemon = new AnalysisDaemon(analyser, socket, idleTimeout, server);
+        long period = Math.max(1, Math.min(idleTimeout.toMillis() / 4, 1000));
+        daemon.idleCheck.scheduleAtFixedRate(daemon::closeIfIdle, period, period, TimeUnit.MILLISECONDS);
+        newThread(daemon::accept, false).start();
+        return daemon;
+    }
+
+    /**
+     * Runs a daemon with the default analyser until it shuts down.
+     *
+     * Usage: java master.thesis.backend.daemon.AnalysisDaemon &lt;socket&gt; &lt;idle timeout, like PT10M&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java " + AnalysisDaemon.class.getName() + " <socket> <idle timeout, like PT10M>");
+            System.exit(2);
+        }
+        start(new Analyser(), Paths.get(args[0]), Duration.parse(args[1]));
+    }
+
+    /**
+     *
+     * @return the path of the socket file
+     */
+    public Path getSocket() {
+        return socket;
+    }
+
+    /**
+     *
+     * @return false when the daemon has shut down
+     */
+    public synchronized boolean isRunning() {
+        return !closed;
+    }
+
+    /**
+     * Deletes the socket file, stops listening and closes the connections of the clients.
+     *
+     * The thread accepting connections keeps the JVM alive, and waits for this to finish when the server socket is
+     * closed under it, so a daemon run by {@link #main(String[])} does not exit before it has cleaned up.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            // A socket file left behind is replaced by the next daemon
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Closed anyway
+        }
+        for (SocketChannel channel : openChannels) {
+            closeQuietly(channel);
+        }
+        idleCheck.shutdown();
+        connections.shutdown();
+    }
+
+    private void closeIfIdle() {
+        synchronized (this) {
+            if (activeRequests > 0 || System.nanoTime() - lastActivity < idleTimeoutNanos) {
+                return;
+            }
+        }
+        close();
+    }
+
+    private void accept() {
+        while (isRunning()) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            synchronized (this) {
+                if (closed) {
+                    closeQuietly(channel);
+                    return;
+                }
+                openChannels.add(channel);
+            }
+            connections.execute(() -> serve(channel));
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            while (true) {
+                int request;
+                try {
+                    request = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (request == SHUTDOWN) {
+                    out.writeByte(OK);
+                    out.flush();
+                    close();
+                    return;
+                }
+                if (request != ANALYSE) {
+                    return;
+                }
+                int length = in.readInt();
+                if (length < 0 || length > MAX_CODE_LENGTH) {
+                    return;
+                }
+                byte[] code = new byte[length];
+                in.readFully(code);
+                startRequest();
+                try {
+                    BugReport report = analyser.analyse(new String(code, StandardCharsets.UTF_8));
+                    if (ReportCodec.canEncode(report)) {
+                        out.writeByte(OK);
+                        ReportCodec.write(report, out);
+                    } else {
+                        out.writeByte(FAILED);
+                        out.writeUTF("The report has errors without a kind, and can not be sent");
+                    }
+                    out.flush();
+                } finally {
+                    endRequest();
+                }
+            }
+        } catch (IOException e) {
+            // The client or the daemon closed the connection
+        } finally {
+            synchronized (this) {
+                openChannels.remove(channel);
+            }
+            closeQuietly(channel);
+        }
+    }
+
+    private synchronized void startRequest() {
+        activeRequests++;
+        lastActivity = System.nanoTime();
+    }
+
+    private synchronized void endRequest() {
+        activeRequests--;
+        lastActivity = System.nanoTime();
+    }
+
+    /**
+     *
+     * @return true if a daemon accepts connections on the socket
+     */
+    static boolean isListening(Path socket) {
+        try (SocketChannel channel = UnixSockets.openClient()) {
+            channel.connect(UnixSockets.address(socket));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Closed anyway
+        }
+    }
+
+    private static Thread newThread(Runnable runnable, boolean daemon) {
+        Thread thread = new Thread(runnable, "analysis-daemon-" + threadNumber.incrementAndGet());
+        thread.setDaemon(daemon);
+        return thread;
+    }
+}
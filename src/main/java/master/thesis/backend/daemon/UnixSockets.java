@@ -0,0 +1,88 @@
+package master.thesis.backend.daemon;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Unix domain sockets, for {@link AnalysisDaemon} and {@link AnalysisClient}.
+ *
+ * The analyser is compiled for Java 11, so the socket classes of Java 16 are looked up at runtime.
+ */
+final class UnixSockets {
+
+    private static final ProtocolFamily UNIX = unixProtocolFamily();
+    private static final Method ADDRESS_OF = method("java.net.UnixDomainSocketAddress", "of", Path.class);
+    private static final Method OPEN_SERVER = method(ServerSocketChannel.class.getName(), "open", ProtocolFamily.class);
+    private static final Method OPEN_CLIENT = method(SocketChannel.class.getName(), "open", ProtocolFamily.class);
+
+    private UnixSockets() {}
+
+    /**
+     *
+     * @return true if the JVM has Unix domain sockets, from Java 16
+     */
+    static boolean isSupported() {
+        return UNIX != null && ADDRESS_OF != null && OPEN_SERVER != null && OPEN_CLIENT != null;
+    }
+
+    static SocketAddress address(Path socket) {
+        return (SocketAddress) invoke(ADDRESS_OF, socket);
+    }
+
+    static ServerSocketChannel openServer() throws IOException {
+        return (ServerSocketChannel) invokeOpen(OPEN_SERVER);
+    }
+
+    static SocketChannel openClient() throws IOException {
+        return (SocketChannel) invokeOpen(OPEN_CLIENT);
+    }
+
+    private static Object invokeOpen(Method open) throws IOException {
+        try {
+            return open.invoke(null, UNIX);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Could not open a Unix domain socket", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not open a Unix domain socket", e);
+        }
+    }
+
+    private static Object invoke(Method method, Object argument) {
+        try {
+            return method.invoke(null, argument);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ProtocolFamily unixProtocolFamily() {
+        try {
+            return StandardProtocolFamily.valueOf("UNIX");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Method method(String className, String name, Class<?> parameter) {
+        try {
+            return Class.forName(className).getMethod(name, parameter);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import master.thesis.backend.errors.BitwiseOperatorError;
+import master.thesis.backend.errors.ErrorKind;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Finds bitwise operators used on boolean expressions:
+ *      boolean a = true & false;
+ *      boolean b = true | false;
+ *
+ * Ignored when expression is inside print statement.
+ */
+public class BitwiseOperatorDetector implements Detector {
+
+    @Override
+    public ErrorKind getKind() {
+        return ErrorKind.BITWISE_OPERATOR;
+    }
+
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(BinaryExpr.class);
+    }
+
+    @Override
+    public boolean requiresSymbolResolution() {
+        return true;
+    }
+
+    /**
+     * Check that binary operator are not used on booleans.
+     * If found, add a {@link BitwiseOperatorError}.
+     *
+     * @param node the binary expression
+     * @param context
+     */
+    @Override
+    public void check(Node node, DetectorContext context) {
+        BinaryExpr expression = (BinaryExpr) node;
+        BinaryExpr.Operator operator = expression.getOperator();
+        if (!(operator.equals(BinaryExpr.Operator.BINARY_OR) || operator.equals(BinaryExpr.Operator.BINARY_AND)) || context.isInsidePrintStatement()) {
+            return;
+        }
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+        TypeCache types = context.getTypes();
+        try {
+            if (types.typeOf(left).isBoolean() && types.typeOf(right).isBoolean()) {
+                BitwiseOperatorError bitwiseOperatorError = new BitwiseOperatorError();
+                bitwiseOperatorError.setContainingClass(context.getContainingClass().orElse(""));
+                bitwiseOperatorError.setLineNumber(Nodes.lineNumberOf(expression));
+                bitwiseOperatorError.setLeftOperand(left::toString);
+                bitwiseOperatorError.setRightOperand(right::toString);
+                bitwiseOperatorError.setOperator(operator.asString());
+                context.report(bitwiseOperatorError);
+            }
+        } catch (UnsolvedSymbolException unsolvedSymbolException) {
+            context.attach(unsolvedSymbolException);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import master.thesis.backend.errors.ErrorKind;
+
+import java.util.Set;
+
+/**
+ * A rule finding one kind of error. All new rules should implement this interface and be added to
+ * {@link DetectorRegistry}.
+ *
+ * {@link master.thesis.backend.visitor.BugFinderVisitor} goes through the tree once, and gives a node to a detector
+ * only when the type of the node is one of {@link #getNodeTypes()}. A detector is not asked when its kind is
+ * ignored for the class of the node.
+ *
+ * Detectors are shared by all analyses, and must not keep state between calls to {@link #check(Node, DetectorContext)}.
+ */
+public interface Detector {
+
+    /**
+     *
+     * @return the kind of the errors this detector finds
+     */
+    ErrorKind getKind();
+
+    /**
+     *
+     * @return the types of nodes this detector checks
+     */
+    Set<Class<? extends Node>> getNodeTypes();
+
+    /**
+     *
+     * @return true if this detector resolves types. When no enabled detector does, the code is parsed without a
+     * symbol solver.
+     */
+    boolean requiresSymbolResolution();
+
+    /**
+     * Check the node, and add errors through {@link DetectorContext#report(master.thesis.backend.errors.BaseError)}.
+     * The children of the node are already checked.
+     *
+     * @param node with one of the types from {@link #getNodeTypes()}
+     * @param context where the node is in the tree
+     */
+    void check(Node node, DetectorContext context);
+}
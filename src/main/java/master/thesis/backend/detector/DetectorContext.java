@@ -0,0 +1,76 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+
+import java.util.Optional;
+
+/**
+ * Where the node given to {@link Detector#check(com.github.javaparser.ast.Node, DetectorContext)} is in the tree.
+ * Every question is answered without going up the tree.
+ *
+ * All enclosing nodes are ancestors of the checked node, and never the node itself.
+ */
+public interface DetectorContext {
+
+    /**
+     *
+     * @return empty if not found, the name of the enclosing class if found
+     */
+    Optional<String> getContainingClass();
+
+    Optional<MethodDeclaration> getEnclosingMethod();
+
+    Optional<MethodCallExpr> getEnclosingMethodCall();
+
+    Optional<VariableDeclarationExpr> getEnclosingVariableDeclaration();
+
+    Optional<FieldDeclaration> getEnclosingFieldDeclaration();
+
+    /**
+     *
+     * @return empty if the node is not inside a returnstatement, or the returnstatement is not inside a method.
+     * Else the method of the enclosing returnstatement.
+     */
+    Optional<MethodDeclaration> getMethodOfEnclosingReturn();
+
+    /**
+     *
+     * @return the types for this analysis
+     */
+    TypeCache getTypes();
+
+    /**
+     * Add an error to the {@link BugReport} of this analysis.
+     *
+     * @param error the error found
+     */
+    void report(BaseError error);
+
+    /**
+     * Attach an exception to the {@link BugReport} of this analysis, for example when a symbol is not resolved.
+     *
+     * @param exception the exception to attach
+     */
+    void attach(Throwable exception);
+
+    /**
+     *
+     * @return true if the node is inside the equals method
+     */
+    default boolean isInsideEqualsMethod() {
+        return getEnclosingMethod().map(method -> method.getNameAsString().equals("equals")).orElse(false);
+    }
+
+    /**
+     *
+     * @return true if the node is inside a print statement
+     */
+    default boolean isInsidePrintStatement() {
+        return getEnclosingMethodCall().map(methodCall -> methodCall.getNameAsString().equals("println") || methodCall.getNameAsString().equals("print")).orElse(false);
+    }
+}
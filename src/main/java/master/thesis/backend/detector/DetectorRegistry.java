@@ -0,0 +1,64 @@
+package master.thesis.backend.detector;
+
+import master.thesis.backend.errors.ErrorKind;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The detectors an analysis can use. Detectors can be enabled or disabled per analysis by their {@link ErrorKind}.
+ */
+public class DetectorRegistry {
+
+    private final CopyOnWriteArrayList<Detector> detectors = new CopyOnWriteArrayList<>();
+
+    /**
+     *
+     * @return a registry with a detector for every {@link ErrorKind}
+     */
+    public static DetectorRegistry withDefaultDetectors() {
+        DetectorRegistry registry = new DetectorRegistry();
+        registry.register(new EqualsOperatorDetector());
+        registry.register(new IntegerDivisionDetector());
+        registry.register(new BitwiseOperatorDetector());
+        registry.register(new MissingEqualsMethodDetector());
+        registry.register(new SemiColonAfterIfDetector());
+        registry.register(new IfWithoutBracketsDetector());
+        return registry;
+    }
+
+    public void register(Detector detector) {
+        detectors.add(detector);
+    }
+
+    /**
+     *
+     * @param enabledKinds the kinds of errors to look for
+     * @return the detectors for the enabled kinds, in the order they were registered
+     */
+    public List<Detector> getDetectors(EnumSet<ErrorKind> enabledKinds) {
+        List<Detector> enabledDetectors = new ArrayList<>();
+        for (Detector detector : detectors) {
+            if (enabledKinds.contains(detector.getKind())) {
+                enabledDetectors.add(detector);
+            }
+        }
+        return enabledDetectors;
+    }
+
+    /**
+     *
+     * @param enabledKinds the kinds of errors to look for
+     * @return true if any of the detectors for the enabled kinds resolves types
+     */
+    public boolean requiresSymbolResolution(EnumSet<ErrorKind> enabledKinds) {
+        for (Detector detector : getDetectors(enabledKinds)) {
+            if (detector.requiresSymbolResolution()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import master.thesis.backend.errors.EqualsOperatorError;
+import master.thesis.backend.errors.ErrorKind;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Finds objects compared with the equals operator:
+ *      Object o1 = new Object();
+ *      Object o2 = new Object();
+ *      boolean a = o1 == o2;
+ *
+ * Ignored when expression is inside print statement and equals method declaration.
+ */
+public class EqualsOperatorDetector implements Detector {
+
+    @Override
+    public ErrorKind getKind() {
+        return ErrorKind.EQUALS_OPERATOR;
+    }
+
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(BinaryExpr.class);
+    }
+
+    @Override
+    public boolean requiresSymbolResolution() {
+        return true;
+    }
+
+    /**
+     * Check that objects are not compared with the equals operator.
+     * If found, add a {@link EqualsOperatorError}.
+     *
+     * @param node the binary expression
+     * @param context
+     */
+    @Override
+    public void check(Node node, DetectorContext context) {
+        BinaryExpr expression = (BinaryExpr) node;
+        if (!equalsOperatorIsUsedIn(expression) || context.isInsideEqualsMethod() || context.isInsidePrintStatement()) {
+            return;
+        }
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+        TypeCache types = context.getTypes();
+        try {
+            if (equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(expression, types)) {
+                EqualsOperatorError equalsOperatorError = createError(expression, context);
+                if (types.typeOf(left).isArray() && types.typeOf(right).isArray()) {
+                    equalsOperatorError.setArraysSuggestion();
+                }
+                context.report(equalsOperatorError);
+            }
+        } catch (UnsolvedSymbolException unsolvedSymbolException) {
+            // When a type is not resolved, we know it is not a primitive. But an object may be called upon, which can
+            // result in a primitive. So we need to check that it is only the object. If it is called upon, we add the
+            // exception. If not, we add the bug.
+            boolean leftIsObjectReference = left.isNameExpr();
+            boolean rightIsObjectReference = right.isNameExpr();
+            if (leftIsObjectReference && rightIsObjectReference) {
+                context.report(createError(expression, context));
+            }
+            else {
+                context.attach(unsolvedSymbolException);
+            }
+        }
+    }
+
+    private EqualsOperatorError createError(BinaryExpr expression, DetectorContext context) {
+        EqualsOperatorError equalsOperatorError = new EqualsOperatorError();
+        equalsOperatorError.setContainingClass(context.getContainingClass().orElse(""));
+        equalsOperatorError.setLineNumber(Nodes.lineNumberOf(expression));
+        equalsOperatorError.setLeftOperand(expression.getLeft()::toString);
+        equalsOperatorError.setRightOperand(expression.getRight()::toString);
+        equalsOperatorError.setOperator(expression.getOperator().asString());
+        return equalsOperatorError;
+    }
+
+    /**
+     * Check if equals operator is used to find {@link EqualsOperatorError}
+     *
+     * @param expression
+     * @return true if equals operator is used
+     */
+    private boolean equalsOperatorIsUsedIn(BinaryExpr expression) {
+        BinaryExpr.Operator operator = expression.getOperator();
+        return operator.equals(BinaryExpr.Operator.EQUALS) || operator.equals(BinaryExpr.Operator.NOT_EQUALS);
+    }
+
+    /**
+     * Used to limit false positives of {@link EqualsOperatorError}
+     * Check if operands are null or primitives.
+     *
+     * @param expression
+     * @param types
+     * @return true if operands are null or primitives
+     */
+    private boolean equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(BinaryExpr expression, TypeCache types) {
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+        return !isPrimitiveOrNull(left, types) && !isPrimitiveOrNull(right, types) && !ifMethodCallExpressionThenCheckIfItReturnsPrimitiveOrNull(left, types) && !ifMethodCallExpressionThenCheckIfItReturnsPrimitiveOrNull(right, types);
+    }
+
+    /**
+     * Used by {@link #equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(BinaryExpr, TypeCache)} to check if
+     * the equals operator is used on null or primitives.
+     *
+     * @param expr
+     * @param types
+     * @return True if is a methodcall and it returns either primitive or null. False otherwise.
+     * @throws UnsolvedSymbolException
+     */
+    private boolean ifMethodCallExpressionThenCheckIfItReturnsPrimitiveOrNull(Expression expr, TypeCache types) throws UnsolvedSymbolException {
+        if (expr.isMethodCallExpr()) {
+            ValueType returnType = types.returnTypeOf((MethodCallExpr) expr);
+            return returnType.isPrimitive() || returnType.isNull();
+        }
+        return false;
+    }
+
+    /**
+     * Used by {@link #equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(BinaryExpr, TypeCache)} to check if
+     * the equals operator is used on null or primitives.
+     *
+     * @param exp
+     * @param types
+     * @return True if exp is either primitive or null. False otherwise.
+     * @throws UnsolvedSymbolException
+     */
+    private boolean isPrimitiveOrNull(Expression exp, TypeCache types) throws UnsolvedSymbolException {
+        ValueType type = types.typeOf(exp);
+        return type.isPrimitive() || type.isNull();
+    }
+}
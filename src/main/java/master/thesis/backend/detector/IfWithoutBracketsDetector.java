@@ -0,0 +1,94 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.IfWithoutBracketsError;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds wrong indentation of if-statements without brackets:
+ *      if (something)
+ *          doSomething();
+ *          doSomethingElse();
+ */
+public class IfWithoutBracketsDetector implements Detector {
+
+    @Override
+    public ErrorKind getKind() {
+        return ErrorKind.IF_WITHOUT_BRACKETS;
+    }
+
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(IfStmt.class);
+    }
+
+    @Override
+    public boolean requiresSymbolResolution() {
+        return false;
+    }
+
+    /**
+     * Check if if-statement has brackets. If not, check if the statement has a sibling, and check if
+     * the sibling is indented wrong. If so, add a {@link IfWithoutBracketsError}.
+     *
+     * @param node the if-statement
+     * @param context
+     */
+    @Override
+    public void check(Node node, DetectorContext context) {
+        IfStmt statement = (IfStmt) node;
+        Statement thenStatement = statement.getThenStmt();
+        if (thenStatement.isEmptyStmt() || thenStatement instanceof BlockStmt) {
+            return;
+        }
+        int lineNumberOfIfStatement = Nodes.lineNumberOf(statement);
+        int indentationThenStatement = -1;
+        int lineNumberOfThenStatement = -1;
+
+        if (thenStatement.getRange().isPresent()) {
+            lineNumberOfThenStatement =  thenStatement.getRange().get().begin.line;
+            indentationThenStatement = thenStatement.getRange().get().begin.column;
+        }
+
+        Optional<Node> sibling = siblingOf(statement);
+        if (sibling.isPresent()) {
+            int intendationSiblingStatement = sibling.get().getRange().get().begin.column;
+            int lineNumberOfSiblingStatement = sibling.get().getRange().get().begin.line;
+
+            if (indentationThenStatement == intendationSiblingStatement || lineNumberOfSiblingStatement == lineNumberOfIfStatement || lineNumberOfSiblingStatement == lineNumberOfThenStatement) {
+                IfWithoutBracketsError ifWithoutBracketsError = new IfWithoutBracketsError();
+                ifWithoutBracketsError.setContainingClass(context.getContainingClass().orElse(""));
+                ifWithoutBracketsError.setLineNumber(lineNumberOfIfStatement);
+                ifWithoutBracketsError.setCondition(statement.getCondition()::toString);
+                ifWithoutBracketsError.setThenBranch(thenStatement::toString);
+                context.report(ifWithoutBracketsError);
+            }
+        }
+    }
+
+    /**
+     * Find the sibling of a node.
+     *
+     * @param statement
+     * @return empty if not found, the sibling if found
+     */
+    private Optional<Node> siblingOf(IfStmt statement) {
+        if (statement.hasParentNode()) {
+            Node parent = statement.getParentNode().get();
+            List<Node> children = parent.getChildNodes();
+            int indexOfIfStatement = children.indexOf(statement);
+            if (indexOfIfStatement+1 < children.size()) {
+               return Optional.of(children.get(indexOfIfStatement+1));
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,103 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.IntegerDivisionError;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Finds integer divisions expecting a double:
+ *      double a = 7/5;
+ *
+ * Ignored when expression is inside print statement, or the result is expected to be an int.
+ */
+public class IntegerDivisionDetector implements Detector {
+
+    @Override
+    public ErrorKind getKind() {
+        return ErrorKind.INTEGER_DIVISION;
+    }
+
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(BinaryExpr.class);
+    }
+
+    @Override
+    public boolean requiresSymbolResolution() {
+        return true;
+    }
+
+    /**
+     * Check that integer division does not expect a double.
+     * If found, add a {@link IntegerDivisionError}.
+     *
+     * @param node the binary expression
+     * @param context
+     */
+    @Override
+    public void check(Node node, DetectorContext context) {
+        BinaryExpr expression = (BinaryExpr) node;
+        if (!expression.getOperator().equals(BinaryExpr.Operator.DIVIDE) || context.isInsidePrintStatement()) {
+            return;
+        }
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+        TypeCache types = context.getTypes();
+        try {
+            if (types.typeOf(left).isInt() && types.typeOf(right).isInt()) {
+                if (!isInVariableDeclarationDefinedAsInteger(context) && !isInFieldDeclarationDefinedAsInteger(context) && !isReturningIntegerInMethodExpectingInteger(context)) {
+                    IntegerDivisionError integerDivisionError = new IntegerDivisionError();
+                    integerDivisionError.setContainingClass(context.getContainingClass().orElse(""));
+                    integerDivisionError.setLineNumber(Nodes.lineNumberOf(expression));
+                    integerDivisionError.setLeftOperand(left::toString);
+                    integerDivisionError.setRightOperand(right::toString);
+                    context.report(integerDivisionError);
+                }
+            }
+        } catch (UnsolvedSymbolException unsolvedSymbolException) {
+            context.attach(unsolvedSymbolException);
+        }
+    }
+
+    /**
+     * Used to check the expected type of integer division and limit false positives of {@link IntegerDivisionError}
+     *
+     * Check if the enclosing variabledeclaration is declared as int.
+     *
+     * @param context
+     * @return true if type is declared as int
+     */
+    private boolean isInVariableDeclarationDefinedAsInteger(DetectorContext context) {
+        return context.getEnclosingVariableDeclaration().map(variableDeclarationExpr -> context.getTypes().typeOf(variableDeclarationExpr).isInt()).orElse(false);
+    }
+
+    /**
+     * Used to check the expected type of integer division and limit false positives of {@link IntegerDivisionError}
+     *
+     * Check if the enclosing fielddeclaration is declared as int.
+     *
+     * @param context
+     * @return true if type is declared as int
+     */
+    private boolean isInFieldDeclarationDefinedAsInteger(DetectorContext context) {
+        return context.getEnclosingFieldDeclaration().map(fieldDeclaration -> context.getTypes().typeOf(fieldDeclaration).isInt()).orElse(false);
+    }
+
+    /**
+     * Used to check the expected type of integer division and limit false positives of {@link IntegerDivisionError}
+     *
+     * Check if the enclosing returnstatement is in a method with return type int.
+     *
+     * @param context
+     * @return true if type is declared as int
+     */
+    private boolean isReturningIntegerInMethodExpectingInteger(DetectorContext context) {
+        return context.getMethodOfEnclosingReturn().map(methodDeclaration -> methodDeclaration.getType().asString().equals("int")).orElse(false);
+    }
+}
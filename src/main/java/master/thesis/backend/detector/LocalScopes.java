@@ -0,0 +1,231 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.PatternExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.TryStmt;
+import com.github.javaparser.ast.type.Type;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds the declaration of a name from the declarations in the code, without the symbol solver.
+ *
+ * Every method, constructor, initializer and lambda gets a table of its parameters and local variables the first
+ * time a name inside it is looked up. A declaration is visible from a name when the name is inside the scope of
+ * the declaration and after it. Going out of a class, the fields of the class are looked at.
+ *
+ * The lookup gives up, so the symbol solver can decide, as soon as the answer is not certain: when a name is
+ * declared twice, when the declared type is not written out, or when a class may inherit a field with the name.
+ */
+final class LocalScopes {
+
+    private final IdentityHashMap<Node, Map<String, List<LocalDeclaration>>> tables = new IdentityHashMap<>();
+
+    /**
+     *
+     * @param name to look up
+     * @return empty if the symbol solver is needed, else the declared type of the name
+     */
+    Optional<Type> declaredTypeOf(NameExpr name) {
+        if (!name.getRange().isPresent()) {
+            return Optional.empty();
+        }
+        Position usedAt = name.getRange().get().begin;
+        String identifier = name.getNameAsString();
+        Set<Node> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+        ancestors.add(name);
+        Node child = name;
+        while (child.getParentNode().isPresent()) {
+            Node node = child.getParentNode().get();
+            ancestors.add(node);
+            if (isCallable(node)) {
+                List<LocalDeclaration> visible = new ArrayList<>();
+                for (LocalDeclaration declaration : tableOf(node).getOrDefault(identifier, Collections.emptyList())) {
+                    if (declaration.isVisibleAt(usedAt, ancestors)) {
+                        visible.add(declaration);
+                    }
+                }
+                if (visible.size() == 1) {
+                    return Optional.ofNullable(visible.get(0).type);
+                }
+                if (visible.size() > 1) {
+                    return Optional.empty();
+                }
+            }
+            else if (node instanceof ClassOrInterfaceDeclaration) {
+                ClassOrInterfaceDeclaration declaration = (ClassOrInterfaceDeclaration) node;
+                Optional<Type> field = fieldTypeOf(identifier, declaration.getFields());
+                if (field.isPresent() || !declaration.getExtendedTypes().isEmpty() || !declaration.getImplementedTypes().isEmpty()) {
+                    return field;
+                }
+            }
+            else if (node instanceof TypeDeclaration) {
+                // Enums, records and annotations have members that are not declared as fields.
+                return Optional.empty();
+            }
+            else if (node instanceof ObjectCreationExpr && child instanceof BodyDeclaration) {
+                // Anonymous classes always inherit from another type.
+                return Optional.empty();
+            }
+            child = node;
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Type> fieldTypeOf(String identifier, List<FieldDeclaration> fields) {
+        for (FieldDeclaration field : fields) {
+            for (VariableDeclarator variable : field.getVariables()) {
+                if (variable.getNameAsString().equals(identifier)) {
+                    return Optional.of(variable.getType());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isCallable(Node node) {
+        return node instanceof CallableDeclaration || node instanceof LambdaExpr || node instanceof InitializerDeclaration;
+    }
+
+    private Map<String, List<LocalDeclaration>> tableOf(Node callable) {
+        Map<String, List<LocalDeclaration>> table = tables.get(callable);
+        if (table == null) {
+            table = new HashMap<>();
+            List<Parameter> parameters = Collections.emptyList();
+            if (callable instanceof CallableDeclaration) {
+                parameters = ((CallableDeclaration<?>) callable).getParameters();
+            }
+            else if (callable instanceof LambdaExpr) {
+                parameters = ((LambdaExpr) callable).getParameters();
+            }
+            for (Parameter parameter : parameters) {
+                add(table, parameter.getNameAsString(), typeOf(parameter), callable, null, Collections.emptyList());
+            }
+            collect(callable, callable, table);
+            tables.put(callable, table);
+        }
+        return table;
+    }
+
+    /**
+     * Collect the local variables declared inside the node, but not inside nested lambdas and classes, which get
+     * their own tables.
+     */
+    private void collect(Node node, Node callable, Map<String, List<LocalDeclaration>> table) {
+        for (Node child : node.getChildNodes()) {
+            if (child instanceof LambdaExpr || child instanceof BodyDeclaration) {
+                continue;
+            }
+            if (child instanceof VariableDeclarationExpr) {
+                addLocalVariables((VariableDeclarationExpr) child, table);
+            }
+            else if (child instanceof CatchClause) {
+                Parameter parameter = ((CatchClause) child).getParameter();
+                add(table, parameter.getNameAsString(), typeOf(parameter), child, null, Collections.emptyList());
+            }
+            else if (child instanceof PatternExpr) {
+                // The scope of a pattern variable follows the flow of the code, so let the symbol solver decide.
+                add(table, ((PatternExpr) child).getNameAsString(), null, callable, null, Collections.emptyList());
+            }
+            collect(child, callable, table);
+        }
+    }
+
+    private void addLocalVariables(VariableDeclarationExpr expression, Map<String, List<LocalDeclaration>> table) {
+        if (!expression.getParentNode().isPresent()) {
+            return;
+        }
+        Node scope = expression.getParentNode().get();
+        List<Node> excluded = Collections.emptyList();
+        if (scope instanceof ExpressionStmt && scope.getParentNode().isPresent()) {
+            scope = scope.getParentNode().get();
+            if (scope instanceof SwitchEntry && scope.getParentNode().isPresent()) {
+                scope = scope.getParentNode().get();
+            }
+        }
+        else if (scope instanceof TryStmt) {
+            TryStmt tryStmt = (TryStmt) scope;
+            excluded = new ArrayList<>(tryStmt.getCatchClauses());
+            tryStmt.getFinallyBlock().ifPresent(excluded::add);
+        }
+        else if (scope instanceof ForEachStmt) {
+            excluded = Collections.singletonList(((ForEachStmt) scope).getIterable());
+        }
+        for (VariableDeclarator variable : expression.getVariables()) {
+            Position declaredAt = variable.getRange().map(range -> range.begin).orElse(null);
+            Type type = declaredAt == null ? null : variable.getType();
+            add(table, variable.getNameAsString(), type, scope, declaredAt, excluded);
+        }
+    }
+
+    private Type typeOf(Parameter parameter) {
+        if (parameter.isVarArgs()) {
+            return null;
+        }
+        return parameter.getType();
+    }
+
+    private void add(Map<String, List<LocalDeclaration>> table, String name, Type type, Node scope, Position declaredAt, List<Node> excluded) {
+        table.computeIfAbsent(name, key -> new ArrayList<>()).add(new LocalDeclaration(type, scope, declaredAt, excluded));
+    }
+
+    /**
+     * A parameter or local variable. The type is null when it is not known without the symbol solver.
+     */
+    private static class LocalDeclaration {
+
+        private final Type type;
+        private final Node scope;
+        private final Position declaredAt;
+        private final List<Node> excluded;
+
+        LocalDeclaration(Type type, Node scope, Position declaredAt, List<Node> excluded) {
+            this.type = type;
+            this.scope = scope;
+            this.declaredAt = declaredAt;
+            this.excluded = excluded;
+        }
+
+        /**
+         *
+         * @param usedAt where the name is used
+         * @param ancestors of the name and the name itself, up to the callable of this declaration
+         * @return true if the name can mean this declaration
+         */
+        boolean isVisibleAt(Position usedAt, Set<Node> ancestors) {
+            if (!ancestors.contains(scope)) {
+                return false;
+            }
+            for (Node node : excluded) {
+                if (ancestors.contains(node)) {
+                    return false;
+                }
+            }
+            return declaredAt == null || declaredAt.isBefore(usedAt);
+        }
+    }
+}
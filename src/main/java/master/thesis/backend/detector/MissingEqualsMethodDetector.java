@@ -0,0 +1,61 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.MissingEqualsMethodError;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Finds classes not implementing the equals method.
+ *
+ * Ignored for interfaces and abstract classes. The class of the error is the declared class itself, not the
+ * class enclosing it.
+ */
+public class MissingEqualsMethodDetector implements Detector {
+
+    @Override
+    public ErrorKind getKind() {
+        return ErrorKind.MISSING_EQUALS_METHOD;
+    }
+
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(ClassOrInterfaceDeclaration.class);
+    }
+
+    @Override
+    public boolean requiresSymbolResolution() {
+        return false;
+    }
+
+    /**
+     * Go through method declarations to find an equals method.
+     * If not found, add a {@link MissingEqualsMethodError}.
+     *
+     * @param node the class declaration
+     * @param context
+     */
+    @Override
+    public void check(Node node, DetectorContext context) {
+        ClassOrInterfaceDeclaration declaration = (ClassOrInterfaceDeclaration) node;
+        boolean classHasEqualsMethod = false;
+
+        for (Node child : declaration.getChildNodes()) {
+            if (child instanceof MethodDeclaration) {
+                MethodDeclaration equalsMethodCandidate = (MethodDeclaration) child;
+                if (equalsMethodCandidate.getNameAsString().equals("equals")) {
+                    classHasEqualsMethod = true;
+                }
+            }
+        }
+        if (!classHasEqualsMethod && !declaration.isInterface() && !declaration.isAbstract()) {
+            MissingEqualsMethodError missingEqualsMethodError = new MissingEqualsMethodError();
+            missingEqualsMethodError.setContainingClass(declaration.getNameAsString());
+            context.report(missingEqualsMethodError);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+
+/**
+ * Helpers for the detectors.
+ */
+final class Nodes {
+
+    private Nodes() {}
+
+    /**
+     * Find the linenumber for the errors.
+     * @param node
+     * @return -1 if not found, else the line number of the node
+     */
+    static int lineNumberOf(Node node) {
+        int lineNumber = -1;
+        if (node.getRange().isPresent()) {
+            lineNumber = node.getRange().get().begin.line;
+        }
+        return lineNumber;
+    }
+}
@@ -0,0 +1,49 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.stmt.IfStmt;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.SemiColonAfterIfError;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Finds a semicolon after if statement:
+ *      if (something); {}
+ */
+public class SemiColonAfterIfDetector implements Detector {
+
+    @Override
+    public ErrorKind getKind() {
+        return ErrorKind.SEMICOLON_AFTER_IF;
+    }
+
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(IfStmt.class);
+    }
+
+    @Override
+    public boolean requiresSymbolResolution() {
+        return false;
+    }
+
+    /**
+     * Check if the if-statment has empty statement as body. If so, add {@link SemiColonAfterIfError}.
+     *
+     * @param node the if-statement
+     * @param context
+     */
+    @Override
+    public void check(Node node, DetectorContext context) {
+        IfStmt statement = (IfStmt) node;
+        if (statement.getThenStmt().isEmptyStmt()) {
+            SemiColonAfterIfError semiColonAfterIfError = new SemiColonAfterIfError();
+            semiColonAfterIfError.setContainingClass(context.getContainingClass().orElse(""));
+            semiColonAfterIfError.setLineNumber(Nodes.lineNumberOf(statement));
+            semiColonAfterIfError.setCondition(statement.getCondition()::toString);
+            context.report(semiColonAfterIfError);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.PrimitiveType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.TypeParameter;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Types that are known from the syntax alone: primitives, and a few well-known classes of java.lang.
+ */
+final class SyntacticTypes {
+
+    private static final Set<String> WELL_KNOWN_JAVA_LANG_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "Object", "String", "StringBuilder", "CharSequence", "Number",
+            "Integer", "Long", "Short", "Byte", "Character", "Boolean", "Double", "Float")));
+
+    private SyntacticTypes() {}
+
+    /**
+     * A java.lang type is shadowed by a type with the same simple name declared in the code, a type parameter
+     * or a single-type import.
+     *
+     * @param compilationUnit
+     * @return the simple names that may not mean a java.lang type in the compilation unit
+     */
+    static Set<String> shadowedNamesIn(CompilationUnit compilationUnit) {
+        Set<String> shadowedNames = new HashSet<>();
+        for (TypeDeclaration<?> declaration : compilationUnit.findAll(TypeDeclaration.class)) {
+            shadowedNames.add(declaration.getNameAsString());
+        }
+        for (TypeParameter typeParameter : compilationUnit.findAll(TypeParameter.class)) {
+            shadowedNames.add(typeParameter.getNameAsString());
+        }
+        for (ImportDeclaration importDeclaration : compilationUnit.getImports()) {
+            if (!importDeclaration.isAsterisk()) {
+                shadowedNames.add(importDeclaration.getName().getIdentifier());
+            }
+        }
+        return shadowedNames;
+    }
+
+    /**
+     *
+     * @param type as written in the code
+     * @param shadowedNames see {@link #shadowedNamesIn(CompilationUnit)}
+     * @return empty if the symbol solver is needed to know the type, else the type
+     */
+    static Optional<ValueType> typeOf(Type type, Set<String> shadowedNames) {
+        if (type.isPrimitiveType()) {
+            return Optional.of(ValueType.primitive(primitiveOf(type.asPrimitiveType())));
+        }
+        if (type.isArrayType()) {
+            ArrayType arrayType = type.asArrayType();
+            return typeOf(arrayType.getComponentType(), shadowedNames).map(component -> ValueType.array(component.getName() + "[]"));
+        }
+        if (type.isClassOrInterfaceType()) {
+            ClassOrInterfaceType classType = type.asClassOrInterfaceType();
+            String name = classType.getNameAsString();
+            if (classType.getTypeArguments().isPresent() || !WELL_KNOWN_JAVA_LANG_TYPES.contains(name)) {
+                return Optional.empty();
+            }
+            if (classType.getScope().isPresent()) {
+                if (classType.getScope().get().asString().equals("java.lang")) {
+                    return Optional.of(ValueType.reference("java.lang." + name));
+                }
+                return Optional.empty();
+            }
+            if (!shadowedNames.contains(name)) {
+                return Optional.of(ValueType.reference("java.lang." + name));
+            }
+        }
+        return Optional.empty();
+    }
+
+    static ResolvedPrimitiveType primitiveOf(PrimitiveType type) {
+        switch (type.getType()) {
+            case BOOLEAN:
+                return ResolvedPrimitiveType.BOOLEAN;
+            case CHAR:
+                return ResolvedPrimitiveType.CHAR;
+            case BYTE:
+                return ResolvedPrimitiveType.BYTE;
+            case SHORT:
+                return ResolvedPrimitiveType.SHORT;
+            case INT:
+                return ResolvedPrimitiveType.INT;
+            case LONG:
+                return ResolvedPrimitiveType.LONG;
+            case FLOAT:
+                return ResolvedPrimitiveType.FLOAT;
+            default:
+                return ResolvedPrimitiveType.DOUBLE;
+        }
+    }
+}
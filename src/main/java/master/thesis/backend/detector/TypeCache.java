@@ -0,0 +1,323 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.DoubleLiteralExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import com.github.javaparser.ast.expr.VariableDeclarationExpr;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Finds types for the detectors, at most once per node in an analysis. Every type is looked for in three tiers:
+ *
+ *  {@link Tier#SYNTAX}: literals, null, casts, operators and the well-known types of java.lang.
+ *  {@link Tier#SCOPE}: names of parameters, local variables and fields declared with such types, see {@link LocalScopes}.
+ *  {@link Tier#SOLVER}: the symbol solver, when the other tiers can not answer.
+ *
+ * The type of a binary expression on primitives is found from the types of its operands, which are already in
+ * the cache when the operands have been visited. Long chains like a + b + c + d are then typed once
+ * per node, instead of resolving the whole chain again for every enclosing expression.
+ *
+ * Failed resolutions are remembered as well. The exception from the first try is thrown again, so an
+ * unresolved symbol is only looked for once.
+ */
+public class TypeCache {
+
+    /**
+     * Where a type was found.
+     */
+    public enum Tier {
+        SYNTAX,
+        SCOPE,
+        SOLVER
+    }
+
+    private final IdentityHashMap<Node, ValueType> resolvedTypes = new IdentityHashMap<>();
+    private final IdentityHashMap<Node, RuntimeException> failures = new IdentityHashMap<>();
+    private final IdentityHashMap<Node, Set<String>> shadowedNamesPerCompilationUnit = new IdentityHashMap<>();
+    private final EnumMap<Tier, Integer> lookups = new EnumMap<>(Tier.class);
+    private final LocalScopes scopes = new LocalScopes();
+    private int solverFailures = 0;
+    private boolean timed = false;
+    private long solverNanos = 0;
+
+    /**
+     *
+     * @param expression
+     * @return the type of the expression
+     * @throws com.github.javaparser.resolution.UnsolvedSymbolException if a symbol in the expression is not resolved
+     */
+    public ValueType typeOf(Expression expression) {
+        if (expression.isEnclosedExpr()) {
+            return typeOf(expression.asEnclosedExpr().getInner());
+        }
+        return resolve(expression, () -> {
+            Optional<ValueType> type = syntacticTypeOf(expression);
+            if (type.isPresent()) {
+                return served(Tier.SYNTAX, type.get());
+            }
+            if (expression.isNameExpr()) {
+                type = scopes.declaredTypeOf(expression.asNameExpr()).flatMap(declaredType -> typeOf(declaredType, expression));
+                if (type.isPresent()) {
+                    return served(Tier.SCOPE, type.get());
+                }
+            }
+            return solved(expression::calculateResolvedType);
+        });
+    }
+
+    /**
+     *
+     * @param methodCall
+     * @return the return type of the called method
+     * @throws com.github.javaparser.resolution.UnsolvedSymbolException if the method is not resolved
+     */
+    public ValueType returnTypeOf(MethodCallExpr methodCall) {
+        return resolve(methodCall, () -> {
+            return solved(() -> methodCall.resolve().getReturnType());
+        });
+    }
+
+    /**
+     *
+     * @param field
+     * @return the type of the first variable declared by the field
+     * @throws com.github.javaparser.resolution.UnsolvedSymbolException if the type is not resolved
+     */
+    public ValueType typeOf(FieldDeclaration field) {
+        return resolve(field, () -> {
+            Optional<ValueType> type = typeOf(field.getVariables().get(0).getType(), field);
+            if (type.isPresent()) {
+                return served(Tier.SYNTAX, type.get());
+            }
+            return solved(() -> field.getVariables().get(0).resolve().getType());
+        });
+    }
+
+    /**
+     *
+     * @param tier
+     * @return how many types have been looked for in the tier. Types found in the cache are not counted.
+     */
+    public int getLookups(Tier tier) {
+        return lookups.getOrDefault(tier, 0);
+    }
+
+    /**
+     *
+     * @return how many types the symbol solver could not find
+     */
+    public int getSolverFailures() {
+        return solverFailures;
+    }
+
+    /**
+     *
+     * @param timed true to measure the time spent in the symbol solver, see {@link #getSolverTime()}
+     */
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     *
+     * @return the time spent in the symbol solver, zero if not timed
+     */
+    public Duration getSolverTime() {
+        return Duration.ofNanos(solverNanos);
+    }
+
+    /**
+     * The tier is decided by the expression itself. The types of its operands are looked up on their own.
+     *
+     * @param expression
+     * @return empty if the expression does not decide its type from syntax alone
+     */
+    private Optional<ValueType> syntacticTypeOf(Expression expression) {
+        if (expression.isIntegerLiteralExpr()) {
+            return Optional.of(ValueType.primitive(ResolvedPrimitiveType.INT));
+        }
+        if (expression.isCharLiteralExpr()) {
+            return Optional.of(ValueType.primitive(ResolvedPrimitiveType.CHAR));
+        }
+        if (expression.isLongLiteralExpr()) {
+            return Optional.of(ValueType.primitive(ResolvedPrimitiveType.LONG));
+        }
+        if (expression.isDoubleLiteralExpr()) {
+            return Optional.of(ValueType.primitive(typeOfDoubleLiteral(expression.asDoubleLiteralExpr())));
+        }
+        if (expression.isBooleanLiteralExpr() || expression.isInstanceOfExpr()) {
+            return Optional.of(ValueType.primitive(ResolvedPrimitiveType.BOOLEAN));
+        }
+        if (expression.isNullLiteralExpr()) {
+            return Optional.of(ValueType.NULL);
+        }
+        if (expression.isStringLiteralExpr() || expression.isTextBlockLiteralExpr()) {
+            return Optional.of(ValueType.STRING);
+        }
+        if (expression.isCastExpr()) {
+            return typeOf(expression.asCastExpr().getType(), expression);
+        }
+        if (expression.isVariableDeclarationExpr()) {
+            VariableDeclarationExpr declaration = expression.asVariableDeclarationExpr();
+            if (declaration.getVariables().size() == 1) {
+                return typeOf(declaration.getVariables().get(0).getType(), expression);
+            }
+        }
+        if (expression.isUnaryExpr()) {
+            return typeOfUnaryExpr(expression.asUnaryExpr());
+        }
+        if (expression.isBinaryExpr()) {
+            return typeOfBinaryExpr(expression.asBinaryExpr());
+        }
+        return Optional.empty();
+    }
+
+    private ResolvedPrimitiveType typeOfDoubleLiteral(DoubleLiteralExpr literal) {
+        String value = literal.getValue();
+        if (value.endsWith("f") || value.endsWith("F")) {
+            return ResolvedPrimitiveType.FLOAT;
+        }
+        return ResolvedPrimitiveType.DOUBLE;
+    }
+
+    private Optional<ValueType> typeOfUnaryExpr(UnaryExpr expression) {
+        if (expression.getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+            return Optional.of(ValueType.primitive(ResolvedPrimitiveType.BOOLEAN));
+        }
+        ValueType operand = typeOf(expression.getExpression());
+        if (!operand.isPrimitive() || !operand.asPrimitive().isNumeric()) {
+            return Optional.empty();
+        }
+        switch (expression.getOperator()) {
+            case PLUS:
+            case MINUS:
+                // Unary numeric promotion, like the symbol solver
+                return Optional.of(ValueType.primitive(operand.asPrimitive().bnp(ResolvedPrimitiveType.INT)));
+            default:
+                // The symbol solver gives the type of the operand for ~, ++ and --
+                return Optional.of(operand);
+        }
+    }
+
+    /**
+     * Use the types of the operands when the operator and the operands decide the type.
+     * Else, for example when using boxed types, let the symbol solver decide.
+     */
+    private Optional<ValueType> typeOfBinaryExpr(BinaryExpr expression) {
+        switch (expression.getOperator()) {
+            case OR:
+            case AND:
+            case EQUALS:
+            case NOT_EQUALS:
+            case LESS:
+            case GREATER:
+            case LESS_EQUALS:
+            case GREATER_EQUALS:
+                return Optional.of(ValueType.primitive(ResolvedPrimitiveType.BOOLEAN));
+            case BINARY_AND:
+            case BINARY_OR:
+            case XOR:
+            case PLUS:
+            case MINUS:
+            case MULTIPLY:
+            case DIVIDE:
+            case REMAINDER:
+                ValueType left = typeOf(expression.getLeft());
+                ValueType right = typeOf(expression.getRight());
+                if (left.isPrimitive() && right.isPrimitive()) {
+                    ResolvedPrimitiveType leftPrimitive = left.asPrimitive();
+                    ResolvedPrimitiveType rightPrimitive = right.asPrimitive();
+                    if (leftPrimitive.isNumeric() && rightPrimitive.isNumeric()) {
+                        return Optional.of(ValueType.primitive(leftPrimitive.bnp(rightPrimitive)));
+                    }
+                    if (leftPrimitive.isBoolean() && rightPrimitive.isBoolean() && isBitwise(expression.getOperator())) {
+                        return Optional.of(ValueType.primitive(ResolvedPrimitiveType.BOOLEAN));
+                    }
+                }
+                if (expression.getOperator() == BinaryExpr.Operator.PLUS && (left.equals(ValueType.STRING) || right.equals(ValueType.STRING))) {
+                    return Optional.of(ValueType.STRING);
+                }
+                break;
+            default:
+                break;
+        }
+        return Optional.empty();
+    }
+
+    private boolean isBitwise(BinaryExpr.Operator operator) {
+        return operator == BinaryExpr.Operator.BINARY_AND || operator == BinaryExpr.Operator.BINARY_OR || operator == BinaryExpr.Operator.XOR;
+    }
+
+    /**
+     *
+     * @param type as written in the code
+     * @param node where the type is written
+     * @return empty if the symbol solver is needed to know the type
+     */
+    private Optional<ValueType> typeOf(Type type, Node node) {
+        Optional<CompilationUnit> compilationUnit = node.findCompilationUnit();
+        Set<String> shadowedNames = Collections.emptySet();
+        if (compilationUnit.isPresent()) {
+            shadowedNames = shadowedNamesPerCompilationUnit.computeIfAbsent(compilationUnit.get(), unit -> SyntacticTypes.shadowedNamesIn((CompilationUnit) unit));
+        }
+        return SyntacticTypes.typeOf(type, shadowedNames);
+    }
+
+    private ValueType served(Tier tier, ValueType type) {
+        lookedUp(tier);
+        return type;
+    }
+
+    private ValueType solved(Supplier<ResolvedType> solver) {
+        lookedUp(Tier.SOLVER);
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            return ValueType.of(solver.get());
+        } catch (RuntimeException e) {
+            solverFailures++;
+            throw e;
+        } finally {
+            if (timed) {
+                solverNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private void lookedUp(Tier tier) {
+        lookups.merge(tier, 1, Integer::sum);
+    }
+
+    private ValueType resolve(Node node, Supplier<ValueType> resolver) {
+        ValueType type = resolvedTypes.get(node);
+        if (type != null) {
+            return type;
+        }
+        RuntimeException failure = failures.get(node);
+        if (failure != null) {
+            throw failure;
+        }
+        try {
+            type = resolver.get();
+        } catch (RuntimeException e) {
+            failures.put(node, e);
+            throw e;
+        }
+        resolvedTypes.put(node, type);
+        return type;
+    }
+}
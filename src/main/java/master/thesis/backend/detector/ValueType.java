@@ -0,0 +1,152 @@
+package master.thesis.backend.detector;
+
+import com.github.javaparser.resolution.types.ResolvedPrimitiveType;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+import java.util.Objects;
+
+/**
+ * The type of a value, as far as the detectors need to know it. It can be found from the syntax alone, from the
+ * declarations in the code, or from the symbol solver, see {@link TypeCache}.
+ */
+public final class ValueType {
+
+    public enum Category {
+        PRIMITIVE,
+        NULL,
+        ARRAY,
+        REFERENCE,
+        /**
+         * Void, type variables, wildcards and other types the detectors do not look at.
+         */
+        OTHER
+    }
+
+    public static final ValueType NULL = new ValueType(Category.NULL, null, "null");
+    public static final ValueType STRING = reference("java.lang.String");
+
+    private final Category category;
+    private final ResolvedPrimitiveType primitive;
+    private final String name;
+
+    private ValueType(Category category, ResolvedPrimitiveType primitive, String name) {
+        this.category = category;
+        this.primitive = primitive;
+        this.name = name;
+    }
+
+    public static ValueType primitive(ResolvedPrimitiveType primitive) {
+        return new ValueType(Category.PRIMITIVE, primitive, primitive.describe());
+    }
+
+    /**
+     *
+     * @param name of the array type, for example int[]
+     */
+    public static ValueType array(String name) {
+        return new ValueType(Category.ARRAY, null, name);
+    }
+
+    /**
+     *
+     * @param qualifiedName of the class or interface
+     */
+    public static ValueType reference(String qualifiedName) {
+        return new ValueType(Category.REFERENCE, null, qualifiedName);
+    }
+
+    /**
+     *
+     * @param type from the symbol solver
+     * @return the same type as a value type
+     */
+    public static ValueType of(ResolvedType type) {
+        if (type.isPrimitive()) {
+            return primitive(type.asPrimitive());
+        }
+        if (type.isNull()) {
+            return NULL;
+        }
+        if (type.isArray()) {
+            return array(type.describe());
+        }
+        if (type.isReferenceType()) {
+            return reference(type.asReferenceType().getQualifiedName());
+        }
+        return new ValueType(Category.OTHER, null, type.describe());
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public boolean isPrimitive() {
+        return category == Category.PRIMITIVE;
+    }
+
+    public boolean isNull() {
+        return category == Category.NULL;
+    }
+
+    public boolean isArray() {
+        return category == Category.ARRAY;
+    }
+
+    public boolean isReference() {
+        return category == Category.REFERENCE;
+    }
+
+    /**
+     *
+     * @return the primitive type
+     * @throws IllegalStateException if the type is not primitive
+     */
+    public ResolvedPrimitiveType asPrimitive() {
+        if (!isPrimitive()) {
+            throw new IllegalStateException(name + " is not a primitive type");
+        }
+        return primitive;
+    }
+
+    /**
+     *
+     * @return true if the type is the primitive int
+     */
+    public boolean isInt() {
+        return primitive == ResolvedPrimitiveType.INT;
+    }
+
+    /**
+     *
+     * @return true if the type is the primitive boolean
+     */
+    public boolean isBoolean() {
+        return primitive == ResolvedPrimitiveType.BOOLEAN;
+    }
+
+    /**
+     *
+     * @return the qualified name of the type
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ValueType valueType = (ValueType) o;
+        return category == valueType.category && name.equals(valueType.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(category, name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -5,7 +5,7 @@ import java.util.Optional;
 /**
  * The base error for all errors. All new errors should extend this class.
  */
-public abstract class BaseError {
+public abstract class BaseError implements Cloneable {
 
     private int lineNumber = -1;
     protected String containingClass = "";
@@ -60,4 +60,35 @@ public abstract class BaseError {
 
     public abstract String getName();
 
+    /**
+     *
+     * @return the kind of this error. Empty if the error is not one of the kinds in {@link ErrorKind}.
+     */
+    public Optional<ErrorKind> getKind() {
+        return ErrorKind.fromName(getName());
+    }
+
+    /**
+     * Ask for all the text that is given by suppliers, so the error only holds strings, numbers and flags.
+     * A supplier may hold on to the parsed code, which is much bigger than its text, so errors that are kept
+     * longer than their analysis should be rendered.
+     */
+    public void render() {}
+
+    /**
+     * The text of this error is rendered first, see {@link #render()}, so the copy shares nothing with this error
+     * that can be changed, and does not hold on to the parsed code. Used to keep an error longer than its
+     * analysis, like in a cache.
+     *
+     * @return a copy of this error
+     */
+    public BaseError copy() {
+        render();
+        try {
+            return (BaseError) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
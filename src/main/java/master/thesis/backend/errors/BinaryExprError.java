@@ -1,15 +1,37 @@
 package master.thesis.backend.errors;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
+/**
+ * The operands can be given as text, or as a supplier of the text that is only asked when the text is needed,
+ * for example by {@link #getSuggestion()}. Most reports are only read for the kind and line of their errors, so the
+ * operands are usually never printed.
+ *
+ * The getters can be called by several threads. The text is written before the supplier is cleared, and the supplier
+ * is volatile, so a thread that finds no supplier sees the text. Two threads may both ask the supplier, and get the
+ * same text.
+ */
 public class BinaryExprError extends BaseError {
 
-    String leftOperand;
+    private String leftOperand;
+    private volatile Supplier<String> leftOperandText;
     String operator;
-    String rightOperand;
+    private String rightOperand;
+    private volatile Supplier<String> rightOperandText;
 
     public void setLeftOperand(String leftOperand) {
         this.leftOperand = leftOperand;
+        this.leftOperandText = null;
+    }
+
+    /**
+     *
+     * @param leftOperandText gives the text of the left operand, asked at most once
+     */
+    public void setLeftOperand(Supplier<String> leftOperandText) {
+        this.leftOperand = null;
+        this.leftOperandText = leftOperandText;
     }
 
     public void setOperator(String operator) {
@@ -18,6 +40,44 @@ public class BinaryExprError extends BaseError {
 
     public void setRightOperand(String rightOperand) {
         this.rightOperand = rightOperand;
+        this.rightOperandText = null;
+    }
+
+    /**
+     *
+     * @param rightOperandText gives the text of the right operand, asked at most once
+     */
+    public void setRightOperand(Supplier<String> rightOperandText) {
+        this.rightOperand = null;
+        this.rightOperandText = rightOperandText;
+    }
+
+    public String getLeftOperand() {
+        Supplier<String> text = leftOperandText;
+        if (text != null) {
+            leftOperand = text.get();
+            leftOperandText = null;
+        }
+        return leftOperand;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public String getRightOperand() {
+        Supplier<String> text = rightOperandText;
+        if (text != null) {
+            rightOperand = text.get();
+            rightOperandText = null;
+        }
+        return rightOperand;
+    }
+
+    @Override
+    public void render() {
+        getLeftOperand();
+        getRightOperand();
     }
 
 
@@ -5,8 +5,8 @@ import java.util.Optional;
 public class BitwiseOperatorError extends BinaryExprError {
     @Override
     public Optional<String> getSuggestion() {
-        if (this.leftOperand != null && this.operator != null && this.rightOperand != null) {
-            return Optional.of("replacing " + this.operator + " with " + convertBitwiseOperatorToConditionalOperator(this.operator) + ": " + this.leftOperand + " " + convertBitwiseOperatorToConditionalOperator(this.operator) + " " + this.rightOperand);
+        if (getLeftOperand() != null && this.operator != null && getRightOperand() != null) {
+            return Optional.of("replacing " + this.operator + " with " + convertBitwiseOperatorToConditionalOperator(this.operator) + ": " + getLeftOperand() + " " + convertBitwiseOperatorToConditionalOperator(this.operator) + " " + getRightOperand());
         }
         return Optional.empty();
     }
@@ -34,6 +34,11 @@ public class BitwiseOperatorError extends BinaryExprError {
         return "BitwiseOperatorError";
     }
 
+    @Override
+    public Optional<ErrorKind> getKind() {
+        return Optional.of(ErrorKind.BITWISE_OPERATOR);
+    }
+
     private String convertBitwiseOperatorToConditionalOperator(String operator) {
         if ("&".equals(operator)) {
             return "&&";
@@ -1,5 +1,7 @@
 package master.thesis.backend.errors;
 
+import master.thesis.backend.analyser.AnalysisMetrics;
+
 import java.util.ArrayList;
 import java.util.Optional;
 
@@ -13,6 +15,8 @@ public class BugReport {
     private ArrayList<BaseError> bugs = new ArrayList<>();
     private Throwable exceptionFromJavaParser;
     private String className;
+    private boolean truncated = false;
+    private AnalysisMetrics metrics;
 
     public ArrayList<BaseError> getBugs() {
         return bugs;
@@ -42,4 +46,132 @@ public class BugReport {
     }
 
     public String getClassName() {return this.className;}
+
+    /**
+     * A report is truncated when the analysis reached a limit of its options before it was done, like a time
+     * limit or a maximum number of errors. The errors found before the limit are in the report.
+     *
+     * @return true if the analysis stopped before it was done
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    /**
+     *
+     * @return the metrics of the analysis, empty if they were not enabled, see
+     * {@link master.thesis.backend.analyser.AnalysisOptions#setMetricsEnabled(boolean)}
+     */
+    public Optional<AnalysisMetrics> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    public void setMetrics(AnalysisMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * A report that can not be changed, for example to share it between threads or keep it in a cache.
+     * {@link #getBugs()} of the snapshot gives copies of the errors every time.
+     *
+     * @return a snapshot of this report
+     */
+    public BugReport snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     *
+     * @return true if this report can not be changed
+     */
+    public boolean isSnapshot() {
+        return false;
+    }
+
+    private static class Snapshot extends BugReport {
+
+        private final ArrayList<BaseError> bugs = new ArrayList<>();
+        private final Throwable exception;
+        private final String className;
+        private final boolean truncated;
+        private final AnalysisMetrics metrics;
+
+        Snapshot(BugReport report) {
+            for (BaseError bug : report.getBugs()) {
+                bugs.add(bug.copy());
+            }
+            this.exception = report.getException().orElse(null);
+            this.className = report.getClassName();
+            this.truncated = report.isTruncated();
+            this.metrics = report.getMetrics().orElse(null);
+        }
+
+        @Override
+        public ArrayList<BaseError> getBugs() {
+            ArrayList<BaseError> copies = new ArrayList<>();
+            for (BaseError bug : bugs) {
+                copies.add(bug.copy());
+            }
+            return copies;
+        }
+
+        @Override
+        public void addBug(BaseError error) {
+            throw new UnsupportedOperationException("A snapshot of a report can not be changed");
+        }
+
+        @Override
+        public void attach(Throwable exceptionFromJavaParser) {
+            throw new UnsupportedOperationException("A snapshot of a report can not be changed");
+        }
+
+        @Override
+        public Optional<Throwable> getException() {
+            return Optional.ofNullable(exception);
+        }
+
+        @Override
+        public void setClassName(String className) {
+            throw new UnsupportedOperationException("A snapshot of a report can not be changed");
+        }
+
+        @Override
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void setTruncated(boolean truncated) {
+            throw new UnsupportedOperationException("A snapshot of a report can not be changed");
+        }
+
+        @Override
+        public Optional<AnalysisMetrics> getMetrics() {
+            return Optional.ofNullable(metrics);
+        }
+
+        @Override
+        public void setMetrics(AnalysisMetrics metrics) {
+            throw new UnsupportedOperationException("A snapshot of a report can not be changed");
+        }
+
+        @Override
+        public BugReport snapshot() {
+            return this;
+        }
+
+        @Override
+        public boolean isSnapshot() {
+            return true;
+        }
+    }
 }
@@ -8,17 +8,17 @@ public class EqualsOperatorError extends BinaryExprError {
 
     @Override
     public Optional<String> getSuggestion() {
-        if (this.leftOperand != null && this.rightOperand != null) {
+        if (getLeftOperand() != null && getRightOperand() != null) {
             if (isArray) {
                 if (this.operator.equals("!=")) {
-                    return Optional.of("!Arrays.equals(" + this.leftOperand + ", " + this.rightOperand + ")");
+                    return Optional.of("!Arrays.equals(" + getLeftOperand() + ", " + getRightOperand() + ")");
                 }
-                return Optional.of("Arrays.equals(" + this.leftOperand + ", " + this.rightOperand + ")");
+                return Optional.of("Arrays.equals(" + getLeftOperand() + ", " + getRightOperand() + ")");
             }
             if (this.operator.equals("!=")) {
-                return Optional.of("!" + this.leftOperand + ".equals(" + this.rightOperand + ")");
+                return Optional.of("!" + getLeftOperand() + ".equals(" + getRightOperand() + ")");
             }
-            return Optional.of(this.leftOperand + ".equals(" + this.rightOperand + ")");
+            return Optional.of(getLeftOperand() + ".equals(" + getRightOperand() + ")");
         }
         return Optional.empty();
     }
@@ -32,6 +32,14 @@ public class EqualsOperatorError extends BinaryExprError {
         this.isArray = true;
     }
 
+    /**
+     *
+     * @return true if the operands are arrays, and the suggestion uses Arrays.equals
+     */
+    public boolean hasArraysSuggestion() {
+        return isArray;
+    }
+
     @Override
     public String getCauseOfError() {
         if (this.operator.equals("!=")) {
@@ -50,4 +58,9 @@ public class EqualsOperatorError extends BinaryExprError {
         return "EqualsOperatorError";
     }
 
+    @Override
+    public Optional<ErrorKind> getKind() {
+        return Optional.of(ErrorKind.EQUALS_OPERATOR);
+    }
+
 }
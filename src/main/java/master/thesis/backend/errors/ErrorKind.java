@@ -0,0 +1,69 @@
+package master.thesis.backend.errors;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * The kinds of errors the analyser can find. Used to ignore errors without creating them first.
+ */
+public enum ErrorKind {
+
+    BITWISE_OPERATOR("BitwiseOperatorError"),
+    EQUALS_OPERATOR("EqualsOperatorError"),
+    IF_WITHOUT_BRACKETS("IfWithoutBracketsError"),
+    INTEGER_DIVISION("IntegerDivisionError"),
+    MISSING_EQUALS_METHOD("MissingEqualsMethodError"),
+    SEMICOLON_AFTER_IF("SemiColonAfterIfError");
+
+    private static final HashMap<String, ErrorKind> fromName = new HashMap<>();
+
+    static {
+        for (ErrorKind kind : values()) {
+            fromName.put(kind.name, kind);
+        }
+    }
+
+    private final String name;
+
+    ErrorKind(String name) {
+        this.name = name;
+    }
+
+    /**
+     *
+     * @return the name of the errors of this kind, the same as {@link BaseError#getName()}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return a new error of this kind, without line number or containing class
+     */
+    public BaseError newError() {
+        switch (this) {
+            case BITWISE_OPERATOR:
+                return new BitwiseOperatorError();
+            case EQUALS_OPERATOR:
+                return new EqualsOperatorError();
+            case IF_WITHOUT_BRACKETS:
+                return new IfWithoutBracketsError();
+            case INTEGER_DIVISION:
+                return new IntegerDivisionError();
+            case MISSING_EQUALS_METHOD:
+                return new MissingEqualsMethodError();
+            default:
+                return new SemiColonAfterIfError();
+        }
+    }
+
+    /**
+     *
+     * @param name of an error, see {@link BaseError#getName()}
+     * @return empty if no kind has the given name, else the kind
+     */
+    public static Optional<ErrorKind> fromName(String name) {
+        return Optional.ofNullable(fromName.get(name));
+    }
+}
@@ -1,18 +1,69 @@
 package master.thesis.backend.errors;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
+/**
+ * The condition and the then branch can be given as text, or as a supplier of the text that is only asked when
+ * the text is needed, and the getters can be called by several threads, see {@link BinaryExprError}.
+ */
 public class IfStatementError extends BaseError {
 
-    String condition;
-    String thenBranch;
+    private String condition;
+    private volatile Supplier<String> conditionText;
+    private String thenBranch;
+    private volatile Supplier<String> thenBranchText;
 
     public void setCondition(String condition) {
         this.condition = condition;
+        this.conditionText = null;
+    }
+
+    /**
+     *
+     * @param conditionText gives the text of the condition, asked at most once
+     */
+    public void setCondition(Supplier<String> conditionText) {
+        this.condition = null;
+        this.conditionText = conditionText;
     }
 
     public void setThenBranch(String thenBranch) {
         this.thenBranch = thenBranch;
+        this.thenBranchText = null;
+    }
+
+    /**
+     *
+     * @param thenBranchText gives the text of the then branch, asked at most once
+     */
+    public void setThenBranch(Supplier<String> thenBranchText) {
+        this.thenBranch = null;
+        this.thenBranchText = thenBranchText;
+    }
+
+    public String getCondition() {
+        Supplier<String> text = conditionText;
+        if (text != null) {
+            condition = text.get();
+            conditionText = null;
+        }
+        return condition;
+    }
+
+    public String getThenBranch() {
+        Supplier<String> text = thenBranchText;
+        if (text != null) {
+            thenBranch = text.get();
+            thenBranchText = null;
+        }
+        return thenBranch;
+    }
+
+    @Override
+    public void render() {
+        getCondition();
+        getThenBranch();
     }
 
     @Override
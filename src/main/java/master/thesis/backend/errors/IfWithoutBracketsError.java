@@ -6,9 +6,9 @@ public class IfWithoutBracketsError extends IfStatementError {
 
     @Override
     public Optional<String> getSuggestion() {
-        if (this.condition != null && this.thenBranch != null) {
-            return Optional.of("if ("+ this.condition + ")" + " {"
-                    + this.thenBranch + "..."
+        if (getCondition() != null && getThenBranch() != null) {
+            return Optional.of("if ("+ getCondition() + ")" + " {"
+                    + getThenBranch() + "..."
                     + "}");
         }
         return Optional.empty();
@@ -33,4 +33,9 @@ public class IfWithoutBracketsError extends IfStatementError {
     public String getName() {
         return "IfWithoutBracketsError";
     }
+
+    @Override
+    public Optional<ErrorKind> getKind() {
+        return Optional.of(ErrorKind.IF_WITHOUT_BRACKETS);
+    }
 }
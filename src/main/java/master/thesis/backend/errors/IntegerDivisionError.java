@@ -6,8 +6,8 @@ public class IntegerDivisionError extends BinaryExprError {
 
     @Override
     public Optional<String> getSuggestion() {
-        if (this.leftOperand != null && this.rightOperand != null) {
-            return Optional.of("(double)" + this.leftOperand + "/" + "(double)" + this.rightOperand);
+        if (getLeftOperand() != null && getRightOperand() != null) {
+            return Optional.of("(double)" + getLeftOperand() + "/" + "(double)" + getRightOperand());
         }
         return Optional.empty();
     }
@@ -32,4 +32,9 @@ public class IntegerDivisionError extends BinaryExprError {
         return "IntegerDivisionError";
     }
 
+    @Override
+    public Optional<ErrorKind> getKind() {
+        return Optional.of(ErrorKind.INTEGER_DIVISION);
+    }
+
 }
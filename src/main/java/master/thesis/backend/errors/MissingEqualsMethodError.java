@@ -29,4 +29,9 @@ public class MissingEqualsMethodError extends BaseError {
         return "MissingEqualsMethodError";
     }
 
+    @Override
+    public Optional<ErrorKind> getKind() {
+        return Optional.of(ErrorKind.MISSING_EQUALS_METHOD);
+    }
+
 }
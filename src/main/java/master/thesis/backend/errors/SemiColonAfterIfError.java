@@ -5,8 +5,8 @@ public class SemiColonAfterIfError extends IfStatementError {
 
     @Override
     public Optional<String> getSuggestion() {
-        if (this.condition != null) {
-            return Optional.of("to remove the semicolon after the if-condition: if (" + this.condition + ") { // The rest of your code }");
+        if (getCondition() != null) {
+            return Optional.of("to remove the semicolon after the if-condition: if (" + getCondition() + ") { // The rest of your code }");
         }
         return Optional.empty();
     }
@@ -30,4 +30,9 @@ public class SemiColonAfterIfError extends IfStatementError {
     public String getName() {
         return "SemiColonAfterIfError";
     }
+
+    @Override
+    public Optional<ErrorKind> getKind() {
+        return Optional.of(ErrorKind.SEMICOLON_AFTER_IF);
+    }
 }
@@ -0,0 +1,327 @@
+package master.thesis.backend.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the values of a JSON document in UTF-8 one at a time, for {@link ReportJson}. Only what reports need is
+ * supported: numbers are read as int, and other numbers are only skipped. Bytes are only decoded inside strings,
+ * and a string without escapes that is all in the buffer is decoded at once.
+ */
+class JsonReader {
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int position = 0;
+    private int limit = 0;
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * True after the first value of an object or array, until the end of it.
+     */
+    private boolean expectsComma = false;
+
+    JsonReader(InputStream in) {
+        this.in = in;
+    }
+
+    void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        expectsComma = false;
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+        expectsComma = true;
+    }
+
+    void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        expectsComma = false;
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+        expectsComma = true;
+    }
+
+    /**
+     *
+     * @return true if the object or array has another member
+     */
+    boolean hasNext() throws IOException {
+        char next = peek();
+        return next != '}' && next != ']';
+    }
+
+    String nextName() throws IOException {
+        beforeValue();
+        String name = readString();
+        expect(':');
+        expectsComma = false;
+        return name;
+    }
+
+    /**
+     *
+     * @return the string, or null if the value is null
+     */
+    String nextString() throws IOException {
+        if (nextNull()) {
+            return null;
+        }
+        beforeValue();
+        String value = readString();
+        expectsComma = true;
+        return value;
+    }
+
+    boolean nextBoolean() throws IOException {
+        beforeValue();
+        boolean value;
+        if (peek() == 't') {
+            expectWord("true");
+            value = true;
+        } else {
+            expectWord("false");
+            value = false;
+        }
+        expectsComma = true;
+        return value;
+    }
+
+    int nextInt() throws IOException {
+        beforeValue();
+        text.setLength(0);
+        while (isPartOfNumber(peek())) {
+            text.append(read());
+        }
+        expectsComma = true;
+        try {
+            return Integer.parseInt(text.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected an int, was " + text);
+        }
+    }
+
+    /**
+     *
+     * @return true if the value is null, and it has been read. False if the value is something else, and it has
+     * not been read.
+     */
+    boolean nextNull() throws IOException {
+        beforeValue();
+        if (peek() != 'n') {
+            return false;
+        }
+        expectWord("null");
+        expectsComma = true;
+        return true;
+    }
+
+    void skipValue() throws IOException {
+        beforeValue();
+        char next = peek();
+        if (next == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (next == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (next == '"') {
+            readString();
+            expectsComma = true;
+        } else if (next == 't' || next == 'f') {
+            nextBoolean();
+        } else if (next == 'n') {
+            nextNull();
+        } else {
+            while (isPartOfNumber(peek())) {
+                read();
+            }
+            expectsComma = true;
+        }
+    }
+
+    private static boolean isPartOfNumber(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    /**
+     * Reads the comma between this value and the previous one, if there is one.
+     */
+    private void beforeValue() throws IOException {
+        if (expectsComma) {
+            expect(',');
+            expectsComma = false;
+        }
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        for (int end = position; end < limit; end++) {
+            byte b = buffer[end];
+            if (b == '"') {
+                String value = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+                position = end + 1;
+                return value;
+            }
+            if (b == '\\') {
+                break;
+            }
+        }
+        text.setLength(0);
+        while (true) {
+            int b = readByte();
+            if (b == '"') {
+                return text.toString();
+            }
+            if (b >= 0x80) {
+                readUtf8(b);
+                continue;
+            }
+            if (b != '\\') {
+                text.append((char) b);
+                continue;
+            }
+            char escaped = read();
+            switch (escaped) {
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Invalid unicode escape in JSON string");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                    break;
+                default:
+                    text.append(escaped);
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of a char that is more than one byte in UTF-8. Invalid bytes are read as U+FFFD.
+     *
+     * @param first byte of the char
+     */
+    private void readUtf8(int first) throws IOException {
+        int following;
+        int codePoint;
+        if ((first & 0xE0) == 0xC0) {
+            following = 1;
+            codePoint = first & 0x1F;
+        } else if ((first & 0xF0) == 0xE0) {
+            following = 2;
+            codePoint = first & 0x0F;
+        } else if ((first & 0xF8) == 0xF0) {
+            following = 3;
+            codePoint = first & 0x07;
+        } else {
+            text.append('\uFFFD');
+            return;
+        }
+        for (int i = 0; i < following; i++) {
+            int next = peekByte();
+            if ((next & 0xC0) != 0x80) {
+                text.append('\uFFFD');
+                return;
+            }
+            position++;
+            codePoint = (codePoint << 6) | (next & 0x3F);
+        }
+        if (Character.isValidCodePoint(codePoint)) {
+            text.appendCodePoint(codePoint);
+        } else {
+            text.append('\uFFFD');
+        }
+    }
+
+    private void expectWord(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (read() != word.charAt(i)) {
+                throw new IllegalArgumentException("Expected " + word + " in JSON");
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        char actual = peek();
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' in JSON, was '" + actual + "'");
+        }
+        position++;
+    }
+
+    /**
+     *
+     * @return the next char that is not whitespace, without reading it
+     */
+    private char peek() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            char c = (char) buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    private char read() throws IOException {
+        return (char) readByte();
+    }
+
+    private int readByte() throws IOException {
+        int next = peekByte();
+        position++;
+        return next;
+    }
+
+    private int peekByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new IllegalArgumentException("Unexpected end of JSON");
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
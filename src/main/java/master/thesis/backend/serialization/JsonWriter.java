@@ -0,0 +1,134 @@
+package master.thesis.backend.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes JSON for {@link ReportJson} as UTF-8 into a buffer, without a {@link java.io.Writer} and its encoder in
+ * between. Names and other text given to {@link #writeAscii(String)} must be ASCII and need no escapes.
+ */
+class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    /**
+     * The most bytes one char can be written as, an escape like \u0001.
+     */
+    private static final int MAX_BYTES_PER_CHAR = 6;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private int position = 0;
+
+    JsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    void writeAscii(String text) throws IOException {
+        int length = text.length();
+        if (length > buffer.length - position) {
+            flushBuffer();
+        }
+        if (length > buffer.length) {
+            for (int i = 0; i < length; i++) {
+                writeAscii(text.charAt(i));
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    void writeAscii(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) c;
+    }
+
+    void writeBoolean(boolean value) throws IOException {
+        writeAscii(value ? "true" : "false");
+    }
+
+    void writeInt(int value) throws IOException {
+        writeAscii(Integer.toString(value));
+    }
+
+    /**
+     * Writes the value in quotes with the chars JSON needs escaped, or null. A surrogate without its pair is
+     * written as '?', like {@link String#getBytes(java.nio.charset.Charset)} does.
+     */
+    void writeString(String value) throws IOException {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeAscii('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.length - position < MAX_BYTES_PER_CHAR) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[position++] = '\\';
+                }
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                writeEscaped(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = '?';
+            }
+        }
+        writeAscii('"');
+    }
+
+    private void writeEscaped(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '\n':
+                buffer[position++] = 'n';
+                break;
+            case '\r':
+                buffer[position++] = 'r';
+                break;
+            case '\t':
+                buffer[position++] = 't';
+                break;
+            default:
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+        }
+    }
+
+    /**
+     * Writes what is buffered and flushes the stream.
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
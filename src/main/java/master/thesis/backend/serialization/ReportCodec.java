@@ -0,0 +1,239 @@
+package master.thesis.backend.serialization;
+
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BinaryExprError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.EqualsOperatorError;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.IfStatementError;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compact binary form of a {@link BugReport}. See {@link ReportJson} for a JSON form.
+ *
+ * Only errors with an {@link ErrorKind} can be written. An attached exception is read back as a
+ * {@link SerializedException} with the class name and message of the original.
+ */
+public final class ReportCodec {
+
+    private static final int FORMAT = 2;
+    private static final int FORMAT_WITHOUT_FLAGS = 1;
+    private static final int TRUNCATED = 1;
+
+    private ReportCodec() {}
+
+    /**
+     *
+     * @param report to write
+     * @return true if every error in the report has an {@link ErrorKind}
+     */
+    public static boolean canEncode(BugReport report) {
+        for (BaseError error : report.getBugs()) {
+            if (!error.getKind().isPresent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @param report to write
+     * @return the report as bytes
+     * @throws IllegalArgumentException if an error in the report has no {@link ErrorKind}
+     */
+    public static byte[] encode(BugReport report) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(report, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     *
+     * @param report to write
+     * @param out to write to
+     * @throws IllegalArgumentException if an error in the report has no {@link ErrorKind}
+     * @throws IOException if writing fails
+     */
+    public static void write(BugReport report, DataOutputStream out) throws IOException {
+        out.writeByte(FORMAT);
+        out.writeByte(report.isTruncated() ? TRUNCATED : 0);
+        writeString(report.getClassName(), out);
+        Throwable exception = report.getException().orElse(null);
+        out.writeBoolean(exception != null);
+        if (exception != null) {
+            String className = exception instanceof SerializedException ? ((SerializedException) exception).getOriginalClassName() : exception.getClass().getName();
+            writeString(className, out);
+            writeString(exception.getMessage(), out);
+        }
+        out.writeInt(report.getBugs().size());
+        for (BaseError error : report.getBugs()) {
+            ErrorKind kind = error.getKind().orElseThrow(() -> new IllegalArgumentException("Can not write error without kind: " + error.getName()));
+            writeString(kind.getName(), out);
+            writeString(error.getContainingClass(), out);
+            out.writeInt(error.getLineNumber());
+            if (error instanceof BinaryExprError) {
+                BinaryExprError binaryExprError = (BinaryExprError) error;
+                writeString(binaryExprError.getLeftOperand(), out);
+                writeString(binaryExprError.getOperator(), out);
+                writeString(binaryExprError.getRightOperand(), out);
+            }
+            if (error instanceof EqualsOperatorError) {
+                out.writeBoolean(((EqualsOperatorError) error).hasArraysSuggestion());
+            }
+            if (error instanceof IfStatementError) {
+                IfStatementError ifStatementError = (IfStatementError) error;
+                writeString(ifStatementError.getCondition(), out);
+                writeString(ifStatementError.getThenBranch(), out);
+            }
+        }
+    }
+
+    /**
+     * The stream is flushed, but not closed.
+     *
+     * @param report to write
+     * @param out to write to
+     * @throws IllegalArgumentException if an error in the report has no {@link ErrorKind}
+     * @throws IOException if writing fails
+     */
+    public static void write(BugReport report, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        write(report, data);
+        data.flush();
+    }
+
+    /**
+     * The channel is not closed.
+     *
+     * @param report to write
+     * @param channel to write to
+     * @throws IllegalArgumentException if an error in the report has no {@link ErrorKind}
+     * @throws IOException if writing fails
+     */
+    public static void write(BugReport report, WritableByteChannel channel) throws IOException {
+        write(report, Channels.newOutputStream(channel));
+    }
+
+    /**
+     *
+     * @param bytes from {@link #encode(BugReport)}
+     * @return the report
+     * @throws IllegalArgumentException if the bytes are not a report
+     */
+    public static BugReport decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return read(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a report", e);
+        }
+    }
+
+    /**
+     *
+     * @param in to read from, positioned at a report written by {@link #write(BugReport, DataOutputStream)}
+     * @return the report
+     * @throws IllegalArgumentException if the bytes are not a report
+     * @throws IOException if reading fails
+     */
+    public static BugReport read(DataInputStream in) throws IOException {
+        int format = in.readUnsignedByte();
+        if (format != FORMAT && format != FORMAT_WITHOUT_FLAGS) {
+            throw new IllegalArgumentException("Unknown report format " + format);
+        }
+        BugReport report = new BugReport();
+        if (format == FORMAT) {
+            report.setTruncated((in.readUnsignedByte() & TRUNCATED) != 0);
+        }
+        report.setClassName(readString(in));
+        if (in.readBoolean()) {
+            String className = readString(in);
+            report.attach(new SerializedException(className, readString(in)));
+        }
+        int numberOfErrors = in.readInt();
+        for (int i = 0; i < numberOfErrors; i++) {
+            String name = readString(in);
+            ErrorKind kind = ErrorKind.fromName(name).orElseThrow(() -> new IllegalArgumentException("Unknown error " + name));
+            BaseError error = kind.newError();
+            error.setContainingClass(readString(in));
+            error.setLineNumber(in.readInt());
+            if (error instanceof BinaryExprError) {
+                BinaryExprError binaryExprError = (BinaryExprError) error;
+                binaryExprError.setLeftOperand(readString(in));
+                binaryExprError.setOperator(readString(in));
+                binaryExprError.setRightOperand(readString(in));
+            }
+            if (error instanceof EqualsOperatorError && in.readBoolean()) {
+                ((EqualsOperatorError) error).setArraysSuggestion();
+            }
+            if (error instanceof IfStatementError) {
+                IfStatementError ifStatementError = (IfStatementError) error;
+                ifStatementError.setCondition(readString(in));
+                ifStatementError.setThenBranch(readString(in));
+            }
+            report.addBug(error);
+        }
+        return report;
+    }
+
+    /**
+     * Reads no further than the end of the report, so more can be read from the stream after it.
+     *
+     * @param in to read from, positioned at a report
+     * @return the report
+     * @throws IllegalArgumentException if the bytes are not a report
+     * @throws IOException if reading fails
+     */
+    public static BugReport read(InputStream in) throws IOException {
+        return read(new DataInputStream(in));
+    }
+
+    /**
+     * Reads no further than the end of the report, see {@link #read(InputStream)}.
+     *
+     * @param channel to read from, positioned at a report
+     * @return the report
+     * @throws IllegalArgumentException if the bytes are not a report
+     * @throws IOException if reading fails
+     */
+    public static BugReport read(ReadableByteChannel channel) throws IOException {
+        return read(Channels.newInputStream(channel));
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
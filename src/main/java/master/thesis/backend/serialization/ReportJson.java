@@ -0,0 +1,388 @@
+package master.thesis.backend.serialization;
+
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BinaryExprError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.EqualsOperatorError;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.IfStatementError;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JSON form of a {@link BugReport}, written and read as a stream without reflection.
+ *
+ * <pre>
+ * {"className":"A","truncated":false,"exception":null,"bugs":[
+ *   {"name":"EqualsOperatorError","kind":"EQUALS_OPERATOR","containingClass":"A","lineNumber":3,
+ *    "leftOperand":"a","operator":"==","rightOperand":"b","arraysSuggestion":false,
+ *    "causeOfError":"...","suggestion":"a.equals(b)","tip":null,"moreInfoLink":"..."}]}
+ * </pre>
+ *
+ * The texts of an error, like the suggestion, are written for the reader of the JSON, and are made again from the
+ * other fields when the report is read. Errors without an {@link ErrorKind} are written, but can not be read.
+ * An attached exception is read back as a {@link SerializedException}.
+ *
+ * Many reports are written as a JSON array, and the codes of a batch as an array of strings.
+ */
+public final class ReportJson {
+
+    private ReportJson() {}
+
+    /**
+     *
+     * @param report to write
+     * @return the report as JSON
+     */
+    public static String toJson(BugReport report) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try {
+            write(report, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the report as UTF-8. The stream is flushed, but not closed.
+     *
+     * @param report to write
+     * @param out to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(BugReport report, OutputStream out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        write(report, json);
+        json.flush();
+    }
+
+    /**
+     * Writes the reports as a JSON array in UTF-8. The stream is flushed, but not closed.
+     *
+     * @param reports to write
+     * @param out to write to
+     * @throws IOException if writing fails
+     */
+    public static void writeAll(List<BugReport> reports, OutputStream out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.writeAscii('[');
+        for (int i = 0; i < reports.size(); i++) {
+            if (i > 0) {
+                json.writeAscii(',');
+            }
+            write(reports.get(i), json);
+        }
+        json.writeAscii(']');
+        json.flush();
+    }
+
+    /**
+     * Writes the codes as a JSON array of strings in UTF-8, for {@link #readSources(InputStream)}. The stream is
+     * flushed, but not closed.
+     *
+     * @param codes to write
+     * @param out to write to
+     * @throws IOException if writing fails
+     */
+    public static void writeSources(List<String> codes, OutputStream out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.writeAscii('[');
+        for (int i = 0; i < codes.size(); i++) {
+            if (i > 0) {
+                json.writeAscii(',');
+            }
+            json.writeString(codes.get(i));
+        }
+        json.writeAscii(']');
+        json.flush();
+    }
+
+    private static void write(BugReport report, JsonWriter json) throws IOException {
+        json.writeAscii("{\"className\":");
+        json.writeString(report.getClassName());
+        json.writeAscii(",\"truncated\":");
+        json.writeBoolean(report.isTruncated());
+        json.writeAscii(",\"exception\":");
+        Throwable exception = report.getException().orElse(null);
+        if (exception == null) {
+            json.writeAscii("null");
+        } else {
+            json.writeAscii("{\"className\":");
+            json.writeString(exception instanceof SerializedException ? ((SerializedException) exception).getOriginalClassName() : exception.getClass().getName());
+            json.writeAscii(",\"message\":");
+            json.writeString(exception.getMessage());
+            json.writeAscii('}');
+        }
+        json.writeAscii(",\"bugs\":[");
+        boolean first = true;
+        for (BaseError error : report.getBugs()) {
+            if (!first) {
+                json.writeAscii(',');
+            }
+            first = false;
+            writeError(error, json);
+        }
+        json.writeAscii("]}");
+    }
+
+    /**
+     * Writes the report as UTF-8. The channel is not closed.
+     *
+     * @param report to write
+     * @param channel to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(BugReport report, WritableByteChannel channel) throws IOException {
+        write(report, Channels.newOutputStream(channel));
+    }
+
+    private static void writeError(BaseError error, JsonWriter json) throws IOException {
+        json.writeAscii("{\"name\":");
+        json.writeString(error.getName());
+        json.writeAscii(",\"kind\":");
+        json.writeString(error.getKind().map(Enum::name).orElse(null));
+        json.writeAscii(",\"containingClass\":");
+        json.writeString(error.getContainingClass());
+        json.writeAscii(",\"lineNumber\":");
+        json.writeInt(error.getLineNumber());
+        if (error instanceof BinaryExprError) {
+            BinaryExprError binaryExprError = (BinaryExprError) error;
+            json.writeAscii(",\"leftOperand\":");
+            json.writeString(binaryExprError.getLeftOperand());
+            json.writeAscii(",\"operator\":");
+            json.writeString(binaryExprError.getOperator());
+            json.writeAscii(",\"rightOperand\":");
+            json.writeString(binaryExprError.getRightOperand());
+        }
+        if (error instanceof EqualsOperatorError) {
+            json.writeAscii(",\"arraysSuggestion\":");
+            json.writeBoolean(((EqualsOperatorError) error).hasArraysSuggestion());
+        }
+        if (error instanceof IfStatementError) {
+            IfStatementError ifStatementError = (IfStatementError) error;
+            json.writeAscii(",\"condition\":");
+            json.writeString(ifStatementError.getCondition());
+            json.writeAscii(",\"thenBranch\":");
+            json.writeString(ifStatementError.getThenBranch());
+        }
+        json.writeAscii(",\"causeOfError\":");
+        json.writeString(error.getCauseOfError());
+        json.writeAscii(",\"suggestion\":");
+        json.writeString(error.getSuggestion().orElse(null));
+        json.writeAscii(",\"tip\":");
+        json.writeString(error.getTip().orElse(null));
+        json.writeAscii(",\"moreInfoLink\":");
+        json.writeString(error.getMoreInfoLink().orElse(null));
+        json.writeAscii('}');
+    }
+
+    /**
+     *
+     * @param json a report written by {@link #write(BugReport, OutputStream)}
+     * @return the report
+     * @throws IllegalArgumentException if the JSON is not a report
+     */
+    public static BugReport fromJson(String json) {
+        try {
+            return read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a report in UTF-8. Fields are read in any order, and unknown fields are skipped. The stream is not
+     * closed, but may be read past the end of the report.
+     *
+     * @param in to read from
+     * @return the report
+     * @throws IllegalArgumentException if the JSON is not a report
+     * @throws IOException if reading fails
+     */
+    public static BugReport read(InputStream in) throws IOException {
+        return read(new JsonReader(in));
+    }
+
+    /**
+     * Reads a JSON array of reports in UTF-8, see {@link #read(InputStream)}.
+     *
+     * @param in to read from
+     * @return the reports, in the same order as in the array
+     * @throws IllegalArgumentException if the JSON is not an array of reports
+     * @throws IOException if reading fails
+     */
+    public static List<BugReport> readAll(InputStream in) throws IOException {
+        JsonReader json = new JsonReader(in);
+        List<BugReport> reports = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            reports.add(read(json));
+        }
+        json.endArray();
+        return reports;
+    }
+
+    /**
+     * Reads a JSON array of strings in UTF-8, like the codes written by {@link #writeSources(List, OutputStream)}.
+     *
+     * @param in to read from
+     * @return the strings, in the same order as in the array
+     * @throws IllegalArgumentException if the JSON is not an array of strings
+     * @throws IOException if reading fails
+     */
+    public static List<String> readSources(InputStream in) throws IOException {
+        JsonReader json = new JsonReader(in);
+        List<String> codes = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            String code = json.nextString();
+            if (code == null) {
+                throw new IllegalArgumentException("Expected a string in JSON, was null");
+            }
+            codes.add(code);
+        }
+        json.endArray();
+        return codes;
+    }
+
+    private static BugReport read(JsonReader json) throws IOException {
+        BugReport report = new BugReport();
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "className":
+                    report.setClassName(json.nextString());
+                    break;
+                case "truncated":
+                    report.setTruncated(json.nextBoolean());
+                    break;
+                case "exception":
+                    if (!json.nextNull()) {
+                        report.attach(readException(json));
+                    }
+                    break;
+                case "bugs":
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        report.addBug(readError(json));
+                    }
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return report;
+    }
+
+    /**
+     * Reads a report in UTF-8, see {@link #read(InputStream)}.
+     *
+     * @param channel to read from
+     * @return the report
+     * @throws IllegalArgumentException if the JSON is not a report
+     * @throws IOException if reading fails
+     */
+    public static BugReport read(ReadableByteChannel channel) throws IOException {
+        return read(Channels.newInputStream(channel));
+    }
+
+    private static SerializedException readException(JsonReader json) throws IOException {
+        String className = null;
+        String message = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (name.equals("className")) {
+                className = json.nextString();
+            } else if (name.equals("message")) {
+                message = json.nextString();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return new SerializedException(className, message);
+    }
+
+    private static BaseError readError(JsonReader json) throws IOException {
+        String errorName = null;
+        String containingClass = "";
+        int lineNumber = -1;
+        String leftOperand = null;
+        String operator = null;
+        String rightOperand = null;
+        boolean arraysSuggestion = false;
+        String condition = null;
+        String thenBranch = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "name":
+                    errorName = json.nextString();
+                    break;
+                case "containingClass":
+                    containingClass = json.nextString();
+                    break;
+                case "lineNumber":
+                    lineNumber = json.nextInt();
+                    break;
+                case "leftOperand":
+                    leftOperand = json.nextString();
+                    break;
+                case "operator":
+                    operator = json.nextString();
+                    break;
+                case "rightOperand":
+                    rightOperand = json.nextString();
+                    break;
+                case "arraysSuggestion":
+                    arraysSuggestion = json.nextBoolean();
+                    break;
+                case "condition":
+                    condition = json.nextString();
+                    break;
+                case "thenBranch":
+                    thenBranch = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        String nameOfError = errorName;
+        BaseError error = ErrorKind.fromName(nameOfError).orElseThrow(() -> new IllegalArgumentException("Unknown error " + nameOfError)).newError();
+        error.setContainingClass(containingClass);
+        error.setLineNumber(lineNumber);
+        if (error instanceof BinaryExprError) {
+            BinaryExprError binaryExprError = (BinaryExprError) error;
+            binaryExprError.setLeftOperand(leftOperand);
+            binaryExprError.setOperator(operator);
+            binaryExprError.setRightOperand(rightOperand);
+        }
+        if (error instanceof EqualsOperatorError && arraysSuggestion) {
+            ((EqualsOperatorError) error).setArraysSuggestion();
+        }
+        if (error instanceof IfStatementError) {
+            IfStatementError ifStatementError = (IfStatementError) error;
+            ifStatementError.setCondition(condition);
+            ifStatementError.setThenBranch(thenBranch);
+        }
+        return error;
+    }
+}
@@ -0,0 +1,31 @@
+package master.thesis.backend.serialization;
+
+/**
+ * An exception attached to a report that has been serialized. Only the class name and the message of the original
+ * exception are kept.
+ */
+public class SerializedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String originalClassName;
+
+    public SerializedException(String originalClassName, String message) {
+        super(message, null, false, false);
+        this.originalClassName = originalClassName;
+    }
+
+    /**
+     *
+     * @return the class name of the exception that was attached when the report was serialized
+     */
+    public String getOriginalClassName() {
+        return originalClassName;
+    }
+
+    @Override
+    public String toString() {
+        String message = getLocalizedMessage();
+        return message != null ? originalClassName + ": " + message : originalClassName;
+    }
+}
@@ -0,0 +1,194 @@
+package master.thesis.backend.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.serialization.ReportJson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves analyses over HTTP from one analyser, on the HTTP server of the JDK.
+ *
+ * <ul>
+ *     <li>POST /analyse with the code in UTF-8 as body gives the report as JSON, see {@link ReportJson}.</li>
+ *     <li>POST /analyse/batch with a JSON array of codes gives a JSON array of the reports, in the same order.
+ *     The codes are analysed in parallel with {@link Analyser#analyseAll(java.util.Iterator, int)}.</li>
+ * </ul>
+ *
+ * A body that is not valid gives 400, and a body bigger than the maximum request size gives 413. The analyser is
+ * initialized before the server listens, see {@link Analyser#initialize()}, so the first request is not slow.
+ *
+ * Every response has a content length, so HTTP/1.1 clients can send many requests on the same connection. How long
+ * an idle connection is kept open is set with the system property sun.net.httpserver.idleInterval, in seconds.
+ */
+public class AnalysisServer implements Closeable {
+
+    public static final String ANALYSE_PATH = "/analyse";
+    public static final String BATCH_PATH = "/analyse/batch";
+    public static final int DEFAULT_MAX_REQUEST_SIZE = 16 * 1024 * 1024;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private final Analyser analyser;
+    private final HttpServer server;
+    private final ExecutorService ownExecutor;
+    private final int maxRequestSize;
+
+    private AnalysisServer(Analyser analyser, HttpServer server, ExecutorService ownExecutor, int maxRequestSize) {
+        this.analyser = analyser;
+        this.server = server;
+        this.ownExecutor = ownExecutor;
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    /**
+     * Start serving on a thread for each available processor, with the default maximum request size.
+     *
+     * @param analyser to analyse with
+     * @param address to listen on, port 0 for any free port
+     * @return the started server
+     * @throws IOException if the server can not listen on the address
+     */
+    public static AnalysisServer start(Analyser analyser, InetSocketAddress address) throws IOException {
+        return start(analyser, address, null, DEFAULT_MAX_REQUEST_SIZE);
+    }
+
+    /**
+     *
+     * @param analyser to analyse with
+     * @param address to listen on, port 0 for any free port
+     * @param executor to handle the requests on, or null for a thread for each available processor. The executor is
+     *                 not shut down when the server is closed.
+     * @param maxRequestSize the biggest body of a request, in bytes
+     * @return the started server
+     * @throws IOException if the server can not listen on the address
+     */
+    public static AnalysisServer start(Analyser analyser, InetSocketAddress address, Executor executor, int maxRequestSize) throws IOException {
+        if (maxRequestSize < 1) {
+            throw new IllegalArgumentException("Max request size must be positive, was " + maxRequestSize);
+        }
+        analyser.initialize();
+        ExecutorService ownExecutor = null;
+        if (executor == null) {
+            ownExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "analysis-server-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor = ownExecutor;
+        }
+        HttpServer server = HttpServer.create(address, 0);
+        AnalysisServer analysisServer = new AnalysisServer(analyser, server, ownExecutor, maxRequestSize);
+        server.createContext(ANALYSE_PATH, analysisServer::analyse);
+        server.createContext(BATCH_PATH, analysisServer::analyseBatch);
+        server.setExecutor(executor);
+        server.start();
+        return analysisServer;
+    }
+
+    /**
+     *
+     * @return the address the server listens on, with the port that was chosen if port 0 was asked for
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops listening, and waits up to a second for the requests that are being handled.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    private void analyse(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = readBody(exchange, ANALYSE_PATH);
+            if (body == null) {
+                return;
+            }
+            BugReport report = analyser.analyse(new String(body, StandardCharsets.UTF_8));
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            ReportJson.write(report, json);
+            respond(exchange, 200, "application/json; charset=utf-8", json.toByteArray());
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "text/plain; charset=utf-8", String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void analyseBatch(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = readBody(exchange, BATCH_PATH);
+            if (body == null) {
+                return;
+            }
+            List<String> codes;
+            try {
+                codes = ReportJson.readSources(new ByteArrayInputStream(body));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, "text/plain; charset=utf-8", ("Expected a JSON array of codes: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            int numberOfWorkers = Math.max(1, Math.min(codes.size(), Runtime.getRuntime().availableProcessors()));
+            List<BugReport> reports = analyser.analyseAll(codes.iterator(), numberOfWorkers);
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            ReportJson.writeAll(reports, json);
+            respond(exchange, 200, "application/json; charset=utf-8", json.toByteArray());
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "text/plain; charset=utf-8", String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads the whole body, so the connection can be used for the next request.
+     *
+     * @return the body, or null if the request was not for the path or not a POST, or too big, and has been
+     * responded to
+     */
+    private byte[] readBody(HttpExchange exchange, String path) throws IOException {
+        if (!exchange.getRequestURI().getPath().equals(path)) {
+            respond(exchange, 404, "text/plain; charset=utf-8", "Not found".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }
+        if (!exchange.getRequestMethod().equals("POST")) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, 405, "text/plain; charset=utf-8", "Use POST".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }
+        InputStream in = exchange.getRequestBody();
+        byte[] body = in.readNBytes(maxRequestSize);
+        if (in.read() != -1) {
+            exchange.getResponseHeaders().set("Connection", "close");
+            respond(exchange, 413, "text/plain; charset=utf-8", ("The biggest request is " + maxRequestSize + " bytes").getBytes(StandardCharsets.UTF_8));
+            return null;
+        }
+        return body;
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
@@ -0,0 +1,92 @@
+package master.thesis.backend.solver;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+/**
+ * The type solver of an analyser. Types are looked for in the {@link TypeOverlay} the current thread uses, see
+ * {@link #use(TypeOverlay)}, and then in a {@link JdkTypeSolver} shared by all analyses.
+ *
+ * The solver lives as long as the analyser, and the overlay of an analysis is only known to the thread doing it.
+ * JavaParser keeps a facade for every type solver it has seen, so a new type solver for every analysis would never
+ * be freed.
+ */
+public class AnalysisTypeSolver implements TypeSolver {
+
+    private final JdkTypeSolver jdkTypeSolver;
+    private final ThreadLocal<TypeOverlay> overlays = new ThreadLocal<>();
+    private TypeSolver parent;
+
+    /**
+     *
+     * @param jdkTypeSolver to find the types of the JDK with
+     */
+    public AnalysisTypeSolver(JdkTypeSolver jdkTypeSolver) {
+        this.jdkTypeSolver = jdkTypeSolver;
+    }
+
+    /**
+     * Find the types of the overlay on the current thread, until the scope is closed. Scopes can be nested, and
+     * closing a scope goes back to the overlay used before it.
+     *
+     * @param overlay with the types of the analysed code
+     * @return the scope to close when the analysis is done
+     */
+    public Scope use(TypeOverlay overlay) {
+        Scope scope = new Scope(overlays.get());
+        overlays.set(overlay);
+        return scope;
+    }
+
+    /**
+     *
+     * @return the solver of the types of the JDK
+     */
+    public JdkTypeSolver getJdkTypeSolver() {
+        return jdkTypeSolver;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        TypeOverlay overlay = overlays.get();
+        if (overlay != null) {
+            SymbolReference<ResolvedReferenceTypeDeclaration> type = overlay.tryToSolveType(name);
+            if (type.isSolved()) {
+                return type;
+            }
+        }
+        return jdkTypeSolver.tryToSolveType(name);
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * The use of an overlay on one thread, see {@link #use(TypeOverlay)}.
+     */
+    public class Scope implements AutoCloseable {
+
+        private final TypeOverlay previous;
+
+        private Scope(TypeOverlay previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                overlays.remove();
+            } else {
+                overlays.set(previous);
+            }
+        }
+    }
+}
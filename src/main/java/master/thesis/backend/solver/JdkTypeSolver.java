@@ -0,0 +1,183 @@
+package master.thesis.backend.solver;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The types of the JDK, found by reflection. Can be shared by many threads and analysers, see {@link #getShared()},
+ * so that a type like java.lang.String is only looked up once for all analyses.
+ *
+ * Only names in java and javax are looked up. The types that are found, and the names that are not found, are kept
+ * in a bounded cache. When there are more than the maximum number of entries, the least recently used entries are
+ * evicted.
+ *
+ * The declarations of the JDK resolve the types they refer to with this solver, so it has no parent, and a parent
+ * that is set is ignored.
+ */
+public class JdkTypeSolver implements TypeSolver {
+
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private static final JdkTypeSolver shared = new JdkTypeSolver(DEFAULT_MAX_ENTRIES);
+
+    private final ReflectionTypeSolver reflectionTypeSolver = new ReflectionTypeSolver();
+    private final int maxEntries;
+    private final LinkedHashMap<String, SymbolReference<ResolvedReferenceTypeDeclaration>> types = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     *
+     * @param maxEntries the maximum number of names to keep
+     */
+    public JdkTypeSolver(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The cache must have room for at least one entry");
+        }
+        this.maxEntries = maxEntries;
+        this.reflectionTypeSolver.setParent(this);
+    }
+
+    /**
+     *
+     * @return the solver used by every {@link master.thesis.backend.analyser.Analyser} that is not given its own,
+     * with room for {@link #DEFAULT_MAX_ENTRIES}
+     */
+    public static JdkTypeSolver getShared() {
+        return shared;
+    }
+
+    /**
+     *
+     * @param name qualified name of a type
+     * @return true if the name is in java or javax
+     */
+    public static boolean isJdkType(String name) {
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+
+    /**
+     * Look for the type in the cache, or by reflection. The reflection is not done while holding the lock of the
+     * cache, so two threads missing the same name at the same time both look it up.
+     *
+     * @param name qualified name of the type
+     * @return the type, or unsolved if it is not in the JDK
+     */
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        if (!isJdkType(name)) {
+            return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+        }
+        synchronized (this) {
+            SymbolReference<ResolvedReferenceTypeDeclaration> type = types.get(name);
+            if (type != null) {
+                hits++;
+                return type;
+            }
+            misses++;
+        }
+        SymbolReference<ResolvedReferenceTypeDeclaration> type = reflectionTypeSolver.tryToSolveType(name);
+        synchronized (this) {
+            types.put(name, type);
+            evict();
+        }
+        return type;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, SymbolReference<ResolvedReferenceTypeDeclaration>>> leastRecentlyUsed = types.entrySet().iterator();
+        while (types.size() > maxEntries && leastRecentlyUsed.hasNext()) {
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            evictions++;
+        }
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return null;
+    }
+
+    /**
+     * The parent is ignored, so the solver can be put in a
+     * {@link com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver}, or in many of them
+     * when it is shared. The types of the JDK do not depend on other types, so they are solved the same way with
+     * any parent.
+     *
+     * @param parent ignored
+     */
+    @Override
+    public void setParent(TypeSolver parent) {
+        // The solver stays its own root
+    }
+
+    /**
+     * Remove all entries. The statistics are kept.
+     */
+    public synchronized void clear() {
+        types.clear();
+    }
+
+    /**
+     *
+     * @return the statistics of the cache now
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, types.size());
+    }
+
+    /**
+     * The statistics of the cache of a {@link JdkTypeSolver} at one point in time.
+     */
+    public static class Statistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+
+        Statistics(long hits, long misses, long evictions, int entries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        /**
+         *
+         * @return the share of lookups that were hits, 0 if there were no lookups
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", entries=" + entries;
+        }
+    }
+}
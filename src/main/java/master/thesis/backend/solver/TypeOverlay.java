@@ -0,0 +1,60 @@
+package master.thesis.backend.solver;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The types declared in the analysed code, for an {@link AnalysisTypeSolver}. An overlay belongs to one analysis,
+ * and is thrown away with it, so the types of one analysis are never found by another.
+ *
+ * Types are found by their qualified name, and are resolved the first time they are looked for. An overlay can be
+ * used by many threads.
+ */
+public class TypeOverlay {
+
+    private final ConcurrentHashMap<String, TypeDeclaration<?>> declarations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ResolvedReferenceTypeDeclaration> resolvedTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Add the types declared in the compilation unit, and the types nested in them. When two types have the same
+     * name, the first one is kept. The compilation unit must be parsed with a symbol resolver that uses the
+     * {@link AnalysisTypeSolver} the overlay is used with.
+     *
+     * @param compilationUnit to add the types of
+     */
+    public void addTypes(CompilationUnit compilationUnit) {
+        for (TypeDeclaration<?> type : compilationUnit.getTypes()) {
+            addType(type);
+        }
+    }
+
+    private void addType(TypeDeclaration<?> type) {
+        type.getFullyQualifiedName().ifPresent(name -> declarations.putIfAbsent(name, type));
+        for (BodyDeclaration<?> member : type.getMembers()) {
+            if (member.isTypeDeclaration()) {
+                addType(member.asTypeDeclaration());
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the number of types in the overlay
+     */
+    public int size() {
+        return declarations.size();
+    }
+
+    SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        TypeDeclaration<?> declaration = declarations.get(name);
+        if (declaration == null) {
+            return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+        }
+        return SymbolReference.solved(resolvedTypes.computeIfAbsent(name, ignored -> declaration.resolve()));
+    }
+}
@@ -0,0 +1,586 @@
+package master.thesis.backend.store;
+
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.serialization.ReportCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * A store of reports in a file, that is kept between restarts and can be shared by many processes on the same host.
+ *
+ * The file is only appended to. It is mapped when it is opened, and the records appended after that are read from
+ * the channel, so the file is not mapped again every time it grows. Every record has a CRC, so a record that was
+ * not completely written, for example when a process crashed, is found and skipped. Appending takes an exclusive
+ * lock on the file, and reading records added by other processes takes a shared lock.
+ *
+ * Reports already indexed are read in parallel, under the read lock of the index. The index is only locked for
+ * writing while new records are indexed, and the lock on the file is taken before it, so a thread waiting for
+ * another process never blocks the threads that read.
+ *
+ * When the file grows bigger than the maximum size, it is compacted: the newest records, up to half of the
+ * maximum size, are written to a new file that replaces the old one with an atomic rename. The old file is marked
+ * as retired, so other processes open the new file the next time they use the store.
+ *
+ * File format: a header of 16 bytes (magic, format, retired flag, reserved), then records of a record magic,
+ * the length of the payload, the CRC32 of the payload and the payload. The payload is the key and the report,
+ * see {@link ReportCodec}.
+ */
+public class ReportStore implements Closeable {
+
+    private static final int FILE_MAGIC = 0x4D544252;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RETIRED_OFFSET = 8;
+    private static final int RECORD_MAGIC = 0x52455054;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final long MAX_SIZE_LIMIT = 1L << 30;
+
+    /**
+     * File locks are held by the process, so threads and stores in this process take turns on the same file.
+     */
+    private static final ConcurrentHashMap<Path, Object> locksInThisProcess = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final long maxSize;
+    private final Object lockInThisProcess;
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final HashMap<String, Long> offsets = new HashMap<>();
+    private volatile FileChannel channel;
+    private MappedByteBuffer mapped;
+    private volatile long scannedUpTo;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder corruptRecords = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private ReportStore(Path path, long maxSize) {
+        this.path = path;
+        this.maxSize = maxSize;
+        this.lockInThisProcess = locksInThisProcess.computeIfAbsent(path, key -> new Object());
+    }
+
+    /**
+     * Open the store in the file, and create the file if it does not exist.
+     *
+     * @param path of the file
+     * @param maxSize in bytes the file may grow to before it is compacted, at most 1 GB
+     * @return the store
+     * @throws IOException if the file can not be opened, or is not a store
+     */
+    public static ReportStore open(Path path, long maxSize) throws IOException {
+        if (maxSize < HEADER_SIZE * 2 || maxSize > MAX_SIZE_LIMIT) {
+            throw new IllegalArgumentException("Max size must be between " + HEADER_SIZE * 2 + " and " + MAX_SIZE_LIMIT + " bytes, was " + maxSize);
+        }
+        ReportStore store = new ReportStore(path.toAbsolutePath().normalize(), maxSize);
+        store.openFile();
+        return store;
+    }
+
+    /**
+     *
+     * @param key of the report, for example the hash of the source and the version of the analyser
+     * @return empty if the report is not in the store, or can not be read. Else the report.
+     */
+    public Optional<BugReport> get(String key) {
+        try {
+            byte[] report = readIndexedReport(key);
+            if (report == null && (isMappingRetired() || hasRecordsNotIndexed())) {
+                synchronized (lockInThisProcess) {
+                    reopenIfRetired();
+                    readRecordsOfOtherProcesses();
+                }
+                report = readIndexedReport(key);
+            }
+            if (report == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            BugReport decoded = ReportCodec.decode(report);
+            hits.increment();
+            return Optional.of(decoded);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Add the report, unless a report with the key is already in the store.
+     *
+     * @param key of the report
+     * @param report to add
+     * @return false if the report can not be written, see {@link ReportCodec#canEncode(BugReport)}, or writing failed
+     */
+    public boolean put(String key, BugReport report) {
+        if (!ReportCodec.canEncode(report)) {
+            return false;
+        }
+        try {
+            byte[] payload = payloadOf(key, report);
+            synchronized (lockInThisProcess) {
+                FileLock lock = lockExclusively();
+                try {
+                    indexNewRecords();
+                    if (!isIndexed(key)) {
+                        write(channel, record(payload), channel.size());
+                        indexNewRecords();
+                        writes.increment();
+                    }
+                    if (channel.size() > maxSize) {
+                        compact();
+                    }
+                } finally {
+                    if (lock.isValid()) {
+                        lock.release();
+                    }
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            return false;
+        }
+    }
+
+    /**
+     *
+     * @return the statistics of this store, in this process
+     */
+    public Statistics getStatistics() {
+        long size = 0;
+        try {
+            size = channel.size();
+        } catch (IOException e) {
+            // The size is left out
+        }
+        int entries;
+        indexLock.readLock().lock();
+        try {
+            entries = offsets.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        return new Statistics(hits.sum(), misses.sum(), writes.sum(), corruptRecords.sum(), compactions.sum(), failures.sum(), entries, size);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lockInThisProcess) {
+            indexLock.writeLock().lock();
+            try {
+                mapped = null;
+                channel.close();
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the bytes of the report with the key, or null if the key is not indexed
+     */
+    private byte[] readIndexedReport(String key) throws IOException {
+        indexLock.readLock().lock();
+        try {
+            Long offset = offsets.get(key);
+            return offset == null ? null : readReport(offset);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private boolean isIndexed(String key) {
+        indexLock.readLock().lock();
+        try {
+            return offsets.containsKey(key);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The channel is closed for a moment while another thread reopens the file, and then the new file is read.
+     */
+    private boolean hasRecordsNotIndexed() throws IOException {
+        try {
+            return channel.size() > scannedUpTo;
+        } catch (ClosedChannelException e) {
+            return true;
+        }
+    }
+
+    private boolean isMappingRetired() {
+        indexLock.readLock().lock();
+        try {
+            return mapped != null && mapped.getInt(RETIRED_OFFSET) != 0;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Open the file, map it, and index its records. The index is only replaced when the new file is read, so the
+     * threads reading the old file are done with it. Must hold the lock in this process.
+     */
+    private void openFile() throws IOException {
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        synchronized (lockInThisProcess) {
+            FileLock lock = opened.lock();
+            try {
+                if (opened.size() == 0) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    header.putInt(FILE_MAGIC).putInt(FORMAT).putInt(0).putInt(0).flip();
+                    write(opened, header, 0);
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                opened.read(header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_SIZE || header.getInt() != FILE_MAGIC || header.getInt() != FORMAT) {
+                    opened.close();
+                    throw new IOException(path + " is not a report store");
+                }
+                indexLock.writeLock().lock();
+                try {
+                    channel = opened;
+                    mapped = opened.map(FileChannel.MapMode.READ_ONLY, 0, opened.size());
+                    offsets.clear();
+                    scannedUpTo = HEADER_SIZE;
+                    readRecords();
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+            } finally {
+                if (lock.isValid()) {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Open the file again, and close the channel of the old file. Must hold the lock in this process.
+     */
+    private void reopen() throws IOException {
+        FileChannel old = channel;
+        openFile();
+        old.close();
+    }
+
+    /**
+     * Another process may have compacted the store, and replaced the file. Must hold the lock in this process.
+     */
+    private void reopenIfRetired() throws IOException {
+        if (isMappingRetired()) {
+            reopen();
+        }
+    }
+
+    private FileLock lockExclusively() throws IOException {
+        FileLock lock = channel.lock();
+        while (isRetired()) {
+            lock.release();
+            reopen();
+            lock = channel.lock();
+        }
+        return lock;
+    }
+
+    private boolean isRetired() throws IOException {
+        ByteBuffer retired = ByteBuffer.allocate(4);
+        channel.read(retired, RETIRED_OFFSET);
+        retired.flip();
+        return retired.getInt() != 0;
+    }
+
+    private void readRecordsOfOtherProcesses() throws IOException {
+        if (channel.size() <= scannedUpTo) {
+            return;
+        }
+        synchronized (lockInThisProcess) {
+            FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+            try {
+                indexNewRecords();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Index the records after the ones already read, under the write lock of the index. Must hold a lock on the
+     * file, so no record is half written.
+     */
+    private void indexNewRecords() throws IOException {
+        indexLock.writeLock().lock();
+        try {
+            readRecords();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The file is mapped when it is opened. The records added later are read from the channel, once to index them
+     * and then every time they are read, so a growing file is never mapped again. The mapping is renewed when the
+     * file is compacted, or replaced by another process.
+     */
+    private void readRecords() throws IOException {
+        long size = channel.size();
+        if (size <= scannedUpTo) {
+            return;
+        }
+        ByteBuffer tail = bytesAt(scannedUpTo, (int) (size - scannedUpTo));
+        int position = 0;
+        while (position + RECORD_HEADER_SIZE <= tail.limit()) {
+            int length = tail.getInt(position + 4);
+            if (tail.getInt(position) != RECORD_MAGIC || length < 0 || position + RECORD_HEADER_SIZE + (long) length > tail.limit()
+                    || tail.getInt(position + 8) != crcOf(tail, position + RECORD_HEADER_SIZE, length)) {
+                corruptRecords.increment();
+                position = nextRecordAfter(tail, position);
+                continue;
+            }
+            offsets.put(keyAt(tail, position + RECORD_HEADER_SIZE), scannedUpTo + position);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        scannedUpTo += position;
+    }
+
+    /**
+     * The bytes are a view of the mapping if they are in it, else they are read from the channel.
+     *
+     * @return a buffer with the bytes from the position in the file, indexed from 0
+     */
+    private ByteBuffer bytesAt(long position, int length) throws IOException {
+        if (position + length <= mapped.capacity()) {
+            ByteBuffer bytes = mapped.duplicate();
+            bytes.position((int) position).limit((int) position + length);
+            return bytes.slice();
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        long at = position;
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, at);
+            if (read < 0) {
+                throw new IOException("The record at " + position + " is not completely written");
+            }
+            at += read;
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    private static int nextRecordAfter(ByteBuffer bytes, int position) {
+        for (int candidate = position + 1; candidate + RECORD_HEADER_SIZE <= bytes.limit(); candidate++) {
+            if (bytes.getInt(candidate) == RECORD_MAGIC) {
+                return candidate;
+            }
+        }
+        return bytes.limit();
+    }
+
+    private static int crcOf(ByteBuffer bytes, int position, int length) {
+        ByteBuffer payload = bytes.duplicate();
+        payload.position(position).limit(position + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static String keyAt(ByteBuffer bytes, int position) {
+        int length = bytes.getInt(position);
+        byte[] key = new byte[length];
+        ByteBuffer keyBytes = bytes.duplicate();
+        keyBytes.position(position + 4);
+        keyBytes.get(key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private int recordLengthAt(long offset) throws IOException {
+        return RECORD_HEADER_SIZE + bytesAt(offset + 4, 4).getInt(0);
+    }
+
+    private byte[] readReport(long offset) throws IOException {
+        ByteBuffer record = bytesAt(offset, recordLengthAt(offset));
+        int keyLength = record.getInt(RECORD_HEADER_SIZE);
+        byte[] report = new byte[record.limit() - RECORD_HEADER_SIZE - 4 - keyLength];
+        record.position(RECORD_HEADER_SIZE + 4 + keyLength);
+        record.get(report);
+        return report;
+    }
+
+    private byte[] payloadOf(String key, BugReport report) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            ReportCodec.write(report, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private ByteBuffer record(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        record.putInt(RECORD_MAGIC).putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        return record;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Keep the newest records up to half of the maximum size in a new file, and replace the old file with it.
+     * Must hold the exclusive lock on the old file.
+     */
+    private void compact() throws IOException {
+        indexLock.readLock().lock();
+        try {
+            writeCompacted();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        ByteBuffer retired = ByteBuffer.allocate(4);
+        retired.putInt(1).flip();
+        write(channel, retired, RETIRED_OFFSET);
+        compactions.increment();
+        reopen();
+    }
+
+    private void writeCompacted() throws IOException {
+        List<Map.Entry<String, Long>> newestFirst = new ArrayList<>(offsets.entrySet());
+        newestFirst.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        List<Long> kept = new ArrayList<>();
+        long size = HEADER_SIZE;
+        for (Map.Entry<String, Long> entry : newestFirst) {
+            long recordSize = recordLengthAt(entry.getValue());
+            if (size + recordSize > maxSize / 2) {
+                break;
+            }
+            kept.add(entry.getValue());
+            size += recordSize;
+        }
+        kept.sort(Comparator.naturalOrder());
+
+        Path compacted = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".compacting");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(FILE_MAGIC).putInt(FORMAT).putInt(0).putInt(0).flip();
+            out.write(header);
+            for (long offset : kept) {
+                ByteBuffer record = bytesAt(offset, recordLengthAt(offset));
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The statistics of a {@link ReportStore} at one point in time.
+     */
+    public static class Statistics {
+
+        private final long hits;
+        private final long misses;
+        private final long writes;
+        private final long corruptRecords;
+        private final long compactions;
+        private final long failures;
+        private final int entries;
+        private final long sizeInBytes;
+
+        Statistics(long hits, long misses, long writes, long corruptRecords, long compactions, long failures, int entries, long sizeInBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.writes = writes;
+            this.corruptRecords = corruptRecords;
+            this.compactions = compactions;
+            this.failures = failures;
+            this.entries = entries;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getWrites() {
+            return writes;
+        }
+
+        /**
+         *
+         * @return how many times a record with a wrong CRC, or that was not completely written, was skipped
+         */
+        public long getCorruptRecords() {
+            return corruptRecords;
+        }
+
+        public long getCompactions() {
+            return compactions;
+        }
+
+        /**
+         *
+         * @return how many reads and writes failed, for example because of an I/O error
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", writes=" + writes + ", corruptRecords=" + corruptRecords
+                    + ", compactions=" + compactions + ", failures=" + failures + ", entries=" + entries + ", sizeInBytes=" + sizeInBytes;
+        }
+    }
+}
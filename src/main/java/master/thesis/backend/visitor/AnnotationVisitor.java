@@ -8,6 +8,7 @@ import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A visitor to collect the annotations of the file to analyse.
@@ -50,6 +51,14 @@ public class AnnotationVisitor extends VoidVisitorAdapter<Void> {
         return this.annotations;
     }
 
+    /**
+     *
+     * @return the names of the classes with at least one annotation
+     */
+    public Set<String> getAnnotatedClasses() {
+        return annotationsPerClass.keySet();
+    }
+
     /**
      *
      * @param className
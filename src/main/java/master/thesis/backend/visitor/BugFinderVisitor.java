@@ -1,19 +1,34 @@
 package master.thesis.backend.visitor;
 
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.*;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
-import com.github.javaparser.resolution.UnsolvedSymbolException;
-import com.github.javaparser.resolution.types.ResolvedType;
 import master.thesis.backend.analyser.AnalyserConfiguration;
+import master.thesis.backend.analyser.AnalysisLimits;
+import master.thesis.backend.analyser.ErrorListener;
+import master.thesis.backend.detector.Detector;
+import master.thesis.backend.detector.DetectorContext;
+import master.thesis.backend.detector.DetectorRegistry;
+import master.thesis.backend.detector.TypeCache;
 import master.thesis.backend.errors.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
- * A visitor for finding the following bugs:
+ * A visitor going through the tree once, and giving every node to the {@link Detector}s interested in its type.
+ * By default, the detectors of {@link DetectorRegistry#withDefaultDetectors()} are used, finding the following bugs:
  *
  *  A semicolon after if statement:
  *      if (something); {}
@@ -38,424 +53,309 @@ import java.util.Optional;
  *  Not implementing the equals method in a class.
  *
  * Bugs can be ignored by implementing {@link AnalyserConfiguration}.
+ *
+ * While going down the tree, the visitor keeps the enclosing class, method, return statement, declarations and
+ * method call of the current node. Questions about where a node is are answered from these, without going up
+ * the tree. A node is given to the detectors after its children.
  */
-public class BugFinderVisitor extends VoidVisitorAdapter<Void> {
+public class BugFinderVisitor extends VoidVisitorAdapter<Void> implements DetectorContext {
+
+    /**
+     * The node types this visitor gives to detectors.
+     */
+    public static final Set<Class<? extends Node>> SUPPORTED_NODE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            BinaryExpr.class,
+            IfStmt.class,
+            ClassOrInterfaceDeclaration.class,
+            MethodDeclaration.class,
+            MethodCallExpr.class,
+            ReturnStmt.class,
+            VariableDeclarationExpr.class,
+            FieldDeclaration.class)));
 
     private BugReport report = new BugReport();
+    private HashMap<String, EnumSet<ErrorKind>> kindsToIgnorePerClass = new HashMap<>();
+    private HashMap<Class<? extends Node>, List<Detector>> detectorsPerNodeType = new HashMap<>();
+    private TypeCache types = new TypeCache();
+    private ErrorListener errorListener;
+    private AnalysisLimits limits = AnalysisLimits.NONE;
+    private int numberOfReportedErrors = 0;
+    private int numberOfCheckedNodes = 0;
+    private ArrayDeque<ClassOrInterfaceDeclaration> enclosingClasses = new ArrayDeque<>();
+    private ArrayDeque<MethodDeclaration> enclosingMethods = new ArrayDeque<>();
+    private ArrayDeque<Optional<MethodDeclaration>> enclosingReturns = new ArrayDeque<>();
+    private ArrayDeque<VariableDeclarationExpr> enclosingVariableDeclarations = new ArrayDeque<>();
+    private ArrayDeque<FieldDeclaration> enclosingFieldDeclarations = new ArrayDeque<>();
+    private ArrayDeque<MethodCallExpr> enclosingMethodCalls = new ArrayDeque<>();
     AnalyserConfiguration configuration;
 
     /**
+     * Uses all the detectors of {@link DetectorRegistry#withDefaultDetectors()}.
      *
      * @param configuration for how bugs should be ignored. Set to null if no configuration.
      */
-    public BugFinderVisitor(AnalyserConfiguration configuration) { super(); this.configuration = configuration;}
+    public BugFinderVisitor(AnalyserConfiguration configuration) {
+        this(configuration, DetectorRegistry.withDefaultDetectors().getDetectors(EnumSet.allOf(ErrorKind.class)));
+    }
 
     /**
-     * Check that objects are not compared with the equals operator.
-     * If found, add a {@link EqualsOperatorError} to {@link BugReport}
-     * Ignored when expression is inside print statement and equals method declaration.
-     *
-     * Check that integer division does not expect a double.
-     * If found, add a {@link IntegerDivisionError} to {@link BugReport}
-     * Ignored when expression is inside print statement.
      *
-     * Check that binary operator are not used on booleans.
-     * If found, add a {@link BitwiseOperatorError} to {@link BugReport}
-     * Ignored when expression is inside print statement.
-     *
-     * @param expression
-     * @param arg
+     * @param configuration for how bugs should be ignored. Set to null if no configuration.
+     * @param detectors to give the nodes to
+     * @throws IllegalArgumentException if a detector checks a node type not in {@link #SUPPORTED_NODE_TYPES}
      */
-    @Override
-    public void visit(BinaryExpr expression, Void arg) {
-        super.visit(expression, arg);
-        BinaryExpr.Operator operator = expression.getOperator();
-        Expression left = expression.getLeft();
-        Expression right = expression.getRight();
-
-        if (equalsOperatorIsUsedIn(expression)) {
-            if (!isInsideEqualsMethod(expression) && !isInsidePrintStatement(expression)) {
-                try {
-                    if (equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(expression)) {
-                        int lineNumber = getLineNumberFrom(expression);
-                        EqualsOperatorError equalsOperatorError = new EqualsOperatorError();
-                        if (getContainingClass(expression).isPresent()) {
-                            equalsOperatorError.setContainingClass(getContainingClass(expression).get());
-                        }
-                        equalsOperatorError.setLineNumber(lineNumber);
-                        equalsOperatorError.setLeftOperand(left.toString());
-                        equalsOperatorError.setRightOperand(right.toString());
-                        equalsOperatorError.setOperator(expression.getOperator().asString());
-                        if (left.calculateResolvedType().isArray() && right.calculateResolvedType().isArray()) {
-                            equalsOperatorError.setArraysSuggestion();
-                        }
-                        if (shouldBeAddedToReport(equalsOperatorError)) {
-                            report.addBug(equalsOperatorError);
-                        }
-                    }
-                } catch (UnsolvedSymbolException unsolvedSymbolException) {
-                    // When a type is not resolved, we know it is not a primitive. But an object may be called upon, which can
-                    // result in a primitive. So we need to check that it is only the object. If it is called upon, we add the
-                    // exception. If not, we add the bug.
-                    boolean leftIsObjectReference = left.isNameExpr();
-                    boolean rightIsObjectReference = right.isNameExpr();
-                    if (leftIsObjectReference && rightIsObjectReference) {
-                        int lineNumber = getLineNumberFrom(expression);
-                        EqualsOperatorError equalsOperatorError = new EqualsOperatorError();
-                        if (getContainingClass(expression).isPresent()) {
-                            equalsOperatorError.setContainingClass(getContainingClass(expression).get());
-                        }
-                        equalsOperatorError.setLineNumber(lineNumber);
-                        equalsOperatorError.setLeftOperand(left.toString());
-                        equalsOperatorError.setRightOperand(right.toString());
-                        equalsOperatorError.setOperator(expression.getOperator().asString());
-
-                            report.addBug(equalsOperatorError);
-
-                    }
-                    else {
-                        report.attach(unsolvedSymbolException);
-                    }
-                }
-            }
-        }
-        if (operator.equals(BinaryExpr.Operator.DIVIDE)) {
-            if (!isInsidePrintStatement(expression)) {
-                try {
-                    if (left.calculateResolvedType().describe().equals("int") && right.calculateResolvedType().describe().equals("int")) {
-                        if (!isInVariableDeclarationDefinedAsInteger(expression) && !isInFieldDeclarationDefinedAsInteger(expression) && !isReturningIntegerInMethodExpectingInteger(expression)) {
-
-                            IntegerDivisionError integerDivisionError = new IntegerDivisionError();
-                            if (getContainingClass(expression).isPresent()) {
-                                integerDivisionError.setContainingClass(getContainingClass(expression).get());
-                            }
-                            int lineNumber = getLineNumberFrom(expression);
-                            integerDivisionError.setLineNumber(lineNumber);
-                            integerDivisionError.setLeftOperand(left.toString());
-                            integerDivisionError.setRightOperand(right.toString());
-                            if (shouldBeAddedToReport(integerDivisionError)) {
-                                report.addBug(integerDivisionError);
-                            }
-                        }
-                    }
-                } catch (UnsolvedSymbolException unsolvedSymbolException) {
-                    report.attach(unsolvedSymbolException);
-                }
-            }
-        }
-
-        if (operator.equals(BinaryExpr.Operator.BINARY_OR) || operator.equals(BinaryExpr.Operator.BINARY_AND)) {
-            if (!isInsidePrintStatement(expression)) {
-                try {
-                    if (left.calculateResolvedType().describe().equals("boolean") && right.calculateResolvedType().describe().equals("boolean")) {
-                        int lineNumber = getLineNumberFrom(expression);
-                        BitwiseOperatorError bitwiseOperatorError = new BitwiseOperatorError();
-                        if (getContainingClass(expression).isPresent()) {
-                            bitwiseOperatorError.setContainingClass(getContainingClass(expression).get());
-                        }
-                        bitwiseOperatorError.setLineNumber(lineNumber);
-                        bitwiseOperatorError.setLeftOperand(left.toString());
-                        bitwiseOperatorError.setRightOperand(right.toString());
-                        bitwiseOperatorError.setOperator(operator.asString());
-                        if (shouldBeAddedToReport(bitwiseOperatorError)) {
-                            report.addBug(bitwiseOperatorError);
-                        }
-                    }
-                } catch (UnsolvedSymbolException unsolvedSymbolException) {
-                    report.attach(unsolvedSymbolException);
+    public BugFinderVisitor(AnalyserConfiguration configuration, List<Detector> detectors) {
+        super();
+        this.configuration = configuration;
+        for (Detector detector : detectors) {
+            for (Class<? extends Node> nodeType : detector.getNodeTypes()) {
+                if (!SUPPORTED_NODE_TYPES.contains(nodeType)) {
+                    throw new IllegalArgumentException("Detector " + detector.getClass().getName() + " checks unsupported node type " + nodeType.getSimpleName());
                 }
+                detectorsPerNodeType.computeIfAbsent(nodeType, type -> new ArrayList<>()).add(detector);
             }
         }
     }
 
     /**
-     * Used to check the expected type of integer division and limit false positives of {@link IntegerDivisionError}
-     *
-     * Go up the tree until a variabledeclaration is found. Check if the variable is declared as int.
+     * Give the node to every detector interested in its type, unless the kind of the detector is ignored for the
+     * class.
      *
-     * @param expression
-     * @return true if type is declared as int
+     * @param node to check
+     * @param className the class to ignore errors for
      */
-    private boolean isInVariableDeclarationDefinedAsInteger(BinaryExpr expression) {
-        Optional<VariableDeclarationExpr> maybeVariableDeclarationExpr = expression.findAncestor(VariableDeclarationExpr.class);
-        return maybeVariableDeclarationExpr.map(variableDeclarationExpr -> variableDeclarationExpr.calculateResolvedType().describe().equals("int")).orElse(false);
+    private void dispatch(Node node, String className) {
+        List<Detector> detectors = detectorsPerNodeType.get(node.getClass());
+        if (detectors == null) {
+            return;
+        }
+        numberOfCheckedNodes++;
+        for (Detector detector : detectors) {
+            if (limits.isExceeded()) {
+                throw LimitReached.INSTANCE;
+            }
+            if (!isIgnored(detector.getKind(), className)) {
+                detector.check(node, this);
+            }
+        }
     }
 
-    /**
-     * Used to check the expected type of integer division and limit false positives of {@link IntegerDivisionError}
-     *
-     * Go up the tree until a fielddeclaration is found. Check if the field is declared as int.
-     *
-     * @param expression
-     * @return true if type is declared as int
-     */
-    private boolean isInFieldDeclarationDefinedAsInteger(BinaryExpr expression) {
-        Optional<FieldDeclaration> maybeFieldDeclarationExpr = expression.findAncestor(FieldDeclaration.class);
-        return maybeFieldDeclarationExpr.map(fieldDeclaration -> fieldDeclaration.getVariables().get(0).resolve().getType().describe().equals("int")).orElse(false);
+    private void dispatch(Node node) {
+        dispatch(node, getContainingClass().orElse(""));
     }
 
     /**
-     * Used to check the expected type of integer division and limit false positives of {@link IntegerDivisionError}
-     *
-     * Go up the tree until a returnstatement is found. Then, check if the returnstatement has expected type integer.
+     * Find out if the configuration ignores the kind of error for the class. The kinds to ignore are only asked
+     * for once per class.
      *
-     * @param expression
-     * @return true if type is declared as int
+     * @param kind of error
+     * @param className the containing class of the error
+     * @return true if the kind of error should be ignored
      */
-    private boolean isReturningIntegerInMethodExpectingInteger(BinaryExpr expression) {
-        Optional<ReturnStmt> maybeReturnStmt = expression.findAncestor(ReturnStmt.class);
-        if (maybeReturnStmt.isPresent()) {
-            ReturnStmt returnStmt = maybeReturnStmt.get();
-            Optional<MethodDeclaration> maybeMethodDeclaration = returnStmt.findAncestor(MethodDeclaration.class);
-            if (maybeMethodDeclaration.isPresent()) {
-                MethodDeclaration methodDeclaration = maybeMethodDeclaration.get();
-                return methodDeclaration.getType().asString().equals("int");
-            }
+    private boolean isIgnored(ErrorKind kind, String className) {
+        if (configuration == null) {
+            return false;
         }
-        return false;
+        EnumSet<ErrorKind> kindsToIgnore = kindsToIgnorePerClass.get(className);
+        if (kindsToIgnore == null) {
+            kindsToIgnore = configuration.getKindsToIgnoreForClass(className);
+            kindsToIgnorePerClass.put(className, kindsToIgnore);
+        }
+        return kindsToIgnore.contains(kind);
     }
 
     /**
-     * Check if equals operator is used to find {@link EqualsOperatorError}
+     * Stops going through the tree when a limit is reached, and marks the report as truncated.
      *
-     * @param expression
-     * @return true if equals operator is used
+     * @param compilationUnit
+     * @param arg
      */
-    private boolean equalsOperatorIsUsedIn(BinaryExpr expression) {
-        BinaryExpr.Operator operator = expression.getOperator();
-        return operator.equals(BinaryExpr.Operator.EQUALS) || operator.equals(BinaryExpr.Operator.NOT_EQUALS);
+    @Override
+    public void visit(CompilationUnit compilationUnit, Void arg) {
+        try {
+            super.visit(compilationUnit, arg);
+        } catch (LimitReached limitReached) {
+            report.setTruncated(true);
+        }
     }
 
-    /**
-     * Used to limit false positives of {@link EqualsOperatorError}
-     * Check if operands are null or primitives.
-     *
-     * @param expression
-     * @return true if operands are null or primitives
-     */
-    private boolean equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(BinaryExpr expression) {
-        Expression left = expression.getLeft();
-        Expression right = expression.getRight();
-        return !isPrimitiveOrNull(left) && !isPrimitiveOrNull(right) && !ifMethodCallExpressionThenCheckIfItReturnsPrimitiveOrNull(left) && !ifMethodCallExpressionThenCheckIfItReturnsPrimitiveOrNull(right);
+    @Override
+    public void visit(BinaryExpr expression, Void arg) {
+        super.visit(expression, arg);
+        dispatch(expression);
+    }
+
+    @Override
+    public void visit(MethodDeclaration declaration, Void arg) {
+        enclosingMethods.push(declaration);
+        try {
+            super.visit(declaration, arg);
+        } finally {
+            enclosingMethods.pop();
+        }
+        dispatch(declaration);
     }
 
     /**
-     * Uses {@link AnalyserConfiguration} to check for errors to ignore.
-     *
-     * Check if {@link BaseError#getName()} is present in {@link AnalyserConfiguration} list of errors to ignore
-     * for class {@link BaseError#getContainingClass()}.
+     * Remember the method of the returnstatement, for {@link #getMethodOfEnclosingReturn()}.
      *
-     * @param error the error to be checked
-     * @return false if configuration is null. true is configuration finds error to be ignored for the containgclass.
+     * @param statement
+     * @param arg
      */
-    private boolean shouldBeAddedToReport(BaseError error) {
-        if (configuration == null) {
-            return true;
+    @Override
+    public void visit(ReturnStmt statement, Void arg) {
+        enclosingReturns.push(Optional.ofNullable(enclosingMethods.peek()));
+        try {
+            super.visit(statement, arg);
+        } finally {
+            enclosingReturns.pop();
         }
-        return !configuration.getErrorsToIgnoreForClass(error.getContainingClass()).contains(error.getName());
+        dispatch(statement);
     }
 
-    /**
-     * Find the linenumber for the errors.
-     * @param expression
-     * @return -1 if not found, else the line number of the expression
-     */
-    private int getLineNumberFrom(BinaryExpr expression) {
-        int lineNumber = -1;
-        if (expression.getRange().isPresent()) {
-            lineNumber = expression.getRange().get().begin.line;
+    @Override
+    public void visit(VariableDeclarationExpr expression, Void arg) {
+        enclosingVariableDeclarations.push(expression);
+        try {
+            super.visit(expression, arg);
+        } finally {
+            enclosingVariableDeclarations.pop();
         }
-        return lineNumber;
+        dispatch(expression);
     }
 
-    /**
-     *  Used to limit false positives of {@link EqualsOperatorError}.
-     *
-     * Used by {@link #equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(BinaryExpr)} to check if
-     * the equals operator is used on null or primitives.
-     *
-     * @param expr
-     * @return True if is a methodcall and it returns either primitive or null. False otherwise.
-     * @throws UnsolvedSymbolException
-     */
-    private boolean ifMethodCallExpressionThenCheckIfItReturnsPrimitiveOrNull(Expression expr) throws UnsolvedSymbolException {
-        if (expr.isMethodCallExpr()) {
-            MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
-            ResolvedType returnType = methodCallExpr.resolve().getReturnType();
-            return returnType.isPrimitive() || returnType.isNull();
+    @Override
+    public void visit(FieldDeclaration declaration, Void arg) {
+        enclosingFieldDeclarations.push(declaration);
+        try {
+            super.visit(declaration, arg);
+        } finally {
+            enclosingFieldDeclarations.pop();
         }
-        return false;
+        dispatch(declaration);
     }
 
-    /**
-     * Used to limit false positives of {@link EqualsOperatorError}.
-     *
-     * Used by {@link #equalsOperatorIsNotUsedToCompareNullOrPrimitivesIn(BinaryExpr)} to check if
-     * the equals operator is used on null or primitives.
-     *
-     * @param exp
-     * @return True if exp is either primitive or null. False otherwise.
-     * @throws UnsolvedSymbolException
-     */
-    private boolean isPrimitiveOrNull(Expression exp) throws UnsolvedSymbolException {
-        return exp.calculateResolvedType().isPrimitive() || exp.calculateResolvedType().isNull();
+    @Override
+    public void visit(MethodCallExpr expression, Void arg) {
+        enclosingMethodCalls.push(expression);
+        try {
+            super.visit(expression, arg);
+        } finally {
+            enclosingMethodCalls.pop();
+        }
+        dispatch(expression);
     }
 
     /**
-     * Used to limit false positives of {@link EqualsOperatorError}.
-     *
-     * Go up the tree until a mtehod declaration is found, check if it is equals method.
+     * Errors found on a class declaration are ignored by the name of the declared class itself.
      *
-     * @param node
-     * @return true if node is inside equals method declaration
+     * @param declaration
+     * @param arg
      */
-    private boolean isInsideEqualsMethod(Node node) {
-        Optional<MethodDeclaration> methodParent = node.findAncestor(MethodDeclaration.class);
-        return methodParent.isPresent() && methodParent.get().getNameAsString().equals("equals");
+    @Override
+    public void visit(ClassOrInterfaceDeclaration declaration, Void arg) {
+        enclosingClasses.push(declaration);
+        try {
+            super.visit(declaration, arg);
+        } finally {
+            enclosingClasses.pop();
+        }
+        report.setClassName(declaration.getNameAsString());
+        dispatch(declaration, declaration.getNameAsString());
     }
 
-    /**
-     * Used to limit false positives of {@link EqualsOperatorError}, {@link IntegerDivisionError}, {@link BitwiseOperatorError}.
-     *
-     * Go up the tree until a print statement is found.
-     *
-     * @param node
-     * @return true if node is inside print statement
-     */
-    private boolean isInsidePrintStatement(Node node) {
-        Optional<MethodCallExpr> methodCallExprOptionalParent = node.findAncestor(MethodCallExpr.class);
-        return methodCallExprOptionalParent.isPresent() && (methodCallExprOptionalParent.get().getNameAsString().equals("println") || methodCallExprOptionalParent.get().getNameAsString().equals("print"));
+    @Override
+    public void visit(IfStmt statement, Void arg) {
+        super.visit(statement, arg);
+        dispatch(statement);
     }
 
     /**
-     * Go through method declarations to find an equals method.
-     * If not found, add a {@link MissingEqualsMethodError} to {@link BugReport}
-     * Ignore if interface or abstract class.
-     *
-     * @param declaration
-     * @param arg
+     * Get the containing class of the current node. Used to set {@link BaseError#getContainingClass()}.
+     * @return empty if not found, string of containing class if found
      */
     @Override
-    public void visit(ClassOrInterfaceDeclaration declaration, Void arg) {
-        super.visit(declaration, arg);
-        List<Node> children = declaration.getChildNodes();
+    public Optional<String> getContainingClass() {
+        ClassOrInterfaceDeclaration clazz = enclosingClasses.peek();
+        if (clazz != null) {
+            return Optional.of(clazz.getNameAsString());
+        }
+        return Optional.empty();
+    }
 
-        report.setClassName(declaration.getNameAsString());
+    @Override
+    public Optional<MethodDeclaration> getEnclosingMethod() {
+        return Optional.ofNullable(enclosingMethods.peek());
+    }
 
-        boolean classHasEqualsMethod = false;
+    @Override
+    public Optional<MethodCallExpr> getEnclosingMethodCall() {
+        return Optional.ofNullable(enclosingMethodCalls.peek());
+    }
 
-        for (Node child : children) {
-            if (child instanceof MethodDeclaration) {
-                MethodDeclaration equalsMethodCandidate = (MethodDeclaration) child;
-                if (equalsMethodCandidate.getNameAsString().equals("equals")) {
-                    classHasEqualsMethod = true;
-                }
-            }
+    @Override
+    public Optional<VariableDeclarationExpr> getEnclosingVariableDeclaration() {
+        return Optional.ofNullable(enclosingVariableDeclarations.peek());
+    }
+
+    @Override
+    public Optional<FieldDeclaration> getEnclosingFieldDeclaration() {
+        return Optional.ofNullable(enclosingFieldDeclarations.peek());
+    }
+
+    @Override
+    public Optional<MethodDeclaration> getMethodOfEnclosingReturn() {
+        Optional<MethodDeclaration> method = enclosingReturns.peek();
+        return method == null ? Optional.empty() : method;
+    }
+
+    @Override
+    public TypeCache getTypes() {
+        return types;
+    }
+
+    @Override
+    public void report(BaseError error) {
+        if (numberOfReportedErrors >= limits.getMaxErrors()) {
+            throw LimitReached.INSTANCE;
         }
-        if (!classHasEqualsMethod && !declaration.isInterface() && !declaration.isAbstract()) {
-            MissingEqualsMethodError missingEqualsMethodError = new MissingEqualsMethodError();
-            missingEqualsMethodError.setContainingClass(declaration.getNameAsString());
-            if (shouldBeAddedToReport(missingEqualsMethodError)) {
-                report.addBug(missingEqualsMethodError);
-            }
+        numberOfReportedErrors++;
+        if (errorListener != null) {
+            errorListener.onError(error);
+            return;
         }
-
+        report.addBug(error);
     }
 
     /**
-     * Check if if-statement has brackets. If not, check if the statement has a sibling, and check if
-     * the sibling is indented wrong. If so, add a {@link IfWithoutBracketsError} to {@link BugReport}.
-     *
-     * Check if the if-statment has empty statement as body. If so, add {@link SemiColonAfterIfError} to {@link BugReport}.
+     * Give every error to the listener as soon as it is found, instead of adding it to the report. The listener
+     * is not told when the analysis is done.
      *
-     * @param statement
-     * @param arg
+     * @param errorListener to give the errors to, or null to add them to the report
      */
-    public void visit(IfStmt statement, Void arg) {
-        super.visit(statement, arg);
-        Statement thenStatement = statement.getThenStmt();
-        boolean thenStatementIsEmpty = thenStatement.getMetaModel().getTypeName().equals("EmptyStmt");
-        boolean thenStatementHasCurlyBraces = thenStatement instanceof BlockStmt;
-        if (thenStatementIsEmpty) {
-            int lineNumber = -1;
-            if (statement.getRange().isPresent()) {
-                lineNumber = statement.getRange().get().begin.line;
-            }
-            SemiColonAfterIfError semiColonAfterIfError = new SemiColonAfterIfError();
-            if (getContainingClass(statement).isPresent()) {
-                semiColonAfterIfError.setContainingClass(getContainingClass(statement).get());
-            }
-            semiColonAfterIfError.setLineNumber(lineNumber);
-            semiColonAfterIfError.setCondition(statement.getCondition().toString());
-            if (shouldBeAddedToReport(semiColonAfterIfError)) {
-                report.addBug(semiColonAfterIfError);
-            }
-
-        }
-        else if (!thenStatementHasCurlyBraces) {
-            int lineNumberOfIfStatement = -1;
-            int indentationThenStatement = -1;
-            int lineNumberOfThenStatement = -1;
-
-            if (statement.getRange().isPresent()) {
-                lineNumberOfIfStatement = statement.getRange().get().begin.line;
-            }
-            if (thenStatement.getRange().isPresent()) {
-                lineNumberOfThenStatement =  thenStatement.getRange().get().begin.line;
-                indentationThenStatement = thenStatement.getRange().get().begin.column;
-            }
+    public void setErrorListener(ErrorListener errorListener) {
+        this.errorListener = errorListener;
+    }
 
-            if (siblingOf(statement).isPresent()) {
-                Node sibling = siblingOf(statement).get();
-                int intendationSiblingStatement = sibling.getRange().get().begin.column;
-                int lineNumberOfSiblingStatement = sibling.getRange().get().begin.line;
-
-                if (indentationThenStatement == intendationSiblingStatement || lineNumberOfSiblingStatement == lineNumberOfIfStatement || lineNumberOfSiblingStatement == lineNumberOfThenStatement) {
-                    IfWithoutBracketsError ifWithoutBracketsError = new IfWithoutBracketsError();
-                    if (getContainingClass(statement).isPresent()) {
-                        ifWithoutBracketsError.setContainingClass(getContainingClass(statement).get());
-                    }
-                    ifWithoutBracketsError.setLineNumber(lineNumberOfIfStatement);
-                    ifWithoutBracketsError.setCondition(statement.getCondition().toString());
-                    ifWithoutBracketsError.setThenBranch(statement.getThenStmt().toString());
-                    if (shouldBeAddedToReport(ifWithoutBracketsError)) {
-                        report.addBug(ifWithoutBracketsError);
-                    }
-                }
-            }
-        }
+    @Override
+    public void attach(Throwable exception) {
+        report.attach(exception);
     }
 
     /**
-     * Find the sibling of a node. Used by {@link #visit(IfStmt, Void )} to find {@link IfWithoutBracketsError}.
      *
-     * @param statement
-     * @return empty if not found, the sibling if found
+     * @param limits of this analysis, checked before every node is given to the detectors and every error is reported
      */
-    private Optional<Node> siblingOf(IfStmt statement) {
-        if (statement.hasParentNode()) {
-            Node parent = statement.getParentNode().get();
-            List<Node> children = parent.getChildNodes();
-            int indexOfIfStatement = children.indexOf(statement);
-            if (indexOfIfStatement+1 < children.size()) {
-               return Optional.of(children.get(indexOfIfStatement+1));
-            }
-        }
-        return Optional.empty();
+    public void setLimits(AnalysisLimits limits) {
+        this.limits = limits;
     }
 
     /**
-     * Get the containing class of a node. Used to set {@link BaseError#getContainingClass()}.
-     * @param node
-     * @return empty if not found, string of containing class if found
+     *
+     * @return the number of nodes given to the detectors, see {@link #SUPPORTED_NODE_TYPES}
      */
-    private Optional<String> getContainingClass(Node node) {
-        Optional<ClassOrInterfaceDeclaration> maybeContainingClass = node.findAncestor(ClassOrInterfaceDeclaration.class);
-        if (maybeContainingClass.isPresent()) {
-            ClassOrInterfaceDeclaration clazz = maybeContainingClass.get();
-            return Optional.of(clazz.getNameAsString());
-        }
-        return Optional.empty();
+    public int getNumberOfCheckedNodes() {
+        return numberOfCheckedNodes;
     }
 
     /**
@@ -465,4 +365,17 @@ public class BugFinderVisitor extends VoidVisitorAdapter<Void> {
     public BugReport getReport() {
         return this.report;
     }
+
+    /**
+     * Thrown to stop going through the tree. Has no stack trace, since it is never shown.
+     */
+    private static class LimitReached extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+        private static final LimitReached INSTANCE = new LimitReached();
+
+        private LimitReached() {
+            super("A limit of the analysis is reached", null, false, false);
+        }
+    }
 }
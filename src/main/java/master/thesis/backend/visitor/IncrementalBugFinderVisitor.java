@@ -0,0 +1,162 @@
+package master.thesis.backend.visitor;
+
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import master.thesis.backend.analyser.AnalyserConfiguration;
+import master.thesis.backend.detector.Detector;
+import master.thesis.backend.errors.BaseError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link BugFinderVisitor} that reuses the errors of the bodies that are not changed since a previous analysis.
+ *
+ * The bodies of methods, constructors and initializers are numbered in the order they are visited. A body inside
+ * another body, for example in a local class, is part of the outer body. When the body with the same number in
+ * the previous analysis has the same text and column, it is not visited again, and its errors are added with
+ * the line numbers moved. The errors end up in the same order as when all bodies are visited.
+ *
+ * The previous bodies can only be reused when everything outside of the bodies is the same, see
+ * {@link #skeletonOf(CompilationUnit, SourceText)}. The types used in a body only depend on the declarations
+ * outside of the bodies.
+ */
+public class IncrementalBugFinderVisitor extends BugFinderVisitor {
+
+    private final SourceText source;
+    private final List<MemberBody> previousBodies;
+    private final List<MemberBody> bodies = new ArrayList<>();
+    private int numberOfReusedBodies = 0;
+    private BodyInProgress current;
+
+    /**
+     *
+     * @param configuration for how bugs should be ignored. Set to null if no configuration.
+     * @param detectors to give the nodes to
+     * @param source the code of the compilation unit to visit
+     * @param previousBodies from the previous analysis, or an empty list if nothing can be reused
+     */
+    public IncrementalBugFinderVisitor(AnalyserConfiguration configuration, List<Detector> detectors, SourceText source, List<MemberBody> previousBodies) {
+        super(configuration, detectors);
+        this.source = source;
+        this.previousBodies = previousBodies;
+    }
+
+    /**
+     * The code outside of the bodies of methods, constructors and initializers, with whitespace collapsed.
+     *
+     * @param compilationUnit parsed from the source
+     * @param source
+     * @return the skeleton of the code
+     */
+    public static String skeletonOf(CompilationUnit compilationUnit, SourceText source) {
+        List<Range> bodies = new ArrayList<>();
+        for (BlockStmt body : compilationUnit.findAll(BlockStmt.class, IncrementalBugFinderVisitor::isMemberBody)) {
+            body.getRange().ifPresent(bodies::add);
+        }
+        bodies.sort(Comparator.comparing(range -> range.begin));
+
+        String code = source.getCode();
+        StringBuilder skeleton = new StringBuilder();
+        int from = 0;
+        for (Range body : bodies) {
+            int begin = source.offsetOf(body.begin);
+            if (begin < from) {
+                continue;
+            }
+            skeleton.append(code, from, begin).append("{}");
+            from = source.offsetOf(body.end) + 1;
+        }
+        skeleton.append(code, from, code.length());
+        return skeleton.toString().replaceAll("\\s+", " ").trim();
+    }
+
+    private static boolean isMemberBody(BlockStmt block) {
+        if (!block.getParentNode().isPresent()) {
+            return false;
+        }
+        Node parent = block.getParentNode().get();
+        return parent instanceof MethodDeclaration || parent instanceof ConstructorDeclaration || parent instanceof InitializerDeclaration;
+    }
+
+    @Override
+    public void visit(BlockStmt block, Void arg) {
+        if (current != null || !isMemberBody(block) || !block.getRange().isPresent()) {
+            super.visit(block, arg);
+            return;
+        }
+        Range range = block.getRange().get();
+        String text = source.textOf(range);
+        int index = bodies.size();
+        if (index < previousBodies.size() && previousBodies.get(index).isSameAs(text, range.begin.column)) {
+            MemberBody body = previousBodies.get(index).movedTo(range.begin.line);
+            for (BaseError error : body.getErrors()) {
+                report(error);
+            }
+            body.getException().ifPresent(this::attach);
+            body.getClassName().ifPresent(getReport()::setClassName);
+            bodies.add(body);
+            numberOfReusedBodies++;
+            return;
+        }
+
+        int firstError = getReport().getBugs().size();
+        current = new BodyInProgress();
+        try {
+            super.visit(block, arg);
+        } finally {
+            List<BaseError> errors = new ArrayList<>();
+            List<BaseError> allErrors = getReport().getBugs();
+            for (int i = firstError; i < allErrors.size(); i++) {
+                errors.add(allErrors.get(i).copy());
+            }
+            bodies.add(new MemberBody(text, range.begin.line, range.begin.column, errors, current.exception, current.className));
+            current = null;
+        }
+    }
+
+    @Override
+    public void visit(ClassOrInterfaceDeclaration declaration, Void arg) {
+        super.visit(declaration, arg);
+        if (current != null) {
+            current.className = declaration.getNameAsString();
+        }
+    }
+
+    @Override
+    public void attach(Throwable exception) {
+        super.attach(exception);
+        if (current != null) {
+            current.exception = exception;
+        }
+    }
+
+    /**
+     *
+     * @return the bodies of this analysis, to reuse in the next one
+     */
+    public List<MemberBody> getBodies() {
+        return Collections.unmodifiableList(bodies);
+    }
+
+    /**
+     *
+     * @return how many bodies were not visited again
+     */
+    public int getNumberOfReusedBodies() {
+        return numberOfReusedBodies;
+    }
+
+    private static class BodyInProgress {
+        private Throwable exception;
+        private String className;
+    }
+}
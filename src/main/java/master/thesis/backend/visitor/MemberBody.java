@@ -0,0 +1,92 @@
+package master.thesis.backend.visitor;
+
+import master.thesis.backend.errors.BaseError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The body of a method, constructor or initializer from an analysis, with the errors found in it. Used by
+ * {@link IncrementalBugFinderVisitor} to reuse the errors when the body is not changed.
+ */
+public final class MemberBody {
+
+    private final String text;
+    private final int beginLine;
+    private final int beginColumn;
+    private final List<BaseError> errors;
+    private final Throwable exception;
+    private final String className;
+
+    MemberBody(String text, int beginLine, int beginColumn, List<BaseError> errors, Throwable exception, String className) {
+        this.text = text;
+        this.beginLine = beginLine;
+        this.beginColumn = beginColumn;
+        this.errors = errors;
+        this.exception = exception;
+        this.className = className;
+    }
+
+    /**
+     * The errors of a body do not depend on the lines it is on, only on its text and on the column it starts at,
+     * since the indentation of if-statements is compared.
+     *
+     * @param text of the body in the new code
+     * @param beginColumn of the body in the new code
+     * @return true if the errors of this body can be reused
+     */
+    boolean isSameAs(String text, int beginColumn) {
+        return this.beginColumn == beginColumn && this.text.equals(text);
+    }
+
+    /**
+     *
+     * @param line the body begins on in the new code
+     * @return the same body, with the line numbers of the errors moved along with it
+     */
+    MemberBody movedTo(int line) {
+        int shift = line - beginLine;
+        List<BaseError> movedErrors = new ArrayList<>();
+        for (BaseError error : errors) {
+            BaseError moved = error.copy();
+            if (moved.getLineNumber() >= 0) {
+                moved.setLineNumber(moved.getLineNumber() + shift);
+            }
+            movedErrors.add(moved);
+        }
+        return new MemberBody(text, line, beginColumn, movedErrors, exception, className);
+    }
+
+    /**
+     *
+     * @return copies of the errors found in this body
+     */
+    public List<BaseError> getErrors() {
+        List<BaseError> copies = new ArrayList<>();
+        for (BaseError error : errors) {
+            copies.add(error.copy());
+        }
+        return copies;
+    }
+
+    /**
+     *
+     * @return empty if no exception, else the last exception attached in this body
+     */
+    public Optional<Throwable> getException() {
+        return Optional.ofNullable(exception);
+    }
+
+    /**
+     *
+     * @return empty if no class is declared in this body, else the name of the last one
+     */
+    public Optional<String> getClassName() {
+        return Optional.ofNullable(className);
+    }
+
+    public int getBeginLine() {
+        return beginLine;
+    }
+}
@@ -0,0 +1,52 @@
+package master.thesis.backend.visitor;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The code as written, to get the text of a node from its {@link Range}. Columns count a tab as one character,
+ * as the parser does by default.
+ */
+public final class SourceText {
+
+    private final String code;
+    private final int[] lineStarts;
+
+    public SourceText(String code) {
+        this.code = code;
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == code.length() || code.charAt(i + 1) != '\n'))) {
+                starts.add(i + 1);
+            }
+        }
+        this.lineStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     *
+     * @param position of a character
+     * @return the index of the character in the code
+     */
+    public int offsetOf(Position position) {
+        return lineStarts[position.line - 1] + position.column - 1;
+    }
+
+    /**
+     *
+     * @param range of a node
+     * @return the text of the node, as written
+     */
+    public String textOf(Range range) {
+        return code.substring(offsetOf(range.begin), offsetOf(range.end) + 1);
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
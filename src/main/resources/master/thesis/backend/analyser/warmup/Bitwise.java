@@ -0,0 +1,27 @@
+package warmup;
+
+@NoEqualsMethod
+public class Bitwise {
+
+    private boolean flag = true & false;
+
+    public boolean booleans(boolean a, boolean b, Boolean c) {
+        boolean and = a & b;
+        boolean or = a | c;
+        return and | or;
+    }
+
+    public boolean conditions(int a, int b) {
+        return a > 1 & b < 2 | a == b;
+    }
+
+    public int integers(int a, int b, long c) {
+        int mask = a & 0xFF;
+        long bits = c | b;
+        return mask | (int) bits ^ a;
+    }
+
+    public boolean logical(boolean a, boolean b) {
+        return a && b || !a;
+    }
+}
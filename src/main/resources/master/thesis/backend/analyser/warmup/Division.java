@@ -0,0 +1,44 @@
+package warmup;
+
+@NoEqualsMethod
+public class Division {
+
+    private double half = 1 / 2;
+    private double ratio = 3.0 / 4;
+    private final int count = 10;
+    private double third = count / 3;
+    private float share = (float) 1 / 2;
+
+    public double inReturn(int a, int b) {
+        return a / b;
+    }
+
+    public double inLocal(int a, short b, byte c, char d) {
+        double local = a / b;
+        double other = c / d;
+        double negated = -c / 2;
+        return local + other + negated;
+    }
+
+    public double mixed(long a, int b, double c) {
+        double promoted = a / b;
+        double decimal = c / b;
+        double cast = (double) a / b;
+        return promoted + decimal + cast;
+    }
+
+    public int integer(int a, int b) {
+        int whole = a / b;
+        return whole;
+    }
+
+    public double boxed(Integer a, Integer b) {
+        return a / b + count / a.intValue();
+    }
+
+    public void compound(int a) {
+        double value = 0;
+        value /= a;
+        System.out.println(value + a / 2);
+    }
+}
@@ -0,0 +1,53 @@
+package warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import unknown.Missing;
+
+@NoEqualsMethod
+public class Equality {
+
+    private final List<String> names = new ArrayList<>();
+    private Map<String, Integer> counts;
+    private Missing missing;
+
+    public boolean objects(Object first, Object second) {
+        return first == second;
+    }
+
+    public boolean strings(String first, String second) {
+        if (first != second) {
+            return false;
+        }
+        return names.get(0) == second;
+    }
+
+    public boolean arrays(int[] first, int[] second, String[][] words) {
+        boolean same = first == second;
+        return same || words[0] == words[1];
+    }
+
+    public boolean unresolved(Missing first, Missing second, Unknown third) {
+        boolean same = first == second;
+        return same && third == missing;
+    }
+
+    public boolean calledUpon(Missing first) {
+        return first.size() == missing;
+    }
+
+    public boolean primitivesAndNull(int a, long b, Object c, Integer d) {
+        return a == b || c == null || null != d || counts.size() == a || names.isEmpty() == false;
+    }
+
+    public void printed(Object a, Object b) {
+        System.out.println(a == b);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || Arrays.equals(new int[0], new int[0]);
+    }
+}
@@ -0,0 +1,42 @@
+package warmup;
+
+import java.util.List;
+
+@NoEqualsMethod
+public class IfStatements {
+
+    public void semicolon(int a) {
+        if (a > 0);
+        if (a < 0); else {
+            a++;
+        }
+    }
+
+    public void withoutBrackets(boolean b, List<String> lines) {
+        if (b)
+            System.out.println("first"); System.out.println("second");
+        if (lines.isEmpty())
+            lines.add("first"); lines.add("second");
+    }
+
+    public int correct(int a) {
+        if (a > 0) {
+            return 1;
+        } else if (a < 0) {
+            return -1;
+        }
+        if (a == 0)
+            return 0;
+        return a;
+    }
+
+    public void nested(boolean a, boolean b) {
+        if (a) {
+            if (b);
+        }
+        while (a) {
+            if (b)
+                a = false; b = true;
+        }
+    }
+}
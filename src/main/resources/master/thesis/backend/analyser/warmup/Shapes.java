@@ -0,0 +1,80 @@
+package warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class Shapes {
+
+    interface Shape {
+        double area();
+    }
+
+    enum Kind {
+        CIRCLE, SQUARE;
+
+        boolean isRound() {
+            return this == CIRCLE;
+        }
+    }
+
+    static class Circle implements Shape {
+        private final double radius;
+
+        Circle(double radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public double area() {
+            return Math.PI * radius * radius;
+        }
+    }
+
+    static class Square implements Shape {
+        private final int side;
+
+        Square(int side) {
+            this.side = side;
+        }
+
+        @Override
+        public double area() {
+            return side * side / 2;
+        }
+    }
+
+    private final List<Shape> shapes = new ArrayList<>();
+
+    public <T extends Shape> Optional<T> largest(List<T> candidates) {
+        return candidates.stream().max(Comparator.comparingDouble(Shape::area));
+    }
+
+    public String describe(Function<Shape, String> describer) {
+        return shapes.stream().map(describer).collect(Collectors.joining(", "));
+    }
+
+    public double total() {
+        double sum = 0;
+        for (Shape shape : shapes) {
+            sum += shape.area();
+        }
+        try {
+            return sum / shapes.size();
+        } catch (ArithmeticException e) {
+            return 0;
+        }
+    }
+
+    public boolean same(Shape a, Shape b) {
+        switch (shapes.size()) {
+            case 0:
+                return false;
+            default:
+                return a == b;
+        }
+    }
+}
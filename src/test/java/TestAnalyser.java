@@ -0,0 +1,557 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import master.thesis.backend.analyser.AnalysisExecutors;
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.analyser.AnalysisTruncatedException;
+import master.thesis.backend.analyser.ErrorListener;
+import master.thesis.backend.analyser.WarmUpResult;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.detector.Detector;
+import master.thesis.backend.detector.DetectorContext;
+import master.thesis.backend.detector.DetectorRegistry;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.EqualsOperatorError;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.IfWithoutBracketsError;
+import master.thesis.backend.errors.IntegerDivisionError;
+import master.thesis.backend.errors.MissingEqualsMethodError;
+import master.thesis.backend.errors.SemiColonAfterIfError;
+import master.thesis.backend.visitor.BugFinderVisitor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestAnalyser {
+
+    @Test
+    public void shouldNotKeepAnnotationsFromPreviousAnalysis() {
+        Analyser analyser = new Analyser();
+        BugReport first = analyser.analyse("@NoEqualsMethod class A {}");
+        Assertions.assertTrue(first.getBugs().isEmpty());
+
+        BugReport second = analyser.analyse("class A {}");
+        Assertions.assertFalse(second.getBugs().isEmpty());
+        Assertions.assertTrue(second.getBugs().get(0) instanceof MissingEqualsMethodError);
+    }
+
+    @Test
+    public void shouldGiveSameReportsWhenSharedBetweenThreads() throws Exception {
+        String code =
+                "@NoEqualsMethod " +
+                "class A { " +
+                    "public A(Object a, Object b) { " +
+                        "boolean bo = a==b; " +
+                    "} " +
+                "}";
+        Analyser analyser = new Analyser();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BugReport>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> analyser.analyse(code)));
+            }
+            for (Future<BugReport> future : futures) {
+                BugReport report = future.get();
+                Assertions.assertFalse(report.getException().isPresent());
+                Assertions.assertEquals(1, report.getBugs().size());
+                Assertions.assertTrue(report.getBugs().get(0) instanceof EqualsOperatorError);
+                Assertions.assertEquals("a.equals(b)", report.getBugs().get(0).getSuggestion().get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReturnReportsInSameOrderAsCodes() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            codes.add(i % 2 == 0 ? integerDivisionInClass("A" + i) : "@NoEqualsMethod class B" + i + " {}");
+        }
+        List<BugReport> reports = new Analyser().analyseAll(codes.iterator(), 4);
+        Assertions.assertEquals(codes.size(), reports.size());
+        for (int i = 0; i < reports.size(); i++) {
+            BugReport report = reports.get(i);
+            if (i % 2 == 0) {
+                Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+                Assertions.assertEquals("A" + i, report.getBugs().get(0).getContainingClass());
+            } else {
+                Assertions.assertTrue(report.getBugs().isEmpty());
+                Assertions.assertEquals("B" + i, report.getClassName());
+            }
+        }
+    }
+
+    @Test
+    public void shouldGiveEmptyListWhenNoCodes() {
+        Assertions.assertTrue(new Analyser().analyseAll(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void shouldGiveSameReportsWithManyWorkersAsWithOne() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            if (i % 3 == 0) {
+                codes.add("class C" + i + " {");
+            } else if (i % 3 == 1) {
+                codes.add("class B" + i + " { boolean m(String a, String b) { if (a == b) return true; return false; } }");
+            } else {
+                codes.add(integerDivisionInClass("A" + i));
+            }
+        }
+        Analyser analyser = new Analyser();
+        List<BugReport> sequential = analyser.analyseAll(codes.iterator(), 1);
+        List<BugReport> parallel = analyser.analyseAll(codes.iterator(), 4);
+        Assertions.assertEquals(codes.size(), parallel.size());
+        for (int i = 0; i < codes.size(); i++) {
+            Assertions.assertEquals(sequential.get(i).getException().isPresent(), parallel.get(i).getException().isPresent());
+            Assertions.assertEquals(sequential.get(i).getBugs().size(), parallel.get(i).getBugs().size());
+            for (int j = 0; j < sequential.get(i).getBugs().size(); j++) {
+                BaseError expected = sequential.get(i).getBugs().get(j);
+                BaseError actual = parallel.get(i).getBugs().get(j);
+                Assertions.assertEquals(expected.getClass(), actual.getClass());
+                Assertions.assertEquals(expected.getContainingClass(), actual.getContainingClass());
+                Assertions.assertEquals(expected.getLineNumber(), actual.getLineNumber());
+                Assertions.assertEquals(expected.getSuggestion(), actual.getSuggestion());
+            }
+        }
+    }
+
+    @Test
+    public void shouldGiveReportFromAsyncAnalysis() throws Exception {
+        CompletableFuture<BugReport> future = new Analyser().analyseAsync(integerDivisionInClass("A"));
+        BugReport report = future.get();
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+    }
+
+    @Test
+    public void shouldRunAsyncAnalysisOnGivenExecutor() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        Analyser analyser = new Analyser();
+        analyser.setExecutor(runnable -> {
+            executions.incrementAndGet();
+            runnable.run();
+        });
+        BugReport report = analyser.analyseAsync("class A {}").get();
+        Assertions.assertEquals(1, executions.get());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof MissingEqualsMethodError);
+    }
+
+    @Test
+    public void shouldHaveVirtualThreadsFromJava21() {
+        Assertions.assertEquals(Runtime.version().feature() >= 21, AnalysisExecutors.virtualThreadPerTask().isPresent());
+    }
+
+    @Test
+    public void shouldOnlyFindEnabledKinds() {
+        String code =
+                "class A { " +
+                    "public double m(int a, int b) { " +
+                        "return a/b; " +
+                    "} " +
+                "}";
+        AnalysisOptions options = new AnalysisOptions();
+        options.setEnabledKinds(EnumSet.of(ErrorKind.INTEGER_DIVISION));
+        BugReport report = new Analyser().analyse(code, options);
+        Assertions.assertEquals(1, report.getBugs().size());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+    }
+
+    @Test
+    public void shouldFindSyntaxErrorsWithoutSymbolSolver() {
+        String code =
+                "@NoEqualsMethod " +
+                "class A { " +
+                    "public void m(Object a, Object b) {\n" +
+                        "if (a == b);\n" +
+                        "if (a != b)\n" +
+                            "a.toString();\n" +
+                            "b.toString();\n" +
+                    "} " +
+                "}";
+        AnalysisOptions options = new AnalysisOptions();
+        options.setEnabledKinds(EnumSet.of(ErrorKind.IF_WITHOUT_BRACKETS, ErrorKind.SEMICOLON_AFTER_IF));
+        BugReport report = new Analyser().analyse(code, options);
+        Assertions.assertFalse(report.getException().isPresent());
+        Assertions.assertEquals(2, report.getBugs().size());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof SemiColonAfterIfError);
+        Assertions.assertTrue(report.getBugs().get(1) instanceof IfWithoutBracketsError);
+    }
+
+    @Test
+    public void shouldUseRegisteredDetector() {
+        DetectorRegistry registry = DetectorRegistry.withDefaultDetectors();
+        registry.register(new Detector() {
+            @Override
+            public ErrorKind getKind() {
+                return ErrorKind.MISSING_EQUALS_METHOD;
+            }
+
+            @Override
+            public Set<Class<? extends Node>> getNodeTypes() {
+                return Collections.singleton(MethodDeclaration.class);
+            }
+
+            @Override
+            public boolean requiresSymbolResolution() {
+                return false;
+            }
+
+            @Override
+            public void check(Node node, DetectorContext context) {
+                if (((MethodDeclaration) node).getNameAsString().equals("hashCode")) {
+                    MissingEqualsMethodError error = new MissingEqualsMethodError();
+                    error.setContainingClass(context.getContainingClass().orElse(""));
+                    context.report(error);
+                }
+            }
+        });
+        Analyser analyser = new Analyser();
+        analyser.setDetectorRegistry(registry);
+        AnalysisOptions options = new AnalysisOptions();
+        options.setEnabledKinds(EnumSet.of(ErrorKind.MISSING_EQUALS_METHOD));
+        BugReport report = analyser.analyse("class A { public int hashCode() { return 1; } }", options);
+        Assertions.assertEquals(2, report.getBugs().size());
+        Assertions.assertEquals("A", report.getBugs().get(0).getContainingClass());
+    }
+
+    @Test
+    public void shouldRenderErrorsBeforeHandingReportsOver() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        DetectorRegistry registry = DetectorRegistry.withDefaultDetectors();
+        registry.register(new Detector() {
+            @Override
+            public ErrorKind getKind() {
+                return ErrorKind.INTEGER_DIVISION;
+            }
+
+            @Override
+            public Set<Class<? extends Node>> getNodeTypes() {
+                return Collections.singleton(BinaryExpr.class);
+            }
+
+            @Override
+            public boolean requiresSymbolResolution() {
+                return false;
+            }
+
+            @Override
+            public void check(Node node, DetectorContext context) {
+                IntegerDivisionError error = new IntegerDivisionError();
+                error.setLeftOperand(() -> {
+                    renders.incrementAndGet();
+                    return node.toString();
+                });
+                context.report(error);
+            }
+        });
+        Analyser analyser = new Analyser();
+        analyser.setDetectorRegistry(registry);
+        String code = "@NoEqualsMethod class A { int a = 1 + 2; }";
+
+        Assertions.assertEquals(1, analyser.analyse(code).getBugs().size());
+        Assertions.assertEquals(0, renders.get());
+        analyser.analyseAll(List.of(code, code.replace("class A", "class B")));
+        Assertions.assertEquals(2, renders.get());
+        analyser.analyseFiles(Map.of("C.java", code.replace("class A", "class C")));
+        Assertions.assertEquals(3, renders.get());
+        BugReport report = analyser.analyseAsync(code.replace("class A", "class D")).get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(4, renders.get());
+        Assertions.assertEquals("1 + 2", ((IntegerDivisionError) report.getBugs().get(0)).getLeftOperand());
+        Assertions.assertEquals(4, renders.get());
+    }
+
+    @Test
+    public void shouldNotAcceptDetectorForUnsupportedNodeType() {
+        Detector detector = new Detector() {
+            @Override
+            public ErrorKind getKind() {
+                return ErrorKind.EQUALS_OPERATOR;
+            }
+
+            @Override
+            public Set<Class<? extends Node>> getNodeTypes() {
+                return Collections.singleton(LambdaExpr.class);
+            }
+
+            @Override
+            public boolean requiresSymbolResolution() {
+                return false;
+            }
+
+            @Override
+            public void check(Node node, DetectorContext context) {}
+        };
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BugFinderVisitor(null, Collections.singletonList(detector)));
+    }
+
+    @Test
+    public void shouldGiveErrorsToListenerAsTheyAreFound() {
+        String code = "class A { double m(int a, int b, Object c) { if (c == null); return a / b; } }";
+        Analyser analyser = new Analyser();
+        List<String> events = new ArrayList<>();
+        analyser.analyse(code, new AnalysisOptions(), new ErrorListener() {
+            @Override
+            public void onError(BaseError error) {
+                events.add(error.getName());
+            }
+
+            @Override
+            public void onComplete() {
+                events.add("complete");
+            }
+        });
+        List<String> expected = new ArrayList<>();
+        for (BaseError error : analyser.analyse(code).getBugs()) {
+            expected.add(error.getName());
+        }
+        expected.add("complete");
+        Assertions.assertEquals(expected, events);
+    }
+
+    @Test
+    public void shouldGiveParseErrorToListener() {
+        List<Throwable> exceptions = new ArrayList<>();
+        new Analyser().analyse("class A {", new AnalysisOptions(), new ErrorListener() {
+            @Override
+            public void onError(BaseError error) {
+                Assertions.fail("No errors expected");
+            }
+
+            @Override
+            public void onComplete() {
+                Assertions.fail("Not expected to complete");
+            }
+
+            @Override
+            public void onException(Throwable exception) {
+                exceptions.add(exception);
+            }
+        });
+        Assertions.assertEquals(1, exceptions.size());
+    }
+
+    @Test
+    public void shouldPublishErrorsWhenRequested() throws Exception {
+        String code = "class A { double a = 1 / 2; double b = 3 / 4; double c = 5 / 6; }";
+        BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        CompletableFuture<Flow.Subscription> subscribed = new CompletableFuture<>();
+        new Analyser().publish(code, new AnalysisOptions()).subscribe(new Flow.Subscriber<BaseError>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscribed.complete(subscription);
+            }
+
+            @Override
+            public void onNext(BaseError item) {
+                events.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                events.add("complete");
+            }
+        });
+        Flow.Subscription subscription = subscribed.get(10, TimeUnit.SECONDS);
+        subscription.request(1);
+        Assertions.assertTrue(events.poll(10, TimeUnit.SECONDS) instanceof IntegerDivisionError);
+        Assertions.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+        subscription.request(10);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(events.poll(10, TimeUnit.SECONDS) instanceof BaseError);
+        }
+        Assertions.assertEquals("complete", events.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldStopPublishingWhenCancelled() throws Exception {
+        String code = "class A { double a = 1 / 2; double b = 3 / 4; }";
+        BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        new Analyser().publish(code, new AnalysisOptions()).subscribe(new Flow.Subscriber<BaseError>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(BaseError item) {
+                events.add(item);
+                subscription.cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                events.add("complete");
+            }
+        });
+        Assertions.assertTrue(events.poll(10, TimeUnit.SECONDS) instanceof IntegerDivisionError);
+        Assertions.assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldNotWaitForSubscriberToRequestErrors() {
+        String code = "class A { double a = 1 / 2; double b = 3 / 4; double c = 5 / 6; }";
+        Analyser analyser = new Analyser();
+        analyser.setExecutor(Runnable::run);
+        List<Object> events = new ArrayList<>();
+        analyser.publish(code, new AnalysisOptions(), 2).subscribe(new Flow.Subscriber<BaseError>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {}
+
+            @Override
+            public void onNext(BaseError item) {
+                events.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                events.add("complete");
+            }
+        });
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertTrue(events.get(0) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void shouldTellSubscriberAndListenerWhenTruncated() {
+        String code = "class A { double a = 1 / 2; double b = 3 / 4; }";
+        AnalysisOptions options = new AnalysisOptions();
+        options.setMaxErrors(1);
+        Analyser analyser = new Analyser();
+        analyser.setExecutor(Runnable::run);
+        List<Object> events = new ArrayList<>();
+        analyser.publish(code, options).subscribe(new Flow.Subscriber<BaseError>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(BaseError item) {
+                events.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                events.add("complete");
+            }
+        });
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertTrue(events.get(0) instanceof IntegerDivisionError);
+        Assertions.assertTrue(events.get(1) instanceof AnalysisTruncatedException);
+
+        List<String> listened = new ArrayList<>();
+        analyser.analyse(code, options, new ErrorListener() {
+            @Override
+            public void onError(BaseError error) {
+                listened.add("error");
+            }
+
+            @Override
+            public void onTruncated() {
+                listened.add("truncated");
+            }
+
+            @Override
+            public void onComplete() {
+                listened.add("complete");
+            }
+        });
+        Assertions.assertEquals(List.of("error", "truncated", "complete"), listened);
+    }
+
+    @Test
+    public void shouldInitializeOnce() {
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        Assertions.assertFalse(analyser.isInitialized());
+        analyser.initialize();
+        analyser.initialize();
+        Assertions.assertTrue(analyser.isInitialized());
+        Assertions.assertEquals(0, cache.getStatistics().getEntries());
+
+        BugReport report = analyser.analyse(integerDivisionInClass("A"));
+        Assertions.assertEquals(1, report.getBugs().size());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+    }
+
+    @Test
+    public void shouldInitializeInBackground() throws Exception {
+        Analyser analyser = new Analyser();
+        CompletableFuture<Void> initialization = analyser.initializeAsync();
+        Assertions.assertSame(initialization, analyser.initializeAsync());
+        Assertions.assertEquals(1, analyser.analyse(integerDivisionInClass("A")).getBugs().size());
+        initialization.get(30, TimeUnit.SECONDS);
+        Assertions.assertTrue(analyser.isInitialized());
+    }
+
+    @Test
+    public void shouldWarmUpWithinMaxTime() {
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        WarmUpResult result = analyser.warmUp(Duration.ofMillis(200));
+        Assertions.assertTrue(analyser.isInitialized());
+        Assertions.assertTrue(result.getIterations() >= 1);
+        Assertions.assertTrue(result.getDuration().compareTo(Duration.ofMillis(200)) >= 0 || result.isStable());
+        Assertions.assertTrue(result.toString().startsWith("Warmed up in "));
+        Assertions.assertEquals(0, cache.getStatistics().getEntries());
+
+        BugReport report = analyser.analyse(integerDivisionInClass("A"));
+        Assertions.assertEquals(1, report.getBugs().size());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+    }
+
+    private String integerDivisionInClass(String className) {
+        return "@NoEqualsMethod " +
+                "class " + className + " { " +
+                    "public double m(int a, int b) { " +
+                        "return a/b; " +
+                    "} " +
+                "}";
+    }
+}
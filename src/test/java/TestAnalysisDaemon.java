@@ -0,0 +1,100 @@
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.daemon.AnalysisClient;
+import master.thesis.backend.daemon.AnalysisDaemon;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestAnalysisDaemon {
+
+    private static final String CODE =
+            "class A {\n" +
+            "    double d = 1 / 2;\n" +
+            "    boolean m(Object a, Object b) {\n" +
+            "        if (a == b);\n" +
+            "        return true | false;\n" +
+            "    }\n" +
+            "}\n";
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void needsUnixDomainSockets() {
+        Assumptions.assumeTrue(AnalysisDaemon.isSupported(), "Unix domain sockets need Java 16");
+    }
+
+    @Test
+    public void shouldGiveSameReportsAsAnalyser() throws IOException {
+        Path socket = directory.resolve("daemon.sock");
+        try (AnalysisDaemon daemon = AnalysisDaemon.start(new Analyser(), socket, Duration.ofMinutes(1));
+             AnalysisClient client = AnalysisClient.connect(socket)) {
+            Analyser analyser = new Analyser();
+            for (String code : new String[] {CODE, "class B {", "@NoEqualsMethod class C { int c = 3 / 4; }"}) {
+                BugReport expected = analyser.analyse(code);
+                BugReport actual = client.analyse(code);
+                Assertions.assertEquals(describe(expected), describe(actual));
+                Assertions.assertEquals(expected.getClassName(), actual.getClassName());
+                Assertions.assertEquals(expected.getException().isPresent(), actual.getException().isPresent());
+            }
+        }
+        Assertions.assertFalse(Files.exists(socket));
+    }
+
+    @Test
+    public void shouldShutDownWhenIdle() throws Exception {
+        Path socket = directory.resolve("idle.sock");
+        AnalysisDaemon daemon = AnalysisDaemon.start(new Analyser(), socket, Duration.ofMillis(200));
+        try (AnalysisClient client = AnalysisClient.connect(socket)) {
+            client.analyse(CODE);
+        }
+        for (int i = 0; i < 100 && daemon.isRunning(); i++) {
+            Thread.sleep(20);
+        }
+        Assertions.assertFalse(daemon.isRunning());
+        Assertions.assertFalse(Files.exists(socket));
+        Assertions.assertThrows(IOException.class, () -> AnalysisClient.connect(socket));
+    }
+
+    @Test
+    public void shouldNotStartTwoDaemonsOnOneSocket() throws IOException {
+        Path socket = directory.resolve("twice.sock");
+        Files.createFile(socket);
+        try (AnalysisDaemon daemon = AnalysisDaemon.start(new Analyser(), socket, Duration.ofMinutes(1))) {
+            Assertions.assertThrows(IOException.class, () -> AnalysisDaemon.start(new Analyser(), socket, Duration.ofMinutes(1)));
+            Assertions.assertTrue(daemon.isRunning());
+        }
+    }
+
+    @Test
+    public void shouldSpawnDaemonAndShutItDown() throws Exception {
+        Path socket = directory.resolve("spawned.sock");
+        try (AnalysisClient client = AnalysisClient.connectOrSpawn(socket, Duration.ofMinutes(1))) {
+            Assertions.assertEquals(describe(new Analyser().analyse(CODE)), describe(client.analyse(CODE)));
+            client.shutdownDaemon();
+        }
+        for (int i = 0; i < 100 && Files.exists(socket); i++) {
+            Thread.sleep(20);
+        }
+        Assertions.assertFalse(Files.exists(socket));
+    }
+
+    private List<String> describe(BugReport report) {
+        List<String> descriptions = new ArrayList<>();
+        for (BaseError error : report.getBugs()) {
+            descriptions.add(error.getName() + " " + error.getLineNumber() + " " + error.getSuggestion().orElse(""));
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,110 @@
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.AnalysisSession;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.analyser.CancellationToken;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.errors.BugReport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class TestAnalysisLimits {
+
+    private static final String CODE =
+            "@NoEqualsMethod\n" +
+            "class A {\n" +
+            "    double a = 1 / 2;\n" +
+            "    double b = 3 / 4;\n" +
+            "    double c = 5 / 6;\n" +
+            "}\n";
+
+    @Test
+    public void shouldStopAtMaxErrors() {
+        AnalysisOptions options = new AnalysisOptions();
+        options.setMaxErrors(2);
+        BugReport report = new Analyser().analyse(CODE, options);
+        Assertions.assertEquals(2, report.getBugs().size());
+        Assertions.assertTrue(report.isTruncated());
+        Assertions.assertEquals(3, report.getBugs().get(0).getLineNumber());
+    }
+
+    @Test
+    public void shouldNotBeTruncatedWithExactlyMaxErrors() {
+        AnalysisOptions options = new AnalysisOptions();
+        options.setMaxErrors(3);
+        BugReport report = new Analyser().analyse(CODE, options);
+        Assertions.assertEquals(3, report.getBugs().size());
+        Assertions.assertFalse(report.isTruncated());
+    }
+
+    @Test
+    public void shouldStopWhenCancelled() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        AnalysisOptions options = new AnalysisOptions();
+        options.setCancellationToken(token);
+        BugReport report = new Analyser().analyse(CODE, options);
+        Assertions.assertTrue(report.getBugs().isEmpty());
+        Assertions.assertTrue(report.isTruncated());
+        Assertions.assertFalse(report.getException().isPresent());
+    }
+
+    @Test
+    public void shouldStopWhenTimeLimitHasPassed() {
+        StringBuilder code = new StringBuilder("class Big {\n");
+        for (int i = 0; i < 2000; i++) {
+            code.append("    double d").append(i).append(" = ").append(i).append(" / 2;\n");
+        }
+        code.append("}\n");
+        AnalysisOptions options = new AnalysisOptions();
+        options.setTimeLimit(Duration.ofNanos(1));
+        BugReport report = new Analyser().analyse(code.toString(), options);
+        Assertions.assertTrue(report.isTruncated());
+        Assertions.assertTrue(report.getBugs().size() < 2000);
+    }
+
+    @Test
+    public void shouldNotCacheTruncatedReport() {
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        AnalysisOptions options = new AnalysisOptions();
+        options.setCancellationToken(token);
+        analyser.analyse(CODE, options);
+        Assertions.assertEquals(0, cache.getStatistics().getEntries());
+
+        BugReport report = analyser.analyse(CODE);
+        Assertions.assertFalse(report.isTruncated());
+        Assertions.assertEquals(3, report.getBugs().size());
+    }
+
+    @Test
+    public void shouldAnalyseEverythingAfterTruncatedSession() {
+        CancellationToken token = new CancellationToken();
+        AnalysisOptions options = new AnalysisOptions();
+        options.setCancellationToken(token);
+        options.setMaxErrors(1);
+        Analyser analyser = new Analyser();
+        String code = "class A {\n  double m() { return 1 / 2; }\n  double n() { return 3 / 4; }\n}\n";
+        AnalysisSession session = analyser.startSession(code, options);
+        Assertions.assertTrue(session.getReport().isTruncated());
+
+        AnalysisSession next = analyser.reanalyse(session, code.replace("3 / 4", "3.0 / 4"));
+        Assertions.assertEquals(0, next.getNumberOfReusedBodies());
+        Assertions.assertEquals(1, next.getReport().getBugs().size());
+        Assertions.assertTrue(next.getReport().isTruncated());
+
+        token.cancel();
+        Assertions.assertTrue(analyser.reanalyse(next, code).getReport().getBugs().isEmpty());
+    }
+
+    @Test
+    public void shouldNotAcceptNegativeLimits() {
+        AnalysisOptions options = new AnalysisOptions();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> options.setMaxErrors(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> options.setTimeLimit(Duration.ZERO));
+    }
+}
@@ -0,0 +1,118 @@
+import master.thesis.backend.analyser.AnalysisMetrics;
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.AnalysisSession;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestAnalysisMetrics {
+
+    private static final String CODE =
+            "@NoEqualsMethod " +
+            "class A { " +
+                "boolean m(String a, String b) { " +
+                    "return a.trim() == b.substring(1); " +
+                "} " +
+            "}";
+
+    private static AnalysisOptions withMetrics() {
+        AnalysisOptions options = new AnalysisOptions();
+        options.setMetricsEnabled(true);
+        return options;
+    }
+
+    @Test
+    public void shouldNotMeasureByDefault() {
+        Assertions.assertFalse(new Analyser().analyse(CODE).getMetrics().isPresent());
+    }
+
+    @Test
+    public void shouldMeasureEveryPhase() {
+        BugReport report = new Analyser().analyse(CODE, withMetrics());
+        Assertions.assertEquals(1, report.getBugs().size());
+        AnalysisMetrics metrics = report.getMetrics().get();
+
+        Duration phases = Duration.ZERO;
+        for (AnalysisMetrics.Phase phase : AnalysisMetrics.Phase.values()) {
+            Assertions.assertFalse(metrics.getTime(phase).isNegative());
+            phases = phases.plus(metrics.getTime(phase));
+        }
+        Assertions.assertTrue(metrics.getTime(AnalysisMetrics.Phase.PARSE).compareTo(Duration.ZERO) > 0);
+        Assertions.assertTrue(metrics.getTime(AnalysisMetrics.Phase.SYMBOL_RESOLUTION).compareTo(Duration.ZERO) > 0);
+        Assertions.assertEquals(phases, metrics.getTotalTime());
+
+        Assertions.assertTrue(metrics.getNodes() > metrics.getCheckedNodes());
+        Assertions.assertTrue(metrics.getCheckedNodes() > 0);
+        Assertions.assertEquals(2, metrics.getSymbolResolutions());
+        Assertions.assertEquals(0, metrics.getSymbolResolutionFailures());
+        Assertions.assertNotEquals(0, metrics.getCpuTimeNanos());
+        Assertions.assertNotEquals(0, metrics.getAllocatedBytes());
+    }
+
+    @Test
+    public void shouldCountFailedSymbolResolutions() {
+        String code = "class A { boolean m(Student a, Student b) { return a.name() == b.name(); } }";
+        AnalysisOptions options = withMetrics();
+        options.setEnabledKinds(EnumSet.of(ErrorKind.EQUALS_OPERATOR));
+        AnalysisMetrics metrics = new Analyser().analyse(code, options).getMetrics().get();
+        Assertions.assertTrue(metrics.getSymbolResolutionFailures() > 0);
+        Assertions.assertTrue(metrics.getSymbolResolutionFailures() <= metrics.getSymbolResolutions());
+    }
+
+    @Test
+    public void shouldMeasureParseOfCodeWithParseError() {
+        BugReport report = new Analyser().analyse("class A {", withMetrics());
+        Assertions.assertTrue(report.getException().isPresent());
+        AnalysisMetrics metrics = report.getMetrics().get();
+        Assertions.assertEquals(metrics.getTime(AnalysisMetrics.Phase.PARSE), metrics.getTotalTime());
+        Assertions.assertEquals(0, metrics.getNodes());
+    }
+
+    @Test
+    public void shouldMeasureWhenReportIsCached() {
+        Analyser analyser = new Analyser();
+        ReportCache cache = new ReportCache(10, 1_000_000);
+        analyser.setReportCache(cache);
+        Assertions.assertFalse(analyser.analyse(CODE).getMetrics().isPresent());
+        long misses = cache.getStatistics().getMisses();
+
+        BugReport first = analyser.analyse(CODE, withMetrics());
+        BugReport second = analyser.analyse(CODE, withMetrics());
+        Assertions.assertFalse(first.isSnapshot());
+        Assertions.assertTrue(first.getMetrics().isPresent());
+        Assertions.assertTrue(second.getMetrics().isPresent());
+        Assertions.assertNotSame(first.getMetrics().get(), second.getMetrics().get());
+        Assertions.assertEquals(0, cache.getStatistics().getHits());
+        Assertions.assertEquals(misses, cache.getStatistics().getMisses());
+        Assertions.assertTrue(analyser.analyse(CODE).isSnapshot());
+    }
+
+    @Test
+    public void shouldKeepMetricsInSnapshot() {
+        BugReport report = new Analyser().analyse(CODE, withMetrics());
+        BugReport snapshot = report.snapshot();
+        Assertions.assertSame(report.getMetrics().get(), snapshot.getMetrics().get());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.setMetrics(null));
+    }
+
+    @Test
+    public void shouldMeasureFilesOfProgramAndSessions() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("A.java", CODE);
+        sources.put("B.java", "class B {");
+        Map<String, BugReport> reports = new Analyser().analyseFiles(sources, 2, withMetrics());
+        Assertions.assertTrue(reports.get("A.java").getMetrics().get().getCheckedNodes() > 0);
+        Assertions.assertEquals(0, reports.get("B.java").getMetrics().get().getNodes());
+
+        AnalysisSession session = new Analyser().startSession(CODE, withMetrics());
+        Assertions.assertEquals(2, session.getReport().getMetrics().get().getSymbolResolutions());
+    }
+}
@@ -0,0 +1,120 @@
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.IntegerDivisionError;
+import master.thesis.backend.serialization.ReportJson;
+import master.thesis.backend.server.AnalysisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TestAnalysisServer {
+
+    private static final String CODE = "@NoEqualsMethod class A { double d = 1 / 2; }";
+
+    private AnalysisServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = AnalysisServer.start(new Analyser(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), null, 1000);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void shouldAnalyseCode() throws Exception {
+        HttpResponse<byte[]> response = post(AnalysisServer.ANALYSE_PATH, CODE.getBytes());
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.headers().firstValue("Content-Type").get().startsWith("application/json"));
+        BugReport report = ReportJson.read(new ByteArrayInputStream(response.body()));
+        Assertions.assertEquals(1, report.getBugs().size());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+    }
+
+    @Test
+    public void shouldAnalyseBatchInOrder() throws Exception {
+        List<String> codes = Arrays.asList(CODE, "class B {", "@NoEqualsMethod class C { }");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ReportJson.writeSources(codes, body);
+        HttpResponse<byte[]> response = post(AnalysisServer.BATCH_PATH, body.toByteArray());
+        Assertions.assertEquals(200, response.statusCode());
+        List<BugReport> reports = ReportJson.readAll(new ByteArrayInputStream(response.body()));
+        Assertions.assertEquals(3, reports.size());
+        Assertions.assertEquals(1, reports.get(0).getBugs().size());
+        Assertions.assertTrue(reports.get(1).getException().isPresent());
+        Assertions.assertEquals("C", reports.get(2).getClassName());
+        Assertions.assertTrue(reports.get(2).getBugs().isEmpty());
+    }
+
+    @Test
+    public void shouldRejectBadRequests() throws Exception {
+        Assertions.assertEquals(400, post(AnalysisServer.BATCH_PATH, "{\"a\": 1}".getBytes()).statusCode());
+        Assertions.assertEquals(413, post(AnalysisServer.ANALYSE_PATH, new byte[1001]).statusCode());
+        Assertions.assertEquals(404, post(AnalysisServer.ANALYSE_PATH + "/other", CODE.getBytes()).statusCode());
+        HttpResponse<byte[]> get = client.send(HttpRequest.newBuilder(uri(AnalysisServer.ANALYSE_PATH)).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        Assertions.assertEquals(405, get.statusCode());
+        Assertions.assertEquals("POST", get.headers().firstValue("Allow").get());
+
+        Assertions.assertEquals(200, post(AnalysisServer.ANALYSE_PATH, CODE.getBytes()).statusCode());
+    }
+
+    @Test
+    public void shouldServeManyClientsAtOnce() throws Exception {
+        int clients = 8;
+        int requestsPerClient = 25;
+        ExecutorService threads = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                results.add(threads.submit(() -> {
+                    int errors = 0;
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        String code = "@NoEqualsMethod class A" + client + " { double d = " + i + " / 2; }";
+                        HttpResponse<byte[]> response = post(AnalysisServer.ANALYSE_PATH, code.getBytes());
+                        Assertions.assertEquals(200, response.statusCode());
+                        BugReport report = ReportJson.read(new ByteArrayInputStream(response.body()));
+                        Assertions.assertEquals("A" + client, report.getClassName());
+                        errors += report.getBugs().size();
+                    }
+                    return errors;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                Assertions.assertEquals(requestsPerClient, result.get());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private HttpResponse<byte[]> post(String path, byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
@@ -0,0 +1,127 @@
+import master.thesis.backend.analyser.AnalysisSession;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestAnalysisSession {
+
+    private static final String CODE =
+            "class A {\n" +
+            "    int field = 7 / 2;\n" +
+            "    double first(int a, int b) {\n" +
+            "        return a / b;\n" +
+            "    }\n" +
+            "    boolean second(Object a, Object b) {\n" +
+            "        if (a == b)\n" +
+            "            a.toString();\n" +
+            "            b.toString();\n" +
+            "        return true & false;\n" +
+            "    }\n" +
+            "    void third(Object o) {\n" +
+            "        class Local {}\n" +
+            "        if (o == null);\n" +
+            "    }\n" +
+            "}\n";
+
+    private final Analyser analyser = new Analyser();
+
+    @Test
+    public void shouldGiveSameReportAsFullAnalysis() {
+        AnalysisSession session = analyser.startSession(CODE);
+        assertSameReport(analyser.analyse(CODE), session.getReport());
+        Assertions.assertEquals(0, session.getNumberOfReusedBodies());
+    }
+
+    @Test
+    public void shouldOnlyAnalyseChangedBody() {
+        AnalysisSession session = analyser.startSession(CODE);
+        String edited = CODE.replace("return a / b;", "return (double) a / b;");
+        AnalysisSession next = analyser.reanalyse(session, edited);
+        Assertions.assertEquals(2, next.getNumberOfReusedBodies());
+        assertSameReport(analyser.analyse(edited), next.getReport());
+    }
+
+    @Test
+    public void shouldMoveLineNumbersOfReusedErrors() {
+        AnalysisSession session = analyser.startSession(CODE);
+        String edited = CODE.replace("return a / b;", "int c = a;\n\n        return a / b;");
+        AnalysisSession next = analyser.reanalyse(session, edited);
+        Assertions.assertEquals(2, next.getNumberOfReusedBodies());
+        assertSameReport(analyser.analyse(edited), next.getReport());
+        Assertions.assertEquals(9, next.getReport().getBugs().get(2).getLineNumber());
+    }
+
+    @Test
+    public void shouldAnalyseEverythingWhenDeclarationChanges() {
+        AnalysisSession session = analyser.startSession(CODE);
+        String edited = CODE.replace("int field = 7 / 2;", "double field = 7 / 2;");
+        AnalysisSession next = analyser.reanalyse(session, edited);
+        Assertions.assertEquals(0, next.getNumberOfReusedBodies());
+        assertSameReport(analyser.analyse(edited), next.getReport());
+    }
+
+    @Test
+    public void shouldAnalyseEverythingWhenAnnotationChanges() {
+        AnalysisSession session = analyser.startSession(CODE);
+        String edited = "@IntegerDivisionAllowed\n" + CODE;
+        AnalysisSession next = analyser.reanalyse(session, edited);
+        Assertions.assertEquals(0, next.getNumberOfReusedBodies());
+        assertSameReport(analyser.analyse(edited), next.getReport());
+    }
+
+    @Test
+    public void shouldNotReuseBodyWhenIndentationChanges() {
+        AnalysisSession session = analyser.startSession(CODE);
+        String edited = CODE.replace("    boolean second", "  boolean second");
+        AnalysisSession next = analyser.reanalyse(session, edited);
+        Assertions.assertEquals(2, next.getNumberOfReusedBodies());
+        assertSameReport(analyser.analyse(edited), next.getReport());
+    }
+
+    @Test
+    public void shouldReanalyseAfterParseError() {
+        AnalysisSession session = analyser.startSession(CODE);
+        AnalysisSession broken = analyser.reanalyse(session, CODE.replace("return true & false;", "return true &"));
+        Assertions.assertTrue(broken.getReport().getException().isPresent());
+        AnalysisSession fixed = analyser.reanalyse(broken, CODE);
+        assertSameReport(session.getReport(), fixed.getReport());
+    }
+
+    @Test
+    public void shouldGiveSameReportsForManyEdits() {
+        AnalysisSession session = analyser.startSession(CODE);
+        String code = CODE;
+        String[][] edits = {
+                {"return a / b;", "return a / b + 1;"},
+                {"class Local {}", "class Local { public boolean equals(Object o) { return true; } }"},
+                {"return true & false;", "return true && false;"},
+                {"if (o == null);", "if (o == null) {}"},
+                {"return a / b + 1;", "return a / b;"},
+        };
+        for (String[] edit : edits) {
+            code = code.replace(edit[0], edit[1]);
+            session = analyser.reanalyse(session, code);
+            assertSameReport(analyser.analyse(code), session.getReport());
+            Assertions.assertEquals(2, session.getNumberOfReusedBodies());
+        }
+    }
+
+    private void assertSameReport(BugReport expected, BugReport actual) {
+        Assertions.assertEquals(describe(expected), describe(actual));
+        Assertions.assertEquals(expected.getClassName(), actual.getClassName());
+        Assertions.assertEquals(expected.getException().isPresent(), actual.getException().isPresent());
+    }
+
+    private List<String> describe(BugReport report) {
+        List<String> descriptions = new ArrayList<>();
+        for (BaseError error : report.getBugs()) {
+            descriptions.add(error.getName() + " " + error.getContainingClass() + ":" + error.getLineNumber() + " " + error.getSuggestion().orElse(""));
+        }
+        return descriptions;
+    }
+}
@@ -1,18 +1,31 @@
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import master.thesis.backend.adapter.AnnotationsAdapter;
 import master.thesis.backend.analyser.Analyser;
 import master.thesis.backend.analyser.AnalyserConfiguration;
 import master.thesis.backend.errors.*;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import master.thesis.backend.visitor.BugFinderVisitor;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Optional;
 
 public class TestBugFinder {
 
+    /**
+     * The tests reading from file parse with {@link StaticJavaParser}, which is not configured by {@link Analyser}.
+     */
+    @BeforeAll
+    public static void configureStaticJavaParser() {
+        StaticJavaParser.getConfiguration().setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+    }
 
     @Test
     public void shouldGiveErrorWhenMissingEqualsMethod() {
@@ -776,4 +789,119 @@ public class TestBugFinder {
         BugReport report = new Analyser().analyse(code);
         Assertions.assertTrue(report.getBugs().isEmpty());
     }
+
+    @Test
+    public void shouldNotGiveEqualsOperatorErrorWhenUnresolvedObjectsAndAnnotation() {
+        String code =
+                "@NoEqualsMethod " +
+                "@EqualsOperatorOnObjectAllowed " +
+                "class A { " +
+                    "public String method(Bar b, Bar b1) { " +
+                        "if (b==b1) {" +
+                            "return b.toString();" +
+                        "} " +
+                    "} " +
+                "}";
+        BugReport report = new Analyser().analyse(code);
+        Assertions.assertTrue(report.getBugs().isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreErrorsByNameFromConfiguration() {
+        String code =
+                "class A { " +
+                    "public A(int a, int b) { " +
+                        "double bo = a/b; " +
+                    "} " +
+                "}";
+        Analyser analyser = new Analyser();
+        analyser.setConfiguration(className -> {
+            ArrayList<String> errorsToIgnore = new ArrayList<>();
+            errorsToIgnore.add(new MissingEqualsMethodError().getName());
+            errorsToIgnore.add(new IntegerDivisionError().getName());
+            return errorsToIgnore;
+        });
+        BugReport report = analyser.analyse(code);
+        Assertions.assertTrue(report.getBugs().isEmpty());
+    }
+
+    @Test
+    public void shouldHaveKindsToIgnoreFromAnnotations() {
+        String code =
+                "@NoEqualsMethod " +
+                "@IntegerDivisionAllowed " +
+                "@SomethingElse " +
+                "class A { }";
+        AnnotationsAdapter adapter = new AnnotationsAdapter(StaticJavaParser.parse(code));
+        Assertions.assertEquals(EnumSet.of(ErrorKind.MISSING_EQUALS_METHOD, ErrorKind.INTEGER_DIVISION), adapter.getKindsToIgnoreForClass("A"));
+        Assertions.assertTrue(adapter.getKindsToIgnoreForClass("B").isEmpty());
+        Assertions.assertEquals(2, adapter.getErrorsToIgnoreForClass("A").size());
+    }
+
+    @Test
+    public void shouldGiveIntegerDivisionErrorForEveryDivisionInChain() {
+        String code =
+                "@NoEqualsMethod " +
+                "class A { " +
+                    "public double m(int a, int b, int c, int d) { " +
+                        "return a/b/c/d; " +
+                    "} " +
+                "}";
+        BugReport report = new Analyser().analyse(code);
+        Assertions.assertEquals(3, report.getBugs().size());
+        for (BaseError error : report.getBugs()) {
+            Assertions.assertTrue(error instanceof IntegerDivisionError);
+        }
+    }
+
+    @Test
+    public void shouldNotGiveIntegerDivisionErrorWhenChainHasDouble() {
+        String code =
+                "@NoEqualsMethod " +
+                "class A { " +
+                    "public double m(int a, double b, int c) { " +
+                        "return (a/b)/c; " +
+                    "} " +
+                "}";
+        BugReport report = new Analyser().analyse(code);
+        Assertions.assertTrue(report.getBugs().isEmpty());
+    }
+
+    @Test
+    public void shouldUseInnermostClassAndMethodForIntegerDivision() {
+        String code =
+                "@NoEqualsMethod " +
+                "class A { " +
+                    "public int m(int a, int b) { " +
+                        "@NoEqualsMethod " +
+                        "class B { " +
+                            "double half(int c) { return c/2; } " +
+                        "} " +
+                        "return a/b; " +
+                    "} " +
+                "}";
+        BugReport report = new Analyser().analyse(code);
+        Assertions.assertEquals(1, report.getBugs().size());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+        Assertions.assertEquals("B", report.getBugs().get(0).getContainingClass());
+    }
+
+    @Test
+    public void shouldOnlyRenderOperandsWhenAsked() {
+        int[] renders = {0};
+        EqualsOperatorError error = new EqualsOperatorError();
+        error.setOperator("==");
+        error.setLeftOperand(() -> {
+            renders[0]++;
+            return "a";
+        });
+        error.setRightOperand(() -> "b");
+        Assertions.assertEquals(0, renders[0]);
+
+        BaseError copy = error.copy();
+        Assertions.assertEquals(1, renders[0]);
+        Assertions.assertEquals(Optional.of("a.equals(b)"), error.getSuggestion());
+        Assertions.assertEquals(Optional.of("a.equals(b)"), copy.getSuggestion());
+        Assertions.assertEquals(1, renders[0]);
+    }
 }
@@ -0,0 +1,123 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.EqualsOperatorError;
+import master.thesis.backend.solver.AnalysisTypeSolver;
+import master.thesis.backend.solver.JdkTypeSolver;
+import master.thesis.backend.solver.TypeOverlay;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestJdkTypeSolver {
+
+    private static final String CODE =
+            "@NoEqualsMethod " +
+            "class A { " +
+                "boolean m(String a, String b) { " +
+                    "return a.trim() == b.substring(1); " +
+                "} " +
+            "}";
+
+    @Test
+    public void shouldLookUpTypeOnce() {
+        JdkTypeSolver types = new JdkTypeSolver(10);
+        Assertions.assertTrue(types.tryToSolveType("java.lang.String").isSolved());
+        Assertions.assertTrue(types.tryToSolveType("java.lang.String").isSolved());
+        Assertions.assertFalse(types.tryToSolveType("java.lang.Student").isSolved());
+        Assertions.assertFalse(types.tryToSolveType("java.lang.Student").isSolved());
+        Assertions.assertEquals(2, types.getStatistics().getHits());
+        Assertions.assertEquals(2, types.getStatistics().getMisses());
+        Assertions.assertEquals(2, types.getStatistics().getEntries());
+    }
+
+    @Test
+    public void shouldNotKeepTypesOutsideOfJdk() {
+        JdkTypeSolver types = new JdkTypeSolver(10);
+        Assertions.assertFalse(types.tryToSolveType("Student").isSolved());
+        Assertions.assertFalse(types.tryToSolveType("master.thesis.backend.analyser.Analyser").isSolved());
+        Assertions.assertEquals(0, types.getStatistics().getMisses());
+        Assertions.assertEquals(0, types.getStatistics().getEntries());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedWhenFull() {
+        JdkTypeSolver types = new JdkTypeSolver(2);
+        types.tryToSolveType("java.lang.String");
+        types.tryToSolveType("java.lang.Integer");
+        types.tryToSolveType("java.lang.String");
+        types.tryToSolveType("java.util.List");
+        Assertions.assertEquals(1, types.getStatistics().getEvictions());
+        Assertions.assertEquals(2, types.getStatistics().getEntries());
+
+        types.tryToSolveType("java.lang.String");
+        Assertions.assertEquals(2, types.getStatistics().getHits());
+        types.tryToSolveType("java.lang.Integer");
+        Assertions.assertEquals(4, types.getStatistics().getMisses());
+    }
+
+    @Test
+    public void shouldShareTypesBetweenAnalysers() {
+        JdkTypeSolver types = new JdkTypeSolver(100);
+        BugReport first = new Analyser(types).analyse(CODE);
+        long misses = types.getStatistics().getMisses();
+        BugReport second = new Analyser(types).analyse(CODE);
+        Assertions.assertEquals(misses, types.getStatistics().getMisses());
+        Assertions.assertTrue(types.getStatistics().getHits() > 0);
+        Assertions.assertTrue(first.getBugs().get(0) instanceof EqualsOperatorError);
+        Assertions.assertTrue(second.getBugs().get(0) instanceof EqualsOperatorError);
+    }
+
+    @Test
+    public void shouldGiveSameReportsWhenTypesAreEvicted() {
+        Analyser analyser = new Analyser(new JdkTypeSolver(1));
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            codes.add(i % 2 == 0 ? CODE : CODE.replace("String", "java.util.List<Integer>").replace("a.trim() == b.substring(1)", "a.get(0) == b.get(1)"));
+        }
+        for (BugReport report : analyser.analyseAll(codes.iterator(), 4)) {
+            Assertions.assertFalse(report.getException().isPresent());
+            Assertions.assertEquals(1, report.getBugs().size());
+            Assertions.assertTrue(report.getBugs().get(0) instanceof EqualsOperatorError);
+        }
+    }
+
+    @Test
+    public void shouldBeSharedByCombinedTypeSolvers() {
+        JdkTypeSolver types = new JdkTypeSolver(10);
+        CombinedTypeSolver first = new CombinedTypeSolver(types);
+        CombinedTypeSolver second = new CombinedTypeSolver(types);
+        Assertions.assertTrue(first.tryToSolveType("java.lang.String").isSolved());
+        Assertions.assertTrue(second.tryToSolveType("java.lang.String").isSolved());
+        Assertions.assertNull(types.getParent());
+        Assertions.assertEquals(1, types.getStatistics().getHits());
+    }
+
+    @Test
+    public void shouldFindTypesOfOverlayOnlyInScope() {
+        AnalysisTypeSolver typeSolver = new AnalysisTypeSolver(new JdkTypeSolver(10));
+        ParserConfiguration configuration = new ParserConfiguration();
+        configuration.setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        CompilationUnit compilationUnit = new JavaParser(configuration).parse("package p; class A { class B {} }").getResult().get();
+        TypeOverlay overlay = new TypeOverlay();
+        overlay.addTypes(compilationUnit);
+        Assertions.assertEquals(2, overlay.size());
+
+        Assertions.assertFalse(typeSolver.tryToSolveType("p.A.B").isSolved());
+        try (AnalysisTypeSolver.Scope ignored = typeSolver.use(overlay)) {
+            Assertions.assertTrue(typeSolver.tryToSolveType("p.A.B").isSolved());
+            Assertions.assertTrue(typeSolver.tryToSolveType("java.lang.String").isSolved());
+            try (AnalysisTypeSolver.Scope nested = typeSolver.use(new TypeOverlay())) {
+                Assertions.assertFalse(typeSolver.tryToSolveType("p.A").isSolved());
+            }
+            Assertions.assertTrue(typeSolver.tryToSolveType("p.A").isSolved());
+        }
+        Assertions.assertFalse(typeSolver.tryToSolveType("p.A").isSolved());
+    }
+}
@@ -0,0 +1,111 @@
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.analyser.ParserPool;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestParserPool {
+
+    private static final String CODE = "@NoEqualsMethod\nclass A {\n double a(Integer b) { return b.intValue() / 2; }\n}";
+
+    @Test
+    public void shouldReuseParserOfPool() {
+        Analyser analyser = new Analyser();
+        analyser.setParserPool(ParserPool.Strategy.POOLED, 2);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(1, analyser.analyse(CODE).getBugs().size());
+        }
+        AnalysisOptions options = new AnalysisOptions();
+        options.setEnabledKinds(EnumSet.of(ErrorKind.IF_WITHOUT_BRACKETS));
+        Assertions.assertEquals(0, analyser.analyse(CODE, options).getBugs().size());
+
+        ParserPool.Statistics statistics = analyser.getParserPool().getStatistics();
+        Assertions.assertEquals(6, statistics.getLeases());
+        Assertions.assertEquals(1, statistics.getCreated());
+        Assertions.assertEquals(0, statistics.getWaits());
+        Assertions.assertEquals(0, statistics.getLeased());
+    }
+
+    @Test
+    public void shouldCreateParserForEveryCall() {
+        Analyser analyser = new Analyser();
+        analyser.setParserPool(ParserPool.Strategy.PER_CALL, 1);
+        analyser.analyse(CODE);
+        analyser.analyse(CODE);
+        Assertions.assertEquals(2, analyser.getParserPool().getStatistics().getCreated());
+    }
+
+    @Test
+    public void shouldReuseParsersAcrossBatches() {
+        Analyser analyser = new Analyser();
+        analyser.setParserPool(ParserPool.Strategy.POOLED, 3);
+        analyser.getParserPool().prestart();
+        Assertions.assertEquals(3, analyser.getParserPool().getStatistics().getCreated());
+        Assertions.assertEquals(30, analyser.analyseAll(codes(30).iterator(), 3).size());
+
+        Assertions.assertEquals(30, analyser.analyseAll(codes(30).iterator(), 3).size());
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (String code : codes(10)) {
+            sources.put(code, code);
+        }
+        Assertions.assertEquals(10, analyser.analyseFiles(sources, 3, new AnalysisOptions()).size());
+        ParserPool.Statistics statistics = analyser.getParserPool().getStatistics();
+        Assertions.assertEquals(70, statistics.getLeases());
+        Assertions.assertEquals(3, statistics.getCreated());
+        Assertions.assertEquals(0, statistics.getLeased());
+    }
+
+    @Test
+    public void shouldKeepParserForEveryThread() throws Exception {
+        Analyser analyser = new Analyser();
+        analyser.setParserPool(ParserPool.Strategy.PER_THREAD, 1);
+        analyser.getParserPool().prestart();
+        analyser.analyse(CODE);
+        analyser.analyse(CODE);
+        Assertions.assertEquals(1, analyser.getParserPool().getStatistics().getCreated());
+
+        Thread thread = new Thread(() -> analyser.analyse(CODE));
+        thread.start();
+        thread.join();
+        ParserPool.Statistics statistics = analyser.getParserPool().getStatistics();
+        Assertions.assertEquals(3, statistics.getLeases());
+        Assertions.assertEquals(2, statistics.getCreated());
+        Assertions.assertEquals(0, statistics.getWaits());
+    }
+
+    @Test
+    public void shouldWaitForParserWhenAllAreLeased() {
+        Analyser analyser = new Analyser();
+        analyser.setParserPool(ParserPool.Strategy.POOLED, 1);
+        List<BugReport> reports = analyser.analyseAll(codes(40).iterator(), 4);
+        for (BugReport report : reports) {
+            Assertions.assertFalse(report.getException().isPresent());
+            Assertions.assertEquals(1, report.getBugs().size());
+        }
+        ParserPool.Statistics statistics = analyser.getParserPool().getStatistics();
+        Assertions.assertEquals(40, statistics.getLeases());
+        Assertions.assertEquals(1, statistics.getCreated());
+        Assertions.assertEquals(0, statistics.getLeased());
+    }
+
+    @Test
+    public void shouldNotMakeEmptyPool() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Analyser().setParserPool(ParserPool.Strategy.POOLED, 0));
+    }
+
+    private static List<String> codes(int number) {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            codes.add(CODE.replace("class A", "class A" + i));
+        }
+        return codes;
+    }
+}
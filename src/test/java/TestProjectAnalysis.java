@@ -0,0 +1,177 @@
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.analyser.ProjectReport;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.cache.SourceHash;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestProjectAnalysis {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void shouldAnalyseEveryJavaFileInSubdirectories() throws IOException {
+        write("A.java", "class A {\n double a = 5 / 2;\n}");
+        write("src/main/B.java", "@NoEqualsMethod\nclass B {\n boolean b(Object a, Object b) { return a == b; }\n}");
+        write("src/main/Broken.java", "class Broken {");
+        write("src/main/Unresolved.java", "@NoEqualsMethod\nclass Unresolved {\n double u(Student s) { return 1 / 2 + (s.a() == s.b() ? 0 : 1); }\n}");
+        write("src/notes.txt", "class C {}");
+
+        ProjectReport project = new Analyser().analyseProject(root);
+        Assertions.assertEquals(4, project.getNumberOfFiles());
+        Assertions.assertEquals(1, project.getNumberOfFilesNotAnalysed());
+        Assertions.assertEquals(1, project.getNumberOfFilesWithUnresolvedSymbols());
+        BugReport unresolved = project.getReports().get(Paths.get("src", "main", "Unresolved.java"));
+        Assertions.assertFalse(unresolved.getBugs().isEmpty());
+        Assertions.assertEquals(3 + unresolved.getBugs().size(), project.getNumberOfErrors());
+        Assertions.assertEquals(1 + unresolved.getBugs().size(), project.getNumberOfErrors(ErrorKind.INTEGER_DIVISION));
+        Assertions.assertEquals(1, project.getNumberOfErrors(ErrorKind.EQUALS_OPERATOR));
+        Assertions.assertEquals(2, project.getReports().get(Paths.get("A.java")).getBugs().size());
+        Assertions.assertTrue(project.getReports().get(Paths.get("src", "main", "Broken.java")).getException().isPresent());
+    }
+
+    @Test
+    public void shouldGiveSameReportsAsAnalysingStrings() throws IOException {
+        String code = "\uFEFFclass A {\r\n  boolean m(int[] a, int[] b) {\r\n    if (a == b);\r\n    return true | false;\r\n  }\r\n}\r\n";
+        String big = "class Big {\n" + repeat("  double d%d = 1 / 2; // \u00e6\u00f8\u00e5\n", 2500) + "}\n";
+        write("A.java", code);
+        write("Big.java", big);
+
+        Analyser analyser = new Analyser();
+        ProjectReport project = analyser.analyseProject(root);
+        assertSameBugs(analyser.analyse(code.substring(1)), project.getReports().get(Paths.get("A.java")));
+        assertSameBugs(analyser.analyse(big), project.getReports().get(Paths.get("Big.java")));
+    }
+
+    @Test
+    public void shouldGiveReportsToConsumerWithoutKeepingThem() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            write("p" + (i % 5) + "/A" + i + ".java", "class A" + i + " { double d = 1 / 2; }");
+        }
+        List<Path> files = new ArrayList<>();
+        AtomicInteger inConsumer = new AtomicInteger();
+        ProjectReport project = new Analyser().analyseProject(root, 3, new AnalysisOptions(), (file, report) -> {
+            Assertions.assertEquals(1, inConsumer.incrementAndGet());
+            files.add(file);
+            inConsumer.decrementAndGet();
+        });
+        Assertions.assertEquals(50, files.size());
+        Assertions.assertEquals(50, project.getNumberOfFiles());
+        Assertions.assertEquals(50, project.getNumberOfErrors(ErrorKind.INTEGER_DIVISION));
+        Assertions.assertTrue(project.getReports().isEmpty());
+    }
+
+    @Test
+    public void shouldUseCacheForSameFiles() throws IOException {
+        write("A.java", "class A { double d = 1 / 2; }");
+        write("copy/A.java", "class A { double d = 1 / 2; }");
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        analyser.analyseProject(root, 1, new AnalysisOptions(), null);
+        analyser.analyse("class A { double d = 1 / 2; }");
+        Assertions.assertEquals(2, cache.getStatistics().getHits());
+    }
+
+    @Test
+    public void shouldHashBytesLikeCode() {
+        String code = "class \u00c5 {\r\n}\r// \u00f8\n";
+        ByteBuffer bytes = ByteBuffer.wrap(code.getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(SourceHash.of(code, "context"), SourceHash.of(bytes, "context"));
+        Assertions.assertEquals(0, bytes.position());
+    }
+
+    @Test
+    public void shouldNotAnalyseFile() throws IOException {
+        Path file = write("A.java", "class A {}");
+        Assertions.assertThrows(NotDirectoryException.class, () -> new Analyser().analyseProject(file));
+    }
+
+    @Test
+    public void shouldFindTypesDeclaredInOtherFiles() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("p/A.java", "package p;\nimport q.B;\n@NoEqualsMethod\nclass A {\n boolean a(B b) { return b.next() == b.next().next(); }\n}");
+        sources.put("q/B.java", "package q;\n@NoEqualsMethod\npublic class B {\n public B next() { return this; }\n public int size() { return 1; }\n}");
+        sources.put("C.java", "@NoEqualsMethod\nclass C {\n double c(q.B b) { return b.size() / 2; }\n}");
+
+        Analyser analyser = new Analyser();
+        Assertions.assertTrue(analyser.analyse(sources.get("p/A.java")).getException().isPresent());
+        Map<String, BugReport> reports = analyser.analyseFiles(sources);
+        Assertions.assertEquals(new ArrayList<>(sources.keySet()), new ArrayList<>(reports.keySet()));
+        Assertions.assertFalse(reports.get("p/A.java").getException().isPresent());
+        Assertions.assertEquals(1, reports.get("p/A.java").getBugs().size());
+        Assertions.assertEquals(ErrorKind.EQUALS_OPERATOR, reports.get("p/A.java").getBugs().get(0).getKind().get());
+        Assertions.assertEquals(0, reports.get("q/B.java").getBugs().size());
+        Assertions.assertEquals(1, reports.get("C.java").getBugs().size());
+        Assertions.assertEquals(ErrorKind.INTEGER_DIVISION, reports.get("C.java").getBugs().get(0).getKind().get());
+    }
+
+    @Test
+    public void shouldAnalyseOtherFilesWhenOneHasParseError() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("Broken.java", "class Broken {");
+        sources.put("A.java", "@NoEqualsMethod\nclass A {\n boolean a(B b) { return b == b.b; }\n}");
+        sources.put("B.java", "@NoEqualsMethod\nclass B {\n B b;\n}");
+
+        Map<String, BugReport> reports = new Analyser().analyseFiles(sources, 2, new AnalysisOptions());
+        Assertions.assertTrue(reports.get("Broken.java").getException().isPresent());
+        Assertions.assertFalse(reports.get("A.java").getException().isPresent());
+        Assertions.assertEquals(1, reports.get("A.java").getBugs().size());
+    }
+
+    @Test
+    public void shouldGiveSameReportsWithManyWorkers() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            sources.put("A" + i + ".java", "@NoEqualsMethod\nclass A" + i + " {\n int size;\n double half(A" + ((i + 1) % 40) + " next) { return next.size / 2; }\n}");
+        }
+        Analyser analyser = new Analyser();
+        Map<String, BugReport> alone = analyser.analyseFiles(sources, 1, new AnalysisOptions());
+        Map<String, BugReport> together = analyser.analyseFiles(sources, 4, new AnalysisOptions());
+        for (String file : sources.keySet()) {
+            Assertions.assertEquals(1, alone.get(file).getBugs().size());
+            assertSameBugs(alone.get(file), together.get(file));
+        }
+    }
+
+    private Path write(String name, String code) throws IOException {
+        Path file = root.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String repeat(String line, int times) {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            lines.append(String.format(line, i));
+        }
+        return lines.toString();
+    }
+
+    private void assertSameBugs(BugReport expected, BugReport actual) {
+        Assertions.assertEquals(expected.getBugs().size(), actual.getBugs().size());
+        for (int i = 0; i < expected.getBugs().size(); i++) {
+            Assertions.assertEquals(expected.getBugs().get(i).getName(), actual.getBugs().get(i).getName());
+            Assertions.assertEquals(expected.getBugs().get(i).getLineNumber(), actual.getBugs().get(i).getLineNumber());
+        }
+        Assertions.assertFalse(actual.getException().isPresent());
+    }
+}
@@ -0,0 +1,104 @@
+import master.thesis.backend.analyser.AnalysisOptions;
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.MissingEqualsMethodError;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+
+public class TestReportCache {
+
+    private static final String CODE = "class A {\n double a = 5 / 2;\n}";
+
+    @Test
+    public void shouldGiveCachedReportForSameCode() {
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        BugReport first = analyser.analyse(CODE);
+        BugReport second = analyser.analyse(CODE.replace("\n", "\r\n"));
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.getStatistics().getHits());
+        Assertions.assertEquals(1, cache.getStatistics().getMisses());
+        Assertions.assertEquals(2, second.getBugs().size());
+    }
+
+    @Test
+    public void shouldNotChangeCachedReport() {
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(new ReportCache(10, 10_000));
+        BugReport report = analyser.analyse(CODE);
+        Assertions.assertTrue(report.isSnapshot());
+        report.getBugs().clear();
+        report.getBugs().get(0).setLineNumber(100);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> report.addBug(new MissingEqualsMethodError()));
+
+        BugReport cached = analyser.analyse(CODE);
+        Assertions.assertEquals(2, cached.getBugs().size());
+        Assertions.assertEquals(2, cached.getBugs().get(0).getLineNumber());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedWhenFull() {
+        ReportCache cache = new ReportCache(2, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        analyser.analyse("class A {}");
+        analyser.analyse("class B {}");
+        analyser.analyse("class A {}");
+        analyser.analyse("class C {}");
+        Assertions.assertEquals(1, cache.getStatistics().getEvictions());
+        Assertions.assertEquals(2, cache.getStatistics().getEntries());
+
+        analyser.analyse("class A {}");
+        Assertions.assertEquals(2, cache.getStatistics().getHits());
+        analyser.analyse("class B {}");
+        Assertions.assertEquals(4, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void shouldEvictWhenTooHeavy() {
+        ReportCache cache = new ReportCache(100, 25);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        analyser.analyse("class A {}");
+        analyser.analyse("class B {}");
+        Assertions.assertEquals(20, cache.getStatistics().getWeight());
+        analyser.analyse("class C {}");
+        Assertions.assertEquals(1, cache.getStatistics().getEvictions());
+        Assertions.assertEquals(20, cache.getStatistics().getWeight());
+    }
+
+    @Test
+    public void shouldMissWhenOptionsOrConfigurationChange() {
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser analyser = new Analyser();
+        analyser.setReportCache(cache);
+        analyser.analyse(CODE);
+
+        AnalysisOptions options = new AnalysisOptions();
+        options.setEnabledKinds(EnumSet.of(ErrorKind.INTEGER_DIVISION));
+        Assertions.assertEquals(1, analyser.analyse(CODE, options).getBugs().size());
+
+        analyser.setConfiguration(className -> new ArrayList<>());
+        analyser.analyse(CODE);
+        Assertions.assertEquals(0, cache.getStatistics().getHits());
+        Assertions.assertEquals(3, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void shouldShareCacheBetweenAnalysersWithDefaultSettings() {
+        ReportCache cache = new ReportCache(10, 10_000);
+        Analyser first = new Analyser();
+        first.setReportCache(cache);
+        Analyser second = new Analyser();
+        second.setReportCache(cache);
+        first.analyse(CODE);
+        second.analyse(CODE);
+        Assertions.assertEquals(1, cache.getStatistics().getHits());
+    }
+}
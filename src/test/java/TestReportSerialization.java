@@ -0,0 +1,142 @@
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BinaryExprError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.errors.EqualsOperatorError;
+import master.thesis.backend.errors.ErrorKind;
+import master.thesis.backend.errors.IntegerDivisionError;
+import master.thesis.backend.serialization.ReportCodec;
+import master.thesis.backend.serialization.ReportJson;
+import master.thesis.backend.serialization.SerializedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+public class TestReportSerialization {
+
+    private static final String CODE =
+            "class A {\n" +
+            "    double field = 7 / 2;\n" +
+            "    boolean m(Object a, int[] b, int[] c, String s) {\n" +
+            "        if (a == null);\n" +
+            "        if (b != c)\n" +
+            "            a.toString(); a.hashCode();\n" +
+            "        if (s == \"\\\"quoted\\\"\\n\") {}\n" +
+            "        return true & false;\n" +
+            "    }\n" +
+            "}\n";
+
+    @Test
+    public void shouldReportEveryKind() {
+        EnumSet<ErrorKind> kinds = EnumSet.noneOf(ErrorKind.class);
+        for (BaseError error : new Analyser().analyse(CODE).getBugs()) {
+            kinds.add(error.getKind().get());
+        }
+        Assertions.assertEquals(EnumSet.allOf(ErrorKind.class), kinds);
+    }
+
+    @Test
+    public void shouldGiveSameReportFromJson() {
+        BugReport report = new Analyser().analyse(CODE);
+        BugReport read = ReportJson.fromJson(ReportJson.toJson(report));
+        Assertions.assertEquals(describe(report), describe(read));
+        Assertions.assertEquals(report.getClassName(), read.getClassName());
+        Assertions.assertFalse(read.getException().isPresent());
+    }
+
+    @Test
+    public void shouldGiveSameReportFromBytes() throws IOException {
+        BugReport report = new Analyser().analyse(CODE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (WritableByteChannel channel = Channels.newChannel(bytes)) {
+            ReportCodec.write(report, channel);
+            ReportCodec.write(new Analyser().analyse("class B {}"), channel);
+        }
+        try (ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertEquals(describe(report), describe(ReportCodec.read(channel)));
+            Assertions.assertEquals("B", ReportCodec.read(channel).getClassName());
+        }
+    }
+
+    @Test
+    public void shouldKeepExceptionAndTruncation() throws IOException {
+        BugReport report = new Analyser().analyse("class A {");
+        report.setTruncated(true);
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ReportJson.write(report, json);
+        BugReport fromJson = ReportJson.read(new ByteArrayInputStream(json.toByteArray()));
+        BugReport fromBytes = ReportCodec.decode(ReportCodec.encode(report));
+        for (BugReport read : new BugReport[] {fromJson, fromBytes}) {
+            Assertions.assertTrue(read.isTruncated());
+            SerializedException exception = (SerializedException) read.getException().get();
+            Assertions.assertEquals(report.getException().get().getClass().getName(), exception.getOriginalClassName());
+            Assertions.assertEquals(report.getException().get().getMessage(), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldWriteEscapedJson() {
+        BugReport report = new BugReport();
+        EqualsOperatorError error = new EqualsOperatorError();
+        error.setLeftOperand("s\t\u0001");
+        error.setOperator("==");
+        error.setRightOperand("\"\\\"");
+        report.addBug(error);
+        String json = ReportJson.toJson(report);
+        Assertions.assertTrue(json.contains("\"leftOperand\":\"s\\t\\u0001\",\"operator\":\"==\",\"rightOperand\":\"\\\"\\\\\\\"\""), json);
+        Assertions.assertTrue(json.contains("\"suggestion\":\"s\\t\\u0001.equals(\\\"\\\\\\\")\""), json);
+        Assertions.assertEquals("s\t\u0001", ((BinaryExprError) ReportJson.fromJson(json).getBugs().get(0)).getLeftOperand());
+    }
+
+    @Test
+    public void shouldKeepUnicodeInJson() {
+        BugReport report = new BugReport();
+        report.setClassName("\u00c6bl\u00e9\u4e2d\ud83d\ude00");
+        BugReport read = ReportJson.fromJson(ReportJson.toJson(report));
+        Assertions.assertEquals(report.getClassName(), read.getClassName());
+        Assertions.assertEquals("\u00e9", ReportJson.fromJson("{\"className\":\"\\u00e9\"}").getClassName());
+
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longName.append("a\u00e9");
+        }
+        report.setClassName(longName.toString());
+        Assertions.assertEquals(report.getClassName(), ReportJson.fromJson(ReportJson.toJson(report)).getClassName());
+    }
+
+    @Test
+    public void shouldSkipUnknownFieldsInJson() {
+        String json = "{ \"bugs\" : [ { \"lineNumber\" : 4, \"future\" : {\"a\": [1, 2.5e3, null, true]},\n" +
+                "\"name\" : \"IntegerDivisionError\", \"leftOperand\": \"a\", \"rightOperand\": \"b\" } ], \"className\": \"A\", \"other\": false }";
+        BugReport report = ReportJson.fromJson(json);
+        Assertions.assertEquals("A", report.getClassName());
+        Assertions.assertTrue(report.getBugs().get(0) instanceof IntegerDivisionError);
+        Assertions.assertEquals(4, report.getBugs().get(0).getLineNumber());
+        Assertions.assertEquals("(double)a/(double)b", report.getBugs().get(0).getSuggestion().get());
+    }
+
+    @Test
+    public void shouldNotReadOtherJson() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReportJson.fromJson("{\"bugs\":[{\"name\":\"NoSuchError\"}]}"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReportJson.fromJson("{\"className\":\"A\""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReportJson.fromJson("[]"));
+    }
+
+    private List<String> describe(BugReport report) {
+        List<String> descriptions = new ArrayList<>();
+        for (BaseError error : report.getBugs()) {
+            descriptions.add(error.getName() + " " + error.getContainingClass() + ":" + error.getLineNumber() + " " + error.getSuggestion().orElse("")
+                    + " " + error.getCauseOfError() + " " + error.getTip().orElse("") + " " + error.getMoreInfoLink().orElse(""));
+        }
+        return descriptions;
+    }
+}
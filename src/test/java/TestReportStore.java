@@ -0,0 +1,210 @@
+import master.thesis.backend.analyser.Analyser;
+import master.thesis.backend.cache.ReportCache;
+import master.thesis.backend.errors.BaseError;
+import master.thesis.backend.errors.BugReport;
+import master.thesis.backend.serialization.ReportCodec;
+import master.thesis.backend.serialization.SerializedException;
+import master.thesis.backend.store.ReportStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestReportStore {
+
+    private static final String CODE =
+            "class A {\n" +
+            "    double field = 7 / 2;\n" +
+            "    boolean m(Object a, int[] b, int[] c) {\n" +
+            "        if (a == null);\n" +
+            "        if (b == c)\n" +
+            "            a.toString();\n" +
+            "        return true & false;\n" +
+            "    }\n" +
+            "}\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldGiveSameReportAfterRoundTrip() {
+        BugReport report = new Analyser().analyse(CODE);
+        BugReport decoded = ReportCodec.decode(ReportCodec.encode(report));
+        Assertions.assertEquals(describe(report), describe(decoded));
+        Assertions.assertEquals(report.getClassName(), decoded.getClassName());
+    }
+
+    @Test
+    public void shouldKeepReportsAfterRestart() throws IOException {
+        Path file = directory.resolve("reports");
+        try (ReportStore store = ReportStore.open(file, 1 << 20)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            analyser.analyse(CODE);
+            Assertions.assertEquals(1, store.getStatistics().getWrites());
+        }
+        try (ReportStore store = ReportStore.open(file, 1 << 20)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            BugReport report = analyser.analyse(CODE);
+            Assertions.assertEquals(1, store.getStatistics().getHits());
+            Assertions.assertEquals(describe(new Analyser().analyse(CODE)), describe(report));
+        }
+    }
+
+    @Test
+    public void shouldStoreParseErrors() throws IOException {
+        try (ReportStore store = ReportStore.open(directory.resolve("reports"), 1 << 20)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            analyser.analyse("class A {");
+            BugReport report = new Analyser().analyse("class A {");
+            analyser.setReportCache(new ReportCache(10, 10_000));
+            BugReport stored = analyser.analyse("class A {");
+            Assertions.assertTrue(stored.getException().get() instanceof SerializedException);
+            Assertions.assertEquals(report.getException().get().getClass().getName(), ((SerializedException) stored.getException().get()).getOriginalClassName());
+            String firstLine = report.getException().get().getMessage().split("\n")[0];
+            Assertions.assertTrue(stored.getException().get().getMessage().startsWith(firstLine));
+        }
+    }
+
+    @Test
+    public void shouldSkipCorruptRecord() throws IOException {
+        Path file = directory.resolve("reports");
+        try (ReportStore store = ReportStore.open(file, 1 << 20)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            analyser.analyse("class A {}");
+            analyser.analyse(CODE);
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(40);
+            raw.write(raw.read() ^ 0xFF);
+            raw.seek(raw.length());
+            raw.write(new byte[] {0x52, 0x45, 0x50, 0x54, 0, 0, 1, 0, 0, 0, 0, 0});
+        }
+        try (ReportStore store = ReportStore.open(file, 1 << 20)) {
+            Assertions.assertEquals(2, store.getStatistics().getCorruptRecords());
+            Assertions.assertEquals(1, store.getStatistics().getEntries());
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            Assertions.assertEquals(5, analyser.analyse(CODE).getBugs().size());
+            Assertions.assertEquals(1, store.getStatistics().getHits());
+        }
+    }
+
+    @Test
+    public void shouldCompactWhenTooBig() throws IOException {
+        Path file = directory.resolve("reports");
+        try (ReportStore store = ReportStore.open(file, 2_000)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            for (int i = 0; i < 40; i++) {
+                analyser.analyse("class A" + i + " { double d = 1 / 2; }");
+            }
+            Assertions.assertTrue(store.getStatistics().getCompactions() > 0);
+            Assertions.assertTrue(Files.size(file) <= 2_000);
+            analyser.analyse("class A39 { double d = 1 / 2; }");
+            Assertions.assertEquals(1, store.getStatistics().getHits());
+        }
+    }
+
+    @Test
+    public void shouldShareStoreBetweenInstances() throws IOException {
+        Path file = directory.resolve("reports");
+        try (ReportStore first = ReportStore.open(file, 2_000); ReportStore second = ReportStore.open(file, 2_000)) {
+            Analyser writer = new Analyser();
+            writer.setReportStore(first);
+            Analyser reader = new Analyser();
+            reader.setReportStore(second);
+            writer.analyse(CODE);
+            reader.analyse(CODE);
+            Assertions.assertEquals(1, second.getStatistics().getHits());
+
+            for (int i = 0; i < 40; i++) {
+                writer.analyse("class A" + i + " {}");
+            }
+            Assertions.assertTrue(first.getStatistics().getCompactions() > 0);
+            reader.analyse("class A39 {}");
+            Assertions.assertEquals(2, second.getStatistics().getHits());
+            reader.analyse("class B {}");
+            writer.analyse("class B {}");
+            Assertions.assertEquals(0, second.getStatistics().getFailures());
+            Assertions.assertTrue(first.getStatistics().getHits() > 0);
+        }
+    }
+
+    @Test
+    public void shouldReadReportsAddedAfterOpen() throws IOException {
+        Path file = directory.resolve("reports");
+        try (ReportStore reader = ReportStore.open(file, 1 << 20); ReportStore writer = ReportStore.open(file, 1 << 20)) {
+            for (int i = 0; i < 20; i++) {
+                BugReport report = new Analyser().analyse("class A" + i + " { double d = 1 / 2; }");
+                Assertions.assertTrue(writer.put("A" + i, report));
+                Assertions.assertEquals(describe(report), describe(reader.get("A" + i).get()));
+            }
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals("A" + i, reader.get("A" + i).get().getBugs().get(0).getContainingClass());
+            }
+            Assertions.assertEquals(40, reader.getStatistics().getHits());
+            Assertions.assertEquals(0, reader.getStatistics().getFailures());
+        }
+    }
+
+    @Test
+    public void shouldReadAndWriteFromManyThreads() throws IOException {
+        Path file = directory.resolve("reports");
+        try (ReportStore store = ReportStore.open(file, 2_000)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            List<String> codes = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                codes.add("class " + className(i) + " { double d = 1 / 2; }");
+            }
+            List<BugReport> reports = analyser.analyseAll(codes.iterator(), 4);
+            for (int i = 0; i < codes.size(); i++) {
+                Assertions.assertEquals(className(i), reports.get(i).getBugs().get(0).getContainingClass());
+            }
+            Assertions.assertTrue(store.getStatistics().getHits() > 0);
+            Assertions.assertTrue(store.getStatistics().getCompactions() > 0);
+            Assertions.assertEquals(0, store.getStatistics().getFailures());
+        }
+    }
+
+    @Test
+    public void shouldNotUseStoreWithOtherSettings() throws IOException {
+        try (ReportStore store = ReportStore.open(directory.resolve("reports"), 1 << 20)) {
+            Analyser analyser = new Analyser();
+            analyser.setReportStore(store);
+            analyser.setConfiguration(className -> new ArrayList<>());
+            analyser.analyse(CODE);
+            Assertions.assertEquals(0, store.getStatistics().getWrites());
+            Assertions.assertEquals(0, store.getStatistics().getMisses());
+        }
+    }
+
+    @Test
+    public void shouldNotOpenOtherFile() throws IOException {
+        Path file = directory.resolve("other");
+        Files.write(file, "not a store at all".getBytes());
+        Assertions.assertThrows(IOException.class, () -> ReportStore.open(file, 1 << 20));
+    }
+
+    private static String className(int i) {
+        return i % 2 == 0 ? "A" + i : "B";
+    }
+
+    private List<String> describe(BugReport report) {
+        List<String> descriptions = new ArrayList<>();
+        for (BaseError error : report.getBugs()) {
+            descriptions.add(error.getName() + " " + error.getContainingClass() + ":" + error.getLineNumber() + " " + error.getSuggestion().orElse("") + " " + error.getCauseOfError());
+        }
+        return descriptions;
+    }
+}
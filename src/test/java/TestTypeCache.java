@@ -0,0 +1,146 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import master.thesis.backend.detector.TypeCache;
+import master.thesis.backend.detector.ValueType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TestTypeCache {
+
+    private final JavaParser parser = newParser();
+
+    @Test
+    public void shouldFindTypesOfLiteralsFromSyntax() {
+        CompilationUnit compilationUnit = parse("class A { void m() { Object o = 1 + 2L == 3.0f ? null : \"s\" + 'c'; } }");
+        TypeCache types = new TypeCache();
+        for (BinaryExpr expression : compilationUnit.findAll(BinaryExpr.class)) {
+            types.typeOf(expression);
+        }
+        Assertions.assertEquals(ValueType.STRING, types.typeOf(compilationUnit.findAll(BinaryExpr.class).get(2)));
+        Assertions.assertEquals(0, types.getLookups(TypeCache.Tier.SOLVER));
+    }
+
+    @Test
+    public void shouldFindTypesOfLocalsAndParametersFromScope() {
+        CompilationUnit compilationUnit = parse(
+                "class A { " +
+                    "int field; " +
+                    "double m(int a, String s) { " +
+                        "long b = 2; " +
+                        "boolean c = s == null; " +
+                        "return a / b + field; " +
+                    "} " +
+                "}");
+        TypeCache types = new TypeCache();
+        for (NameExpr name : compilationUnit.findAll(NameExpr.class)) {
+            types.typeOf(name);
+        }
+        Assertions.assertEquals(4, types.getLookups(TypeCache.Tier.SCOPE));
+        Assertions.assertEquals(0, types.getLookups(TypeCache.Tier.SOLVER));
+    }
+
+    @Test
+    public void shouldFindLocalThatHidesFieldOnlyAfterItIsDeclared() {
+        CompilationUnit compilationUnit = parse(
+                "class A { " +
+                    "int x; " +
+                    "void m() { " +
+                        "int before = x; " +
+                        "{ String x = \"\"; Object inside = x; } " +
+                        "int after = x; " +
+                    "} " +
+                "}");
+        TypeCache types = new TypeCache();
+        List<NameExpr> names = compilationUnit.findAll(NameExpr.class);
+        Assertions.assertTrue(types.typeOf(names.get(0)).isInt());
+        Assertions.assertEquals(ValueType.STRING, types.typeOf(names.get(1)));
+        Assertions.assertTrue(types.typeOf(names.get(2)).isInt());
+        Assertions.assertEquals(0, types.getLookups(TypeCache.Tier.SOLVER));
+    }
+
+    @Test
+    public void shouldUseSolverWhenFieldMayBeInherited() {
+        CompilationUnit compilationUnit = parse(
+                "class B { int x; } " +
+                "class A extends B { " +
+                    "int m() { return x; } " +
+                "}");
+        TypeCache types = new TypeCache();
+        Assertions.assertTrue(types.typeOf(compilationUnit.findFirst(NameExpr.class).get()).isInt());
+        Assertions.assertEquals(1, types.getLookups(TypeCache.Tier.SOLVER));
+    }
+
+    @Test
+    public void shouldUseSolverWhenJavaLangTypeIsShadowed() {
+        CompilationUnit compilationUnit = parse(
+                "class A { " +
+                    "class String {} " +
+                    "boolean m(String a, String b) { return a == b; } " +
+                "}");
+        TypeCache types = new TypeCache();
+        ValueType type = types.typeOf(compilationUnit.findFirst(NameExpr.class).get());
+        Assertions.assertEquals("A.String", type.getName());
+        Assertions.assertEquals(1, types.getLookups(TypeCache.Tier.SOLVER));
+    }
+
+    @Test
+    public void shouldGiveSameTypesAsSolver() {
+        CompilationUnit compilationUnit = parse(
+                "import java.util.List; " +
+                "class A { " +
+                    "static final long LIMIT = 10; " +
+                    "char[] chars; " +
+                    "void m(byte b, short s, List<String> list, int... rest) { " +
+                        "for (int i = 0; i < rest.length; i++) { " +
+                            "float f = (float) i / 2; " +
+                            "Object o = b + s + f * LIMIT; " +
+                        "} " +
+                        "for (String each : list) { " +
+                            "boolean same = each == list.get(0) || !(each instanceof String); " +
+                        "} " +
+                        "Runnable r = () -> { int i = chars.length; Object o = i % 2 + \"\" + chars; }; " +
+                        "try { } catch (RuntimeException e) { Object o = e == null; } " +
+                    "} " +
+                "}");
+        TypeCache types = new TypeCache();
+        for (Expression expression : compilationUnit.findAll(Expression.class)) {
+            if (expression.isNameExpr() || expression.isBinaryExpr() || expression.isUnaryExpr() || expression.isCastExpr() || expression.isLiteralExpr()) {
+                ValueType expected = ValueType.of(expression.calculateResolvedType());
+                Assertions.assertEquals(expected, types.typeOf(expression), expression.toString());
+            }
+        }
+        Assertions.assertTrue(types.getLookups(TypeCache.Tier.SCOPE) > 0);
+    }
+
+    @Test
+    public void shouldGiveSameTypesOfUnaryOperatorsAsSolver() {
+        CompilationUnit compilationUnit = parse("class A { void m(byte b, short s, char c, long l) { Object o = -b + ~s + +c + -l + ~b + b++ + --s; } }");
+        TypeCache types = new TypeCache();
+        List<Expression> operands = compilationUnit.findAll(Expression.class, Expression::isUnaryExpr);
+        Assertions.assertTrue(types.typeOf(operands.get(0)).isInt());
+        Assertions.assertEquals("short", types.typeOf(operands.get(1)).getName());
+        Assertions.assertEquals("long", types.typeOf(operands.get(3)).getName());
+        for (Expression operand : operands) {
+            Assertions.assertEquals(ValueType.of(operand.calculateResolvedType()), types.typeOf(operand), operand.toString());
+        }
+        Assertions.assertEquals(0, types.getLookups(TypeCache.Tier.SOLVER));
+    }
+
+    private CompilationUnit parse(String code) {
+        return parser.parse(code).getResult().get();
+    }
+
+    private static JavaParser newParser() {
+        ParserConfiguration configuration = new ParserConfiguration();
+        configuration.setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+        return new JavaParser(configuration);
+    }
+}